@@ -0,0 +1,131 @@
+package com.brenda.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH benchmarks, writes JMH's JSON results and compares each score with the checked-in
+ * baseline. All benchmarks report average time; a score more than the tolerance above its baseline
+ * is a regression only if the two confidence intervals don't overlap either, so run-to-run noise
+ * doesn't fail the build. Regressions fail it unless benchmark.failOnRegression is false.
+ * The baseline keeps scores and run settings, nothing about the machine; still, it only means
+ * something on the kind of machine that recorded it. Refresh it with -Dbenchmark.updateBaseline=true
+ * whenever the benchmarked code changes.
+ */
+public final class BenchmarkRunner {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path results = Path.of(System.getProperty("benchmark.results", "target/jmh-results.json"));
+    Path baseline = Path.of(System.getProperty("benchmark.baseline", "src/jmh/baseline.json"));
+    double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.25"));
+    Files.createDirectories(results.toAbsolutePath().getParent());
+
+    Options options = new OptionsBuilder()
+        .include(System.getProperty("benchmark.include", ".*"))
+        .forks(Integer.getInteger("benchmark.forks", 3))
+        .warmupIterations(10)
+        .warmupTime(TimeValue.seconds(1))
+        .measurementIterations(Integer.getInteger("benchmark.iterations", 10))
+        .measurementTime(TimeValue.seconds(1))
+        .resultFormat(ResultFormatType.JSON)
+        .result(results.toString())
+        .build();
+    new Runner(options).run();
+
+    if (Boolean.getBoolean("benchmark.updateBaseline") || !Files.exists(baseline)) {
+      writeBaseline(results, baseline);
+      System.out.println("Baseline written to " + baseline);
+      return;
+    }
+
+    int regressions = compare(scores(baseline), scores(results), tolerance);
+    if (regressions > 0 && !"false".equals(System.getProperty("benchmark.failOnRegression"))) {
+      System.err.println(regressions + " benchmark(s) regressed more than " + Math.round(tolerance * 100) + "% against " + baseline);
+      System.exit(1);
+    }
+  }
+
+  private static int compare(Map<String, Score> baseline, Map<String, Score> current, double tolerance) {
+    int regressions = 0;
+    System.out.printf("%n%-70s %22s %22s %8s%n", "Benchmark", "Baseline", "Current", "Change");
+
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score now = entry.getValue();
+      Score before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-70s %22s %22s %8s%n", entry.getKey(), "-", now, "new");
+        continue;
+      }
+
+      double change = (now.score() - before.score()) / before.score();
+      boolean regressed = change > tolerance && now.score() - now.error() > before.score() + before.error();
+      if (regressed) {
+        regressions++;
+      }
+      System.out.printf("%-70s %22s %22s %+7.1f%%%s%n",
+          entry.getKey(), before, now, change * 100, regressed ? "  REGRESSION" : "");
+    }
+    return regressions;
+  }
+
+  // "benchmark [param=value, ...]" -> primary score and its error, in the unit the benchmark reports
+  private static Map<String, Score> scores(Path file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode run : objectMapper.readTree(file.toFile())) {
+      Map<String, String> params = new TreeMap<>();
+      run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+
+      String key = run.path("benchmark").asText().replace("com.brenda.inventory.", "") + (params.isEmpty() ? "" : " " + params);
+      JsonNode metric = run.path("primaryMetric");
+      // JMH reports NaN as the error of a single measurement
+      double error = metric.path("scoreError").asDouble();
+      scores.put(key, new Score(metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error));
+    }
+    return scores;
+  }
+
+  // JMH's results without what depends on the machine (JVM path, arguments, versions) or only adds bulk (raw data)
+  private static void writeBaseline(Path results, Path baseline) throws IOException {
+    ArrayNode runs = objectMapper.createArrayNode();
+    for (JsonNode run : objectMapper.readTree(results.toFile())) {
+      ObjectNode kept = runs.addObject();
+      for (String field : List.of("benchmark", "mode", "params", "forks", "warmupIterations", "measurementIterations")) {
+        if (run.has(field)) {
+          kept.set(field, run.get(field));
+        }
+      }
+      JsonNode metric = run.path("primaryMetric");
+      kept.putObject("primaryMetric")
+          .put("score", metric.path("score").asDouble())
+          .put("scoreError", metric.path("scoreError").asDouble())
+          .put("scoreUnit", metric.path("scoreUnit").asText());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(), runs);
+  }
+
+  private record Score(double score, double error) {
+    @Override
+    public String toString() {
+      return String.format("%.3f ± %.3f", score, error);
+    }
+  }
+}
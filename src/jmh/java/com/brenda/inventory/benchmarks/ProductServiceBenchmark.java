@@ -0,0 +1,111 @@
+package com.brenda.inventory.benchmarks;
+
+import com.brenda.inventory.InventoryApiApplication;
+import com.brenda.inventory.dto.PageResponse;
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService against the real application context and a seeded in-memory H2 database:
+ * listing with and without the category filter, and the create and update write paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductServiceBenchmark {
+  private static final int CATEGORIES = 10;
+  private static final int PRODUCTS = 10_000;
+
+  private ConfigurableApplicationContext context;
+  private ProductService productService;
+  private List<Long> categoryIds;
+  private List<Long> productIds;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(InventoryApiApplication.class).run(
+        "--spring.main.web-application-type=none",
+        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=WARN");
+    productService = context.getBean(ProductService.class);
+
+    List<Category> categories = new ArrayList<>();
+    for (int i = 0; i < CATEGORIES; i++) {
+      Category category = new Category();
+      category.setName("category-" + i);
+      categories.add(category);
+    }
+    categories = context.getBean(CategoryRepository.class).saveAll(categories);
+    categoryIds = categories.stream().map(Category::getId).toList();
+
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PRODUCTS; i++) {
+      Product product = new Product();
+      product.setName("product-" + i);
+      product.setDescription("description of product " + i);
+      product.setPrice(1000 + i);
+      product.setStock(100);
+      product.setCategory(categories.get(i % CATEGORIES));
+      products.add(product);
+    }
+    productIds = context.getBean(ProductRepository.class).saveAll(products).stream().map(Product::getId).toList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public PageResponse<ProductResponse> getAll() {
+    return productService.getAll(null, 50, null);
+  }
+
+  @Benchmark
+  public PageResponse<ProductResponse> getAllByCategory() {
+    return productService.getAll("category-3", 50, null);
+  }
+
+  @Benchmark
+  public ProductResponse create() {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName("new product");
+    request.setPrice(1000);
+    request.setStock(10);
+    request.setCategoryId(categoryIds.get(next++ % CATEGORIES));
+    return productService.create(request);
+  }
+
+  @Benchmark
+  public ProductResponse update() {
+    int index = next++;
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName("product-" + index);
+    request.setPrice(1000 + index % 100);
+    request.setStock(100 + index % 10);
+    request.setCategoryId(categoryIds.get(index % CATEGORIES));
+    return productService.update(productIds.get(index % PRODUCTS), request, null);
+  }
+}
@@ -0,0 +1,56 @@
+package com.brenda.inventory.benchmarks;
+
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of product lists, with an ObjectMapper configured the way Spring Boot builds the app's one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+  @Param({"1", "50", "500"})
+  public int size;
+
+  private ObjectMapper objectMapper;
+  private List<ProductResponse> products;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    products = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      products.add(ProductResponse.builder()
+          .id((long) i)
+          .name("product-" + i)
+          .description("description of product " + i)
+          .price(1000 + i)
+          .stock(i % 100)
+          .version(0L)
+          .category(CategoryResponse.builder().id((long) i % 10).name("category-" + i % 10).version(0L).build())
+          .build());
+    }
+  }
+
+  @Benchmark
+  public byte[] writeList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(products);
+  }
+}
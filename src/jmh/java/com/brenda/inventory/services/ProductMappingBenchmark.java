@@ -0,0 +1,46 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping on its own; toResponse touches none of the service's collaborators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductMappingBenchmark {
+  private ProductService productService;
+  private Product product;
+  private CategoryResponse category;
+
+  @Setup
+  public void setUp() {
+    productService = new ProductService(null, null, null, null, null, null, null, null, null, null, null);
+
+    product = new Product();
+    product.setId(42L);
+    product.setName("remera");
+    product.setDescription("algodon peinado, manga corta");
+    product.setPrice(1500);
+    product.setStock(20);
+    product.setVersion(3L);
+
+    category = CategoryResponse.builder().id(7L).name("ropa").version(1L).build();
+  }
+
+  @Benchmark
+  public ProductResponse toResponse() {
+    return productService.toResponse(product, category);
+  }
+}
@@ -0,0 +1,151 @@
+package com.brenda.inventory.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Statements executed and rows read by the current thread, counted by {@link CountingDataSource}.
+ * Spans record the difference between a snapshot taken when they start and the counts when they end;
+ * each execution is also reported, with its SQL and duration, to a {@link StatementListener}.
+ */
+public final class JdbcActivity {
+  private static final ThreadLocal<JdbcActivity> CURRENT = ThreadLocal.withInitial(JdbcActivity::new);
+
+  private long statements;
+  private long rows;
+
+  private JdbcActivity() {
+  }
+
+  public static Snapshot snapshot() {
+    JdbcActivity activity = CURRENT.get();
+    return new Snapshot(activity.statements, activity.rows);
+  }
+
+  /** Counts since {@code start}, on the same thread. */
+  public static Snapshot since(Snapshot start) {
+    JdbcActivity activity = CURRENT.get();
+    return new Snapshot(activity.statements - start.statements(), activity.rows - start.rows());
+  }
+
+  public record Snapshot(long statements, long rows) {
+  }
+
+  public interface StatementListener {
+    StatementListener NONE = (sql, nanos) -> {
+    };
+
+    /** {@code sql} is null for a JDBC batch of plain statements. */
+    void executed(String sql, long nanos);
+  }
+
+  /**
+   * Wraps connections, statements and result sets in JDK proxies that bump the thread's counters.
+   * Stays a {@link DelegatingDataSource} so pool metrics can still unwrap the Hikari pool behind it.
+   */
+  static final class CountingDataSource extends DelegatingDataSource {
+    // Resolved on first use: the listener's own dependencies may not exist yet when the pool is wrapped
+    private final ObjectProvider<? extends StatementListener> listenerProvider;
+    private volatile StatementListener listener;
+
+    CountingDataSource(DataSource target, ObjectProvider<? extends StatementListener> listenerProvider) {
+      super(target);
+      this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return wrap(Connection.class, super.getConnection(), null, listener());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return wrap(Connection.class, super.getConnection(username, password), null, listener());
+    }
+
+    private StatementListener listener() {
+      StatementListener current = listener;
+      if (current == null) {
+        StatementListener available = listenerProvider.getIfAvailable();
+        current = available != null ? available : StatementListener.NONE;
+        listener = current;
+      }
+      return current;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T wrap(Class<T> type, T target, String sql, StatementListener listener) {
+    if (target == null) {
+      return null;
+    }
+    Class<?> proxied = type;
+    if (type == Statement.class) {
+      // Keep the most specific interface so callers can still use setters of prepared/callable statements
+      for (Class<?> candidate : new Class<?>[]{java.sql.CallableStatement.class, java.sql.PreparedStatement.class}) {
+        if (candidate.isInstance(target)) {
+          proxied = candidate;
+          break;
+        }
+      }
+    }
+    return (T) Proxy.newProxyInstance(JdbcActivity.class.getClassLoader(), new Class<?>[]{proxied},
+        new Counting(target, sql, listener));
+  }
+
+  // sql is what a prepared or callable statement was created with; null for connections and plain statements
+  private record Counting(Object target, String sql, StatementListener listener) implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("equals") && method.getParameterCount() == 1) {
+        return proxy == args[0];
+      }
+      if (name.equals("hashCode") && method.getParameterCount() == 0) {
+        return System.identityHashCode(proxy);
+      }
+
+      boolean execution = !(target instanceof ResultSet) && name.startsWith("execute");
+      long start = execution ? System.nanoTime() : 0;
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException exception) {
+        throw exception.getCause();
+      }
+
+      if (target instanceof ResultSet) {
+        if (name.equals("next") && Boolean.TRUE.equals(result)) {
+          CURRENT.get().rows++;
+        }
+        return result;
+      }
+      if (execution) {
+        CURRENT.get().statements++;
+        listener.executed(sql != null ? sql : firstStringArgument(args), System.nanoTime() - start);
+      }
+      if (result instanceof ResultSet resultSet) {
+        return wrap(ResultSet.class, resultSet, null, listener);
+      }
+      if (result instanceof Statement statement) {
+        return wrap(Statement.class, statement, name.startsWith("prepare") ? firstStringArgument(args) : null, listener);
+      }
+      return result;
+    }
+
+    private static String firstStringArgument(Object[] args) {
+      return args != null && args.length > 0 && args[0] instanceof String string ? string : null;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.brenda.inventory.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Adds a {@code handler} tag ("ProductController.getById") to http.server.requests, so each
+ * controller method gets its own timer even when several share a URI template.
+ */
+@Configuration
+public class MetricsConfig {
+  private static final String HANDLER = "handler";
+
+  @Bean
+  public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+    return new DefaultServerRequestObservationConvention() {
+      @Override
+      public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+      }
+    };
+  }
+
+  // Read when the observation stops, after dispatch has resolved the handler
+  private static KeyValue handler(ServerRequestObservationContext context) {
+    Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+    if (handler instanceof HandlerMethod method) {
+      return KeyValue.of(HANDLER, method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+    }
+    return KeyValue.of(HANDLER, "none");
+  }
+}
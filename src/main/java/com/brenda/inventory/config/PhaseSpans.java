@@ -0,0 +1,64 @@
+package com.brenda.inventory.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Child spans for the phases of a request (service, repository, serialization), each tagged
+ * with the SQL statements and rows it cost. Goes through the Tracer directly rather than the
+ * Observation API so the phases don't also register a timer per method.
+ */
+final class PhaseSpans {
+  static final String PHASE = "inventory.phase";
+  static final String DB_STATEMENTS = "db.statements";
+  static final String DB_ROWS = "db.rows";
+
+  // Resolved on first use: the post-processors that need it are created before the tracer is
+  private final ObjectProvider<Tracer> tracerProvider;
+  private volatile Tracer tracer;
+
+  PhaseSpans(ObjectProvider<Tracer> tracerProvider) {
+    this.tracerProvider = tracerProvider;
+  }
+
+  Scope start(String name, String phase) {
+    Span span = tracer().nextSpan().name(name).tag(PHASE, phase).start();
+    return new Scope(span, tracer().withSpan(span), JdbcActivity.snapshot());
+  }
+
+  private Tracer tracer() {
+    Tracer current = tracer;
+    if (current == null) {
+      current = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+      tracer = current;
+    }
+    return current;
+  }
+
+  static final class Scope implements AutoCloseable {
+    private final Span span;
+    private final Tracer.SpanInScope inScope;
+    private final JdbcActivity.Snapshot start;
+
+    private Scope(Span span, Tracer.SpanInScope inScope, JdbcActivity.Snapshot start) {
+      this.span = span;
+      this.inScope = inScope;
+      this.start = start;
+    }
+
+    void error(Throwable throwable) {
+      span.error(throwable);
+    }
+
+    @Override
+    public void close() {
+      JdbcActivity.Snapshot used = JdbcActivity.since(start);
+      if (used.statements() > 0) {
+        span.tag(DB_STATEMENTS, used.statements()).tag(DB_ROWS, used.rows());
+      }
+      inScope.close();
+      span.end();
+    }
+  }
+}
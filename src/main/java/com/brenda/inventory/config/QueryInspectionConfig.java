@@ -0,0 +1,70 @@
+package com.brenda.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * SQL inspection in place of show-sql: the JDBC wrapper reports every statement to the
+ * {@link QueryInspector}, and a filter tells it where each HTTP request starts and ends.
+ */
+@Configuration
+public class QueryInspectionConfig {
+
+  @Bean
+  public QueryInspector queryInspector(MeterRegistry meterRegistry,
+                                       @Value("${inventory.queries.slow-statement-ms:200}") long slowStatementMillis,
+                                       @Value("${inventory.queries.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                                       @Value("${inventory.queries.statement-budget:0}") int statementBudget,
+                                       @Value("${inventory.queries.fail-on-budget:false}") boolean failOnBudget,
+                                       @Value("${inventory.queries.max-shapes:500}") int maxShapes,
+                                       @Value("${inventory.queries.max-flagged:100}") int maxFlagged) {
+    return new QueryInspector(meterRegistry, slowStatementMillis, nPlusOneThreshold, statementBudget, failOnBudget,
+        maxShapes, maxFlagged);
+  }
+
+  @Bean
+  public FilterRegistrationBean<OncePerRequestFilter> queryInspectionFilter(QueryInspector queryInspector) {
+    OncePerRequestFilter filter = new OncePerRequestFilter() {
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+          throws ServletException, IOException {
+        queryInspector.beginRequest();
+        boolean completed = false;
+        try {
+          chain.doFilter(request, response);
+          completed = true;
+        } finally {
+          // The route template ("/products/{id}") is only known once the request has been dispatched
+          Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+          String label = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+          if (completed) {
+            queryInspector.endRequest(label);
+          } else {
+            // Already failing: record it, but don't let a budget error replace the original exception
+            try {
+              queryInspector.endRequest(label);
+            } catch (IllegalStateException ignored) {
+              // reported by endRequest's log line
+            }
+          }
+        }
+      }
+    };
+    FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+    // Outermost, so statements run by other filters count too
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,259 @@
+package com.brenda.inventory.config;
+
+import com.brenda.inventory.dto.FlaggedRequestResponse;
+import com.brenda.inventory.dto.QueryShapeStatsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Statement statistics per query shape and per request, fed by the JDBC wrapper. A request is
+ * flagged when it runs one shape {@code nPlusOneThreshold} times (the N+1 pattern), when one of its
+ * statements takes longer than {@code slowStatementMillis}, or when it goes over {@code statementBudget}.
+ * With {@code failOnBudget} the last case ends the request with an error instead, for tests.
+ */
+public class QueryInspector implements JdbcActivity.StatementListener {
+  private static final Logger log = LoggerFactory.getLogger(QueryInspector.class);
+  private static final String OTHER_SHAPES = "<other>";
+  private static final String BATCH = "<batch>";
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final long slowStatementNanos;
+  private final int nPlusOneThreshold;
+  private final int statementBudget;
+  private final boolean failOnBudget;
+  private final int maxShapes;
+  private final int maxFlagged;
+
+  private final Map<String, String> shapeBySql = new ConcurrentHashMap<>();
+  private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+  private final Deque<FlaggedRequestResponse> flagged = new ArrayDeque<>();
+  private final ThreadLocal<RequestQueries> currentRequest = new ThreadLocal<>();
+
+  private final Timer statementTimer;
+  private final DistributionSummary statementsPerRequest;
+  private final Map<String, Counter> flaggedCounters = new HashMap<>();
+
+  public QueryInspector(MeterRegistry meterRegistry, long slowStatementMillis, int nPlusOneThreshold,
+                        int statementBudget, boolean failOnBudget, int maxShapes, int maxFlagged) {
+    this.slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementMillis);
+    this.nPlusOneThreshold = nPlusOneThreshold;
+    this.statementBudget = statementBudget;
+    this.failOnBudget = failOnBudget;
+    this.maxShapes = maxShapes;
+    this.maxFlagged = maxFlagged;
+
+    statementTimer = Timer.builder("inventory.queries.statement")
+        .description("JDBC statement executions")
+        .register(meterRegistry);
+    statementsPerRequest = DistributionSummary.builder("inventory.queries.per.request")
+        .description("JDBC statements executed by one HTTP request")
+        .register(meterRegistry);
+    for (String reason : List.of(Reason.N_PLUS_ONE, Reason.SLOW_STATEMENT, Reason.STATEMENT_BUDGET)) {
+      flaggedCounters.put(reason, Counter.builder("inventory.queries.flagged")
+          .description("Requests flagged by the query inspector")
+          .tag("reason", reason)
+          .register(meterRegistry));
+    }
+  }
+
+  @Override
+  public void executed(String sql, long nanos) {
+    String shape = shapeOf(sql);
+    boolean slow = nanos >= slowStatementNanos;
+    statementTimer.record(nanos, TimeUnit.NANOSECONDS);
+    // Once the table is full, known shapes keep their own stats; only new ones are lumped together
+    shapes.computeIfAbsent(shapes.containsKey(shape) || shapes.size() < maxShapes ? shape : OTHER_SHAPES, key -> new ShapeStats())
+        .record(nanos, slow);
+
+    RequestQueries request = currentRequest.get();
+    if (request != null) {
+      request.record(shape, nanos);
+    } else if (slow) {
+      log.warn("Slow statement outside a request ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), shape);
+    }
+  }
+
+  /** Starts counting the statements of the request on this thread. */
+  public void beginRequest() {
+    currentRequest.set(new RequestQueries());
+  }
+
+  /**
+   * Stops counting and flags the request if needed.
+   *
+   * @throws IllegalStateException if the request went over the statement budget and failOnBudget is set
+   */
+  public void endRequest(String request) {
+    RequestQueries queries = currentRequest.get();
+    if (queries == null) {
+      return;
+    }
+    currentRequest.remove();
+    statementsPerRequest.record(queries.statements);
+
+    List<String> reasons = new ArrayList<>();
+    Map<String, Integer> repeated = new LinkedHashMap<>();
+    queries.countByShape.forEach((shape, count) -> {
+      if (count >= nPlusOneThreshold) {
+        repeated.put(shape, count);
+      }
+    });
+    if (!repeated.isEmpty()) {
+      reasons.add(Reason.N_PLUS_ONE);
+    }
+    if (queries.slowestNanos >= slowStatementNanos) {
+      reasons.add(Reason.SLOW_STATEMENT);
+    }
+    boolean overBudget = statementBudget > 0 && queries.statements > statementBudget;
+    if (overBudget) {
+      reasons.add(Reason.STATEMENT_BUDGET);
+    }
+    if (reasons.isEmpty()) {
+      return;
+    }
+
+    FlaggedRequestResponse flaggedRequest = FlaggedRequestResponse.builder()
+        .request(request)
+        .finishedAt(Instant.now())
+        .reasons(reasons)
+        .statements(queries.statements)
+        .repeatedShapes(repeated)
+        .slowestStatement(queries.slowestShape)
+        .slowestStatementMillis(toMillis(queries.slowestNanos))
+        .build();
+    reasons.forEach(reason -> flaggedCounters.get(reason).increment());
+    synchronized (flagged) {
+      flagged.addFirst(flaggedRequest);
+      while (flagged.size() > maxFlagged) {
+        flagged.removeLast();
+      }
+    }
+    log.warn("{} flagged {}: {} statements, repeated shapes {}, slowest {} ms: {}", request, reasons,
+        queries.statements, repeated, flaggedRequest.getSlowestStatementMillis(), queries.slowestShape);
+
+    if (overBudget && failOnBudget) {
+      throw new IllegalStateException(request + " executed " + queries.statements
+          + " statements, over the budget of " + statementBudget + "; shapes: " + queries.countByShape);
+    }
+  }
+
+  public List<QueryShapeStatsResponse> shapes() {
+    List<QueryShapeStatsResponse> result = new ArrayList<>();
+    shapes.forEach((shape, stats) -> result.add(stats.toResponse(shape)));
+    result.sort(Comparator.comparingDouble(QueryShapeStatsResponse::getTotalMillis).reversed());
+    return result;
+  }
+
+  public List<FlaggedRequestResponse> flaggedRequests() {
+    synchronized (flagged) {
+      return new ArrayList<>(flagged);
+    }
+  }
+
+  public void reset() {
+    shapes.clear();
+    synchronized (flagged) {
+      flagged.clear();
+    }
+  }
+
+  // Hibernate builds the SQL of a query once, so the normalized form is cached by the instance's text
+  String shapeOf(String sql) {
+    if (sql == null) {
+      return BATCH;
+    }
+    String shape = shapeBySql.get(sql);
+    if (shape == null) {
+      shape = normalize(sql);
+      if (shapeBySql.size() < maxShapes * 4) {
+        shapeBySql.put(sql, shape);
+      }
+    }
+    return shape;
+  }
+
+  static String normalize(String sql) {
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static final class Reason {
+    static final String N_PLUS_ONE = "n_plus_one";
+    static final String SLOW_STATEMENT = "slow_statement";
+    static final String STATEMENT_BUDGET = "statement_budget";
+  }
+
+  private static final class ShapeStats {
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder slowExecutions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    void record(long nanos, boolean slow) {
+      executions.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      if (slow) {
+        slowExecutions.increment();
+      }
+    }
+
+    QueryShapeStatsResponse toResponse(String shape) {
+      long count = executions.sum();
+      long total = totalNanos.sum();
+      return QueryShapeStatsResponse.builder()
+          .sql(shape)
+          .executions(count)
+          .slowExecutions(slowExecutions.sum())
+          .totalMillis(toMillis(total))
+          .averageMillis(count == 0 ? 0 : toMillis(total) / count)
+          .maxMillis(toMillis(maxNanos.get()))
+          .build();
+    }
+  }
+
+  // Only touched by the request's own thread
+  private static final class RequestQueries {
+    private final Map<String, Integer> countByShape = new HashMap<>();
+    private int statements;
+    private long slowestNanos;
+    private String slowestShape;
+
+    void record(String shape, long nanos) {
+      statements++;
+      countByShape.merge(shape, 1, Integer::sum);
+      if (nanos > slowestNanos) {
+        slowestNanos = nanos;
+        slowestShape = shape;
+      }
+    }
+  }
+}
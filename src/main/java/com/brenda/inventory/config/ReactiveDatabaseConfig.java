@@ -0,0 +1,46 @@
+package com.brenda.inventory.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC access for the reactive read API, over the same database the JPA side uses.
+ * The connection pool is deliberately not a bean: Boot's JDBC DataSource auto-configuration
+ * backs off as soon as a ConnectionFactory bean exists, and the write path still needs it.
+ */
+@Configuration
+public class ReactiveDatabaseConfig {
+  private ConnectionPool pool;
+
+  @Bean
+  public DatabaseClient reactiveDatabaseClient(@Value("${inventory.reactive.r2dbc-url}") String url,
+                                               @Value("${spring.datasource.username:sa}") String username,
+                                               @Value("${spring.datasource.password:}") String password,
+                                               @Value("${inventory.reactive.pool-size:10}") int poolSize) {
+    ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+        .option(ConnectionFactoryOptions.USER, username)
+        .option(ConnectionFactoryOptions.PASSWORD, password)
+        .build();
+
+    // Connections are opened on first use, so contexts that never serve reactive reads never touch it
+    pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+        .initialSize(0)
+        .maxSize(poolSize)
+        .build());
+    return DatabaseClient.create(pool);
+  }
+
+  @PreDestroy
+  void close() {
+    if (pool != null) {
+      pool.dispose();
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.brenda.inventory.config;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logs requests slower than a threshold with the tree of spans they were made of. Child spans are
+ * held per trace until the server span ends, then dropped (or logged) in one go.
+ */
+public class SlowRequestLog implements SpanProcessor {
+  private static final Logger log = LoggerFactory.getLogger(SlowRequestLog.class);
+  // Traces whose server span never ends locally would otherwise pile up
+  private static final int MAX_PENDING_TRACES = 10_000;
+
+  private final long thresholdNanos;
+  private final Map<String, List<SpanData>> pending = new ConcurrentHashMap<>();
+
+  public SlowRequestLog(long thresholdMillis) {
+    this.thresholdNanos = thresholdMillis * 1_000_000;
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return false;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    SpanContext parent = span.getParentSpanContext();
+    String traceId = span.getSpanContext().getTraceId();
+    if (parent.isValid() && !parent.isRemote()) {
+      if (pending.size() >= MAX_PENDING_TRACES) {
+        pending.clear();
+      }
+      pending.computeIfAbsent(traceId, id -> Collections.synchronizedList(new ArrayList<>())).add(span.toSpanData());
+      return;
+    }
+
+    List<SpanData> children = pending.remove(traceId);
+    if (span.getKind() == SpanKind.SERVER && span.getLatencyNanos() >= thresholdNanos && log.isWarnEnabled()) {
+      log.warn(describe(span.toSpanData(), children == null ? List.of() : children));
+    }
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    pending.clear();
+    return CompletableResultCode.ofSuccess();
+  }
+
+  static String describe(SpanData root, List<SpanData> spans) {
+    Map<String, List<SpanData>> byParent = new HashMap<>();
+    // A trace's spans end on whichever thread ran them; copy under the list's monitor
+    List<SpanData> snapshot;
+    synchronized (spans) {
+      snapshot = new ArrayList<>(spans);
+    }
+    for (SpanData span : snapshot) {
+      byParent.computeIfAbsent(span.getParentSpanId(), id -> new ArrayList<>()).add(span);
+    }
+    StringBuilder out = new StringBuilder("Slow request:");
+    append(out, root, byParent, 1);
+    return out.toString();
+  }
+
+  private static void append(StringBuilder out, SpanData span, Map<String, List<SpanData>> byParent, int depth) {
+    out.append('\n').append("  ".repeat(depth)).append(span.getName()).append(' ')
+        .append(String.format("%.1f ms", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0));
+    Object statements = attribute(span, PhaseSpans.DB_STATEMENTS);
+    if (statements != null) {
+      out.append(" (").append(statements).append(" statements, ")
+          .append(attribute(span, PhaseSpans.DB_ROWS)).append(" rows)");
+    }
+    List<SpanData> children = byParent.get(span.getSpanId());
+    if (children == null) {
+      return;
+    }
+    children.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+    for (SpanData child : children) {
+      append(out, child, byParent, depth + 1);
+    }
+  }
+
+  // Phase spans tag counts as longs, the request observation as strings; match on the name only
+  private static Object attribute(SpanData span, String name) {
+    for (Map.Entry<AttributeKey<?>, Object> entry : span.getAttributes().asMap().entrySet()) {
+      if (entry.getKey().getKey().equals(name)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,194 @@
+package com.brenda.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Request tracing. Boot's http.server.requests observation is the root span; this adds child spans
+ * for service methods, repository queries and JSON writing, SQL statement/row counts on all of them,
+ * and the slow request log. Spans are exported by every SpanExporter bean (OTLP when
+ * management.otlp.tracing.endpoint is set); the sampling probability only limits what gets exported.
+ */
+@Configuration
+public class TracingConfig {
+  private static final String REQUEST_JDBC_START = "inventory.jdbc.start";
+
+  // Also feeds every execution to the QueryInspector
+  @Bean
+  public static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<QueryInspector> queryInspector) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof JdbcActivity.CountingDataSource)) {
+          return new JdbcActivity.CountingDataSource(dataSource, queryInspector);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public static BeanPostProcessor serviceSpansPostProcessor(ObjectProvider<Tracer> tracer) {
+    return new ServiceSpansPostProcessor(new PhaseSpans(tracer));
+  }
+
+  @Bean
+  public static BeanPostProcessor repositorySpansPostProcessor(ObjectProvider<Tracer> tracer) {
+    PhaseSpans spans = new PhaseSpans(tracer);
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+          factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+              (proxyFactory, information) -> {
+                String repository = information.getRepositoryInterface().getSimpleName();
+                proxyFactory.addAdvice(0, (MethodInterceptor) invocation -> {
+                  // Stream-returning queries end their span once the stream is open, not when it is drained
+                  try (PhaseSpans.Scope span = spans.start(repository + "." + invocation.getMethod().getName(), "repository")) {
+                    try {
+                      return invocation.proceed();
+                    } catch (Throwable throwable) {
+                      span.error(throwable);
+                      throw throwable;
+                    }
+                  }
+                });
+              }));
+        }
+        return bean;
+      }
+    };
+  }
+
+  // Replaces Boot's default JSON converter (it backs off when one is defined) to time response writing
+  @Bean
+  public MappingJackson2HttpMessageConverter tracingJacksonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                               ObjectProvider<Tracer> tracer) {
+    PhaseSpans spans = new PhaseSpans(tracer);
+    return new MappingJackson2HttpMessageConverter(objectMapper) {
+      @Override
+      protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (PhaseSpans.Scope span = spans.start("json.write", "serialization")) {
+          try {
+            super.writeInternal(object, type, outputMessage);
+          } catch (IOException | RuntimeException exception) {
+            span.error(exception);
+            throw exception;
+          }
+        }
+      }
+    };
+  }
+
+  // Request totals: snapshot when the server observation starts, difference added as span tags when it stops
+  @Bean
+  public ObservationHandler<ServerRequestObservationContext> requestJdbcStartHandler() {
+    return new ObservationHandler<>() {
+      @Override
+      public void onStart(ServerRequestObservationContext context) {
+        context.put(REQUEST_JDBC_START, JdbcActivity.snapshot());
+      }
+
+      @Override
+      public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+      }
+    };
+  }
+
+  @Bean
+  public ObservationFilter requestJdbcTotalsFilter() {
+    return context -> {
+      JdbcActivity.Snapshot start = context.get(REQUEST_JDBC_START);
+      if (start != null) {
+        JdbcActivity.Snapshot used = JdbcActivity.since(start);
+        context.addHighCardinalityKeyValues(KeyValues.of(
+            PhaseSpans.DB_STATEMENTS, String.valueOf(used.statements()),
+            PhaseSpans.DB_ROWS, String.valueOf(used.rows())));
+      }
+      return context;
+    };
+  }
+
+  @Bean
+  public SlowRequestLog slowRequestLog(@Value("${inventory.tracing.slow-request-ms:500}") long thresholdMillis) {
+    return new SlowRequestLog(thresholdMillis);
+  }
+
+  /**
+   * Boot's parent-based ratio sampler, except that unsampled spans are still recorded (not exported),
+   * so the slow request log sees every request whatever the export probability.
+   */
+  @Bean
+  public Sampler recordingSampler(@Value("${management.tracing.sampling.probability:0.1}") double probability) {
+    Sampler exported = Sampler.parentBased(Sampler.traceIdRatioBased(probability));
+    return new Sampler() {
+      @Override
+      public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                         Attributes attributes, List<LinkData> parentLinks) {
+        SamplingResult result = exported.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        if (result.getDecision() == SamplingDecision.DROP) {
+          return SamplingResult.recordOnly();
+        }
+        return result;
+      }
+
+      @Override
+      public String getDescription() {
+        return "RecordAll{" + exported.getDescription() + "}";
+      }
+    };
+  }
+
+  // One span per public method of every @Service bean; added to the existing proxy when the bean already has one
+  private static final class ServiceSpansPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private ServiceSpansPostProcessor(PhaseSpans spans) {
+      MethodInterceptor interceptor = invocation -> {
+        String name = invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName();
+        try (PhaseSpans.Scope span = spans.start(name, "service")) {
+          try {
+            return invocation.proceed();
+          } catch (Throwable throwable) {
+            span.error(throwable);
+            throw throwable;
+          }
+        }
+      };
+      this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+      setProxyTargetClass(true);
+      // Outside any transaction advice, so the span includes the commit
+      setBeforeExistingAdvisors(true);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.CacheStatsResponse;
+import com.brenda.inventory.services.MonitoredCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/admin/caches")
+public class CacheController {
+  private final List<MonitoredCache> caches;
+
+  public CacheController(List<MonitoredCache> caches) {
+    this.caches = caches;
+  }
+
+  @GetMapping
+  public Map<String, CacheStatsResponse> getStats() {
+    Map<String, CacheStatsResponse> stats = new TreeMap<>();
+    caches.forEach(cache -> stats.put(cache.name(), cache.stats()));
+    return stats;
+  }
+}
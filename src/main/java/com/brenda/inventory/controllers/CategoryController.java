@@ -3,21 +3,25 @@ package com.brenda.inventory.controllers;
 import com.brenda.inventory.dto.CategoryCreateRequest;
 import com.brenda.inventory.dto.CategoryResponse;
 import com.brenda.inventory.dto.CategoryUpdateRequest;
+import com.brenda.inventory.dto.PageResponse;
 import com.brenda.inventory.services.CategoryService;
+import com.brenda.inventory.services.Cursors;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/categories")
 public class CategoryController {
@@ -34,18 +38,31 @@ public class CategoryController {
   }
 
   @GetMapping
-  public List<CategoryResponse> getAll() {
-    return categoryService.getAll();
+  public ResponseEntity<PageResponse<CategoryResponse>> getAll(@RequestParam(defaultValue = "" + Cursors.DEFAULT_LIMIT) int limit,
+                                                               @RequestParam(required = false) String after) {
+    PageResponse<CategoryResponse> page = categoryService.getAll(limit, after);
+    return ResponseEntity.ok().eTag(ETags.of(page)).body(page);
   }
 
   @GetMapping("/{id}")
-  public CategoryResponse getById(@PathVariable Long id) {
-    return categoryService.getById(id);
+  public ResponseEntity<CategoryResponse> getById(@PathVariable Long id) {
+    CategoryResponse category = categoryService.getById(id);
+    return ResponseEntity.ok().eTag(ETags.of(category)).body(category);
   }
 
   @PutMapping("/{id}")
-  public CategoryResponse update(@PathVariable Long id, @Valid @RequestBody CategoryUpdateRequest request) {
-    return categoryService.update(id, request);
+  public ResponseEntity<CategoryResponse> update(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @Valid @RequestBody CategoryUpdateRequest request) {
+    Long expectedVersion = null;
+    if (ifMatch != null) {
+      CategoryResponse current = categoryService.getById(id);
+      ETags.checkIfMatch(ifMatch, ETags.of(current));
+      expectedVersion = current.getVersion();
+    }
+
+    CategoryResponse updated = categoryService.update(id, request, expectedVersion);
+    return ResponseEntity.ok().eTag(ETags.of(updated)).body(updated);
   }
 
   @DeleteMapping("/{id}")
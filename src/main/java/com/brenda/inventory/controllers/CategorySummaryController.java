@@ -0,0 +1,35 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.CategorySummaryResponse;
+import com.brenda.inventory.services.CategoryStatsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class CategorySummaryController {
+  private final CategoryStatsService categoryStatsService;
+
+  public CategorySummaryController(CategoryStatsService categoryStatsService) {
+    this.categoryStatsService = categoryStatsService;
+  }
+
+  @GetMapping("/categories/summary")
+  public List<CategorySummaryResponse> getAll() {
+    return categoryStatsService.getAll();
+  }
+
+  @GetMapping("/categories/{id}/summary")
+  public CategorySummaryResponse getByCategory(@PathVariable Long id) {
+    return categoryStatsService.getByCategory(id);
+  }
+
+  // Recounts from the products; writes keep going, they wait for the rebuild and land on top of it
+  @PostMapping("/admin/category-summary/rebuild")
+  public List<CategorySummaryResponse> rebuild() {
+    return categoryStatsService.rebuild();
+  }
+}
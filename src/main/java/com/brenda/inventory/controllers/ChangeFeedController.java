@@ -0,0 +1,32 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ChangeFeedResponse;
+import com.brenda.inventory.services.ChangeFeedService;
+import com.brenda.inventory.services.Cursors;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeFeedController {
+  private final ChangeFeedService changeFeedService;
+
+  public ChangeFeedController(ChangeFeedService changeFeedService) {
+    this.changeFeedService = changeFeedService;
+  }
+
+  @GetMapping
+  public ChangeFeedResponse getChanges(@RequestParam(required = false) String since,
+                                       @RequestParam(defaultValue = "" + Cursors.DEFAULT_LIMIT) int limit) {
+    return changeFeedService.getChanges(since, limit);
+  }
+
+  @GetMapping("/cursor")
+  public Map<String, String> getCursor() {
+    return Map.of("cursor", changeFeedService.currentCursor());
+  }
+}
@@ -0,0 +1,60 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.PageResponse;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.exceptions.PreconditionFailedException;
+
+import java.util.Objects;
+
+/**
+ * Strong ETags built from entity versions instead of hashing the serialized body, so a
+ * matching If-None-Match is answered with a 304 before anything is written.
+ */
+final class ETags {
+  private ETags() {
+  }
+
+  // Stock and the category are part of the representation but don't bump the product version
+  static String of(ProductResponse product) {
+    return "\"" + product.getVersion() + "-" + product.getStock() + "-" + product.getCategory().getVersion() + "\"";
+  }
+
+  static String of(CategoryResponse category) {
+    return "\"" + category.getVersion() + "\"";
+  }
+
+  // FNV-1a over the (id, version) pairs of the page and its cursor
+  static String of(PageResponse<CategoryResponse> page) {
+    long hash = 0xcbf29ce484222325L;
+    for (CategoryResponse category : page.getItems()) {
+      hash = mix(mix(hash, category.getId()), Objects.requireNonNullElse(category.getVersion(), 0L));
+    }
+    hash = mix(hash, page.getNextCursor() == null ? 0 : page.getNextCursor().hashCode());
+    return "\"" + Long.toHexString(hash) + "\"";
+  }
+
+  /**
+   * Throws a 412 unless the If-Match header (when present) lists the current ETag or is "*".
+   */
+  static void checkIfMatch(String ifMatch, String current) {
+    if (ifMatch == null) {
+      return;
+    }
+    for (String tag : ifMatch.split(",")) {
+      String trimmed = tag.trim();
+      if (trimmed.equals("*") || trimmed.equals(current)) {
+        return;
+      }
+    }
+    throw new PreconditionFailedException("ETag does not match, current is " + current);
+  }
+
+  private static long mix(long hash, long value) {
+    for (int i = 0; i < 8; i++) {
+      hash ^= (value >>> (i * 8)) & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,42 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.FileFormat;
+import com.brenda.inventory.dto.ImportJobResponse;
+import com.brenda.inventory.services.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/imports")
+public class ImportController {
+  private final ProductImportService productImportService;
+
+  public ImportController(ProductImportService productImportService) {
+    this.productImportService = productImportService;
+  }
+
+  // Reads the raw request body rather than a @RequestBody so the file is never buffered whole;
+  // the response comes back once the last chunk is committed
+  @PostMapping
+  public ImportJobResponse create(@RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request) throws IOException {
+    return productImportService.importFile(FileFormat.from(format), request.getInputStream());
+  }
+
+  @GetMapping
+  public List<ImportJobResponse> getAll() {
+    return productImportService.getAll();
+  }
+
+  @GetMapping("/{id}")
+  public ImportJobResponse getById(@PathVariable Long id) {
+    return productImportService.getById(id);
+  }
+}
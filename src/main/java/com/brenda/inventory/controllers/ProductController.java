@@ -1,32 +1,61 @@
 package com.brenda.inventory.controllers;
 
+import com.brenda.inventory.dto.AvailabilityResponse;
+import com.brenda.inventory.dto.FileFormat;
+import com.brenda.inventory.dto.ProductBatchResponse;
 import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.dto.ProductFilter;
 import com.brenda.inventory.dto.ProductResponse;
 import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.dto.StockAdjustRequest;
+import com.brenda.inventory.dto.StockResponse;
+import com.brenda.inventory.repositories.ProductFields;
+import com.brenda.inventory.services.Cursors;
+import com.brenda.inventory.services.ProductBatchService;
+import com.brenda.inventory.services.ProductExportService;
+import com.brenda.inventory.services.ProductListingCache;
 import com.brenda.inventory.services.ProductService;
+import com.brenda.inventory.services.ReservationService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
 
   private final ProductService productService;
+  private final ProductBatchService productBatchService;
+  private final ReservationService reservationService;
+  private final ProductExportService productExportService;
+  private final ProductListingCache productListingCache;
 
-  public ProductController(ProductService productService) {
+  public ProductController(ProductService productService, ProductBatchService productBatchService,
+                           ReservationService reservationService, ProductExportService productExportService,
+                           ProductListingCache productListingCache) {
     this.productService = productService;
+    this.productBatchService = productBatchService;
+    this.reservationService = reservationService;
+    this.productExportService = productExportService;
+    this.productListingCache = productListingCache;
   }
 
   @PostMapping
@@ -35,19 +64,95 @@ public class ProductController {
     return productService.create(request);
   }
 
+  // Items are validated one by one in the service so a bad row is reported instead of failing the whole batch
+  @PostMapping("/batch")
+  public ProductBatchResponse createBatch(@RequestBody List<ProductCreateRequest> requests) {
+    return productBatchService.createAll(requests);
+  }
+
+  // Category listings are served from their cached bytes, gzipped when the client accepts it.
+  // fields=name,price,... narrows both the query and the JSON to those fields (id is always there).
+  // Filters (minPrice, maxStock, namePrefix, categoryId...) or a sort make it a search, which is never cached
   @GetMapping
-  public List<ProductResponse> getAll(@RequestParam(required = false) String category) {
-    return productService.getAll(category);
+  public ResponseEntity<?> getAll(@RequestParam(required = false) String category,
+                                  @RequestParam(defaultValue = "" + Cursors.DEFAULT_LIMIT) int limit,
+                                  @RequestParam(required = false) String after,
+                                  @RequestParam(required = false) String fields,
+                                  @RequestParam(required = false) String sort,
+                                  ProductFilter filter,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    ProductFields sparse = fields == null || fields.isBlank() ? null : ProductFields.parse(fields);
+    if (!filter.isEmpty() || (sort != null && !sort.isBlank())) {
+      return ResponseEntity.ok(sparse == null
+          ? productService.search(filter, category, sort, limit, after)
+          : productService.search(filter, category, sort, limit, after, sparse));
+    }
+    if (category == null || category.isBlank()) {
+      return ResponseEntity.ok(sparse == null
+          ? productService.getAll(category, limit, after)
+          : productService.getAll(category, limit, after, sparse));
+    }
+
+    ProductListingCache.Listing listing = productListingCache.get(category, limit, after, sparse == null ? null : sparse.key(),
+        () -> sparse == null
+            ? productService.getAll(category, limit, after)
+            : productService.getAll(category, limit, after, sparse));
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (listing.gzip() != null && acceptsGzip(acceptEncoding)) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.gzip());
+    }
+    return response.body(listing.json());
+  }
+
+  // Written straight to the servlet output stream (not a StreamingResponseBody) so long exports
+  // aren't cut off by the async request timeout
+  @GetMapping("/export")
+  public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+    FileFormat exportFormat = FileFormat.from(format);
+
+    response.setContentType(exportFormat.getContentType());
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader("Content-Disposition", "attachment; filename=\"products." + exportFormat.name().toLowerCase() + "\"");
+    productExportService.export(exportFormat, response.getOutputStream());
   }
 
+  // ResponseEntity with an ETag: Spring answers a matching If-None-Match with 304 and never serializes the body.
+  // A sparse read has no version to tag unless it asked for one, so it goes untagged
   @GetMapping("/{id}")
-  public ProductResponse getById(@PathVariable Long id) {
-    return productService.getById(id);
+  public ResponseEntity<?> getById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+    if (fields != null && !fields.isBlank()) {
+      return ResponseEntity.ok(productService.getById(id, ProductFields.parse(fields)));
+    }
+    ProductResponse product = productService.getById(id);
+    return ResponseEntity.ok().eTag(ETags.of(product)).body(product);
   }
 
   @PutMapping("/{id}")
-  public ProductResponse update(@PathVariable Long id, @Valid @RequestBody ProductUpdateRequest request) {
-    return productService.update(id, request);
+  public ResponseEntity<ProductResponse> update(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @Valid @RequestBody ProductUpdateRequest request) {
+    Long expectedVersion = null;
+    if (ifMatch != null) {
+      ProductResponse current = productService.getById(id);
+      ETags.checkIfMatch(ifMatch, ETags.of(current));
+      expectedVersion = current.getVersion();
+    }
+
+    ProductResponse updated = productService.update(id, request, expectedVersion);
+    return ResponseEntity.ok().eTag(ETags.of(updated)).body(updated);
+  }
+
+  @PostMapping("/{id}/stock/adjust")
+  public StockResponse adjustStock(@PathVariable Long id, @Valid @RequestBody StockAdjustRequest request) {
+    return productService.adjustStock(id, request.getDelta(), request.getReason());
+  }
+
+  // Stock minus the units held by active reservations
+  @GetMapping("/{id}/availability")
+  public AvailabilityResponse getAvailability(@PathVariable Long id) {
+    return reservationService.getAvailability(id);
   }
 
   @DeleteMapping("/{id}")
@@ -55,4 +160,39 @@ public class ProductController {
   public void delete(@PathVariable Long id) {
      productService.delete(id);
   }
+
+  // gzip when listed, or covered by "*", with a non-zero q. "gzip;q=0" is a refusal, not a match
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Boolean wildcard = null;
+    for (String token : acceptEncoding.split(",")) {
+      String[] parts = token.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      boolean accepted = quality(parts) > 0;
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        return accepted;
+      }
+      if (coding.equals("*")) {
+        wildcard = accepted;
+      }
+    }
+    return Boolean.TRUE.equals(wildcard);
+  }
+
+  // An unreadable q counts as a refusal
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException exception) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
 }
@@ -0,0 +1,25 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.services.ProductEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+public class ProductEventController {
+  private final ProductEventBroadcaster productEventBroadcaster;
+
+  public ProductEventController(ProductEventBroadcaster productEventBroadcaster) {
+    this.productEventBroadcaster = productEventBroadcaster;
+  }
+
+  @GetMapping(path = "/products/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(@RequestParam(defaultValue = "") List<Long> categoryIds,
+                           @RequestParam(defaultValue = "") List<Long> productIds) {
+    return productEventBroadcaster.subscribe(categoryIds, productIds);
+  }
+}
@@ -0,0 +1,36 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ProductSearchResponse;
+import com.brenda.inventory.dto.SearchIndexStatsResponse;
+import com.brenda.inventory.services.ProductSearchService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ProductSearchController {
+  private static final int DEFAULT_LIMIT = 20;
+
+  private final ProductSearchService productSearchService;
+
+  public ProductSearchController(ProductSearchService productSearchService) {
+    this.productSearchService = productSearchService;
+  }
+
+  @GetMapping("/products/search")
+  public ProductSearchResponse search(@RequestParam(required = false) String q,
+                                      @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+    return productSearchService.search(q, limit);
+  }
+
+  @GetMapping("/admin/search-index")
+  public SearchIndexStatsResponse stats() {
+    return productSearchService.stats();
+  }
+
+  @PostMapping("/admin/search-index/rebuild")
+  public SearchIndexStatsResponse rebuild() {
+    return productSearchService.rebuild();
+  }
+}
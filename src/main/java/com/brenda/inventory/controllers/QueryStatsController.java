@@ -0,0 +1,53 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.config.QueryInspector;
+import com.brenda.inventory.dto.HibernateStatsResponse;
+import com.brenda.inventory.dto.QueryStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/queries")
+public class QueryStatsController {
+  private final QueryInspector queryInspector;
+  private final Statistics statistics;
+
+  public QueryStatsController(QueryInspector queryInspector, EntityManagerFactory entityManagerFactory) {
+    this.queryInspector = queryInspector;
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @GetMapping
+  public QueryStatsResponse getStats() {
+    return QueryStatsResponse.builder()
+        .shapes(queryInspector.shapes())
+        .flaggedRequests(queryInspector.flaggedRequests())
+        .hibernate(HibernateStatsResponse.builder()
+            .enabled(statistics.isStatisticsEnabled())
+            .queryExecutions(statistics.getQueryExecutionCount())
+            .queryExecutionMaxMillis(statistics.getQueryExecutionMaxTime())
+            .slowestQuery(statistics.getQueryExecutionMaxTimeQueryString())
+            .preparedStatements(statistics.getPrepareStatementCount())
+            .entityLoads(statistics.getEntityLoadCount())
+            .entityFetches(statistics.getEntityFetchCount())
+            .collectionFetches(statistics.getCollectionFetchCount())
+            .sessionsOpened(statistics.getSessionOpenCount())
+            .build())
+        .build();
+  }
+
+  // Starts a fresh measurement window (query shapes, flagged requests and Hibernate counters)
+  @DeleteMapping
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void reset() {
+    queryInspector.reset();
+    statistics.clear();
+  }
+}
@@ -0,0 +1,115 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.exceptions.BadRequestException;
+import com.brenda.inventory.repositories.ReactiveCategoryRepository;
+import com.brenda.inventory.repositories.ReactiveProductRepository;
+import com.brenda.inventory.services.Cursors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Read-only product and category endpoints served by ReactiveReadServer. Lists are streamed as
+ * NDJSON with backpressure instead of being collected into one response; clients resume with
+ * {@code after} (the same cursor format as the servlet API) or simply stop reading. The stream
+ * is read in keyset pages, each a short query whose connection goes back to the pool before its
+ * rows are written, and the next page is only fetched once the client has taken the current one;
+ * a slow client holds at most a page in memory and no connection.
+ *
+ * <p>Functional routes rather than a @RestController, which Spring MVC would pick up as well.
+ */
+@Component
+public class ReactiveReadRoutes {
+  private final ReactiveProductRepository productRepository;
+  private final ReactiveCategoryRepository categoryRepository;
+  private final int pageSize;
+
+  public ReactiveReadRoutes(ReactiveProductRepository productRepository, ReactiveCategoryRepository categoryRepository,
+                            @Value("${inventory.reactive.stream-page-size:500}") int pageSize) {
+    this.productRepository = productRepository;
+    this.categoryRepository = categoryRepository;
+    this.pageSize = pageSize;
+  }
+
+  public RouterFunction<ServerResponse> router() {
+    return RouterFunctions.route()
+        .GET("/products", deferred(this::getProducts))
+        .GET("/products/{id}", deferred(this::getProduct))
+        .GET("/categories", deferred(this::getCategories))
+        .GET("/categories/{id}", deferred(this::getCategory))
+        .onError(BadRequestException.class, (exception, request) ->
+            ServerResponse.badRequest().bodyValue(exception.getMessage()))
+        .build();
+  }
+
+  // Handlers validate their parameters eagerly; deferring turns those throws into error signals onError can map
+  private HandlerFunction<ServerResponse> deferred(HandlerFunction<ServerResponse> handler) {
+    return request -> Mono.defer(() -> handler.handle(request));
+  }
+
+  private Mono<ServerResponse> getProducts(ServerRequest request) {
+    long afterId = Cursors.decode(request.queryParam("after").orElse(null));
+    String category = request.queryParam("category").filter(name -> !name.isBlank()).orElse(null);
+
+    Flux<ProductResponse> products = paged(afterId, ProductResponse::getId, category == null
+        ? after -> productRepository.findAllAfter(after, pageSize)
+        : after -> productRepository.findByCategoryNameAfter(category, after, pageSize));
+
+    return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(products, ProductResponse.class);
+  }
+
+  private Mono<ServerResponse> getProduct(ServerRequest request) {
+    long id = pathId(request);
+    return productRepository.findById(id)
+        .flatMap(product -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(product))
+        .switchIfEmpty(notFound("Product not found with id: " + id));
+  }
+
+  private Mono<ServerResponse> getCategories(ServerRequest request) {
+    long afterId = Cursors.decode(request.queryParam("after").orElse(null));
+    return ServerResponse.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(paged(afterId, CategoryResponse::getId, after -> categoryRepository.findAllAfter(after, pageSize)),
+            CategoryResponse.class);
+  }
+
+  private Mono<ServerResponse> getCategory(ServerRequest request) {
+    long id = pathId(request);
+    return categoryRepository.findById(id)
+        .flatMap(category -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(category))
+        .switchIfEmpty(notFound("Category not found with id: " + id));
+  }
+
+  // Each page is read in full (releasing its connection) before it is emitted; a short page is the last
+  private <T> Flux<T> paged(long afterId, Function<T, Long> idOf, LongFunction<Flux<T>> page) {
+    return page.apply(afterId).collectList()
+        .expand(rows -> rows.size() < pageSize ? Mono.empty() : page.apply(idOf.apply(rows.get(rows.size() - 1))).collectList())
+        // Prefetch of one page: the next query waits until the response has taken this one
+        .flatMapIterable(Function.identity(), 1);
+  }
+
+  private long pathId(ServerRequest request) {
+    try {
+      return Long.parseLong(request.pathVariable("id"));
+    } catch (NumberFormatException exception) {
+      throw new BadRequestException("Invalid id: " + request.pathVariable("id"));
+    }
+  }
+
+  private Mono<ServerResponse> notFound(String message) {
+    return ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(message);
+  }
+}
@@ -0,0 +1,86 @@
+package com.brenda.inventory.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Netty server for {@link ReactiveReadRoutes}, on its own port next to Tomcat. A fixed, small set
+ * of event-loop threads serves every connection, so thousands of slow readers cost buffers rather
+ * than threads. It starts with the servlet web server, so MOCK-environment tests never bind a port.
+ */
+@Component
+public class ReactiveReadServer implements ApplicationListener<WebServerInitializedEvent> {
+  private static final Logger log = LoggerFactory.getLogger(ReactiveReadServer.class);
+
+  private final ReactiveReadRoutes routes;
+  private final ObjectMapper objectMapper;
+  private final int port;
+  private final int eventLoopThreads;
+
+  private LoopResources loops;
+  private DisposableServer server;
+
+  public ReactiveReadServer(ReactiveReadRoutes routes,
+                            ObjectMapper objectMapper,
+                            @Value("${inventory.reactive.port:8081}") int port,
+                            @Value("${inventory.reactive.event-loop-threads:2}") int eventLoopThreads) {
+    this.routes = routes;
+    this.objectMapper = objectMapper;
+    this.port = port;
+    this.eventLoopThreads = eventLoopThreads;
+  }
+
+  @Override
+  public synchronized void onApplicationEvent(WebServerInitializedEvent event) {
+    // Ignore the event of the management server, if any, and repeated refreshes
+    if (event.getApplicationContext().getServerNamespace() != null || server != null || port < 0) {
+      return;
+    }
+
+    // Same ObjectMapper as the servlet side so both APIs render identical JSON
+    HandlerStrategies strategies = HandlerStrategies.builder()
+        .codecs(codecs -> {
+          codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+          codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+        })
+        .build();
+
+    loops = LoopResources.create("reactive-read", eventLoopThreads, true);
+    server = HttpServer.create()
+        .port(port)
+        .runOn(loops)
+        .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes.router(), strategies)))
+        .bindNow();
+    log.info("Reactive read API listening on port {}", server.port());
+  }
+
+  /**
+   * Bound port, or -1 while the server isn't running.
+   */
+  public synchronized int port() {
+    return server == null ? -1 : server.port();
+  }
+
+  @PreDestroy
+  synchronized void stop() {
+    if (server != null) {
+      server.disposeNow();
+      loops.dispose();
+      server = null;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ReservationCreateRequest;
+import com.brenda.inventory.dto.ReservationResponse;
+import com.brenda.inventory.services.ReservationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/reservations")
+public class ReservationController {
+  private final ReservationService reservationService;
+
+  public ReservationController(ReservationService reservationService) {
+    this.reservationService = reservationService;
+  }
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public ReservationResponse create(@Valid @RequestBody ReservationCreateRequest request) {
+    return reservationService.create(request);
+  }
+
+  @GetMapping("/{id}")
+  public ReservationResponse getById(@PathVariable Long id) {
+    return reservationService.getById(id);
+  }
+
+  @PostMapping("/{id}/confirm")
+  public ReservationResponse confirm(@PathVariable Long id) {
+    return reservationService.confirm(id);
+  }
+
+  @PostMapping("/{id}/release")
+  public ReservationResponse release(@PathVariable Long id) {
+    return reservationService.release(id);
+  }
+}
@@ -0,0 +1,19 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityResponse {
+  private Long productId;
+  private Integer stock;
+  private Integer reserved;
+  private Integer available;
+}
@@ -0,0 +1,22 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItemError {
+  // Position of the item in the request array
+  private int index;
+
+  // Same field -> message shape as the 400 body of a single POST /products
+  private Map<String, String> errors;
+}
@@ -0,0 +1,23 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsResponse {
+  private long size;
+  private long hits;
+  private long misses;
+  private double hitRate;
+  private long evictions;
+
+  // Mean time spent loading a missing entry from the database
+  private double averageLoadMillis;
+}
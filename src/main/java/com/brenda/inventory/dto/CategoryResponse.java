@@ -15,4 +15,5 @@ public class CategoryResponse {
   private Long id;
 
   private String name;
+  private Long version;
 }
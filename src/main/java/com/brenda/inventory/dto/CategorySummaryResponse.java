@@ -0,0 +1,23 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategorySummaryResponse {
+  private Long categoryId;
+  private String categoryName;
+  private long skuCount;
+  private long unitsInStock;
+  // Sum of price * stock over the category's products
+  private long stockValue;
+  // Products at or below inventory.stats.low-stock-threshold units
+  private long lowStockCount;
+}
@@ -0,0 +1,6 @@
+package com.brenda.inventory.dto;
+
+public enum ChangeEntityType {
+  PRODUCT,
+  CATEGORY
+}
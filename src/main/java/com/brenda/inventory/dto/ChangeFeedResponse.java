@@ -0,0 +1,24 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeFeedResponse {
+  private List<ChangeResponse> items;
+
+  // Pass as "since" next time; unlike PageResponse it is never null, the feed has no last page
+  private String nextCursor;
+
+  // More changes are already waiting: fetch again right away instead of at the next poll
+  private boolean hasMore;
+}
@@ -0,0 +1,7 @@
+package com.brenda.inventory.dto;
+
+public enum ChangeOperation {
+  CREATED,
+  UPDATED,
+  DELETED
+}
@@ -0,0 +1,21 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeResponse {
+  private ChangeEntityType entityType;
+  private Long entityId;
+  private ChangeOperation operation;
+  private Instant changedAt;
+}
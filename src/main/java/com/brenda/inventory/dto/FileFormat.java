@@ -0,0 +1,27 @@
+package com.brenda.inventory.dto;
+
+import com.brenda.inventory.exceptions.BadRequestException;
+
+public enum FileFormat {
+  NDJSON("application/x-ndjson"),
+  CSV("text/csv");
+
+  private final String contentType;
+
+  FileFormat(String contentType) {
+    this.contentType = contentType;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public static FileFormat from(String value) {
+    for (FileFormat format : values()) {
+      if (format.name().equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new BadRequestException("Unsupported file format: " + value);
+  }
+}
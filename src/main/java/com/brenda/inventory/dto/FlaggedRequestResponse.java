@@ -0,0 +1,28 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlaggedRequestResponse {
+  private String request;
+  private Instant finishedAt;
+  // n_plus_one, slow_statement and/or statement_budget
+  private List<String> reasons;
+  private int statements;
+  // Query shapes executed at least n-plus-one-threshold times, with their count
+  private Map<String, Integer> repeatedShapes;
+  private String slowestStatement;
+  private double slowestStatementMillis;
+}
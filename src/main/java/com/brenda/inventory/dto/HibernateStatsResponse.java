@@ -0,0 +1,25 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HibernateStatsResponse {
+  private boolean enabled;
+  private long queryExecutions;
+  private long queryExecutionMaxMillis;
+  private String slowestQuery;
+  private long preparedStatements;
+  private long entityLoads;
+  // Lazy associations initialized one by one: the usual source of N+1
+  private long entityFetches;
+  private long collectionFetches;
+  private long sessionsOpened;
+}
@@ -0,0 +1,32 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobResponse {
+  private Long id;
+  private FileFormat format;
+  private ImportJobStatus status;
+  private long linesRead;
+  private long created;
+  private long updated;
+  private long failed;
+
+  // Capped at inventory.import.max-errors; "failed" keeps counting past the cap
+  private List<ImportLineError> errors;
+
+  private String message;
+  private Instant startedAt;
+  private Instant finishedAt;
+}
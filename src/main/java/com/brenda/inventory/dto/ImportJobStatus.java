@@ -0,0 +1,7 @@
+package com.brenda.inventory.dto;
+
+public enum ImportJobStatus {
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
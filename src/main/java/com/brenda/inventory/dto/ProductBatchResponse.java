@@ -0,0 +1,21 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchResponse {
+  private int received;
+  private int created;
+  private List<Long> createdIds;
+  private List<BatchItemError> errors;
+}
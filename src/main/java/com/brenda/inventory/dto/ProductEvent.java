@@ -0,0 +1,30 @@
+package com.brenda.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Only the fields of the event's type are set: stock for stock events, price for PRICE_CHANGED,
+// previousCategoryId for MOVED
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductEvent {
+  private ProductEventType type;
+  private Long productId;
+  private Long categoryId;
+  private Long previousCategoryId;
+  private Integer stock;
+  private Integer previousStock;
+  private Integer price;
+  private Integer previousPrice;
+  private Instant occurredAt;
+}
@@ -0,0 +1,12 @@
+package com.brenda.inventory.dto;
+
+public enum ProductEventType {
+  STOCK_CHANGED,
+  // Stock went from above inventory.stats.low-stock-threshold to at or below it, and back
+  LOW_STOCK,
+  LOW_STOCK_CLEARED,
+  PRICE_CHANGED,
+  // Category changed; sent to subscribers of the previous category as well, so they can drop the product
+  MOVED,
+  DELETED
+}
@@ -0,0 +1,29 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Bound from the query string of GET /products; every bound is inclusive
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFilter {
+  private Integer minPrice;
+  private Integer maxPrice;
+  private Integer minStock;
+  private Integer maxStock;
+  private String namePrefix;
+  private List<Long> categoryId;
+
+  public boolean isEmpty() {
+    return minPrice == null && maxPrice == null && minStock == null && maxStock == null
+        && (namePrefix == null || namePrefix.isEmpty()) && (categoryId == null || categoryId.isEmpty());
+  }
+}
@@ -0,0 +1,14 @@
+package com.brenda.inventory.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One line of an import file: the same fields and validation rules as {@code POST /products},
+ * plus an optional id. Lines with an id update that product, lines without one create a new product.
+ */
+@Getter
+@Setter
+public class ProductImportRow extends ProductCreateRequest {
+  private Long id;
+}
@@ -17,5 +17,12 @@ public class ProductResponse {
   private String description;
   private Integer price;
   private Integer stock;
+  private Long version;
   private CategoryResponse category;
+
+  // Used by the JPQL constructor projections in ProductRepository, which can't build the nested category
+  public ProductResponse(Long id, String name, String description, Integer price, Integer stock, Long version,
+                         Long categoryId, String categoryName, Long categoryVersion) {
+    this(id, name, description, price, stock, version, new CategoryResponse(categoryId, categoryName, categoryVersion));
+  }
 }
@@ -0,0 +1,14 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// What a product contributes to its category's totals: projection used by the category aggregates
+@Getter
+@AllArgsConstructor
+public class ProductStockState {
+  private Long productId;
+  private Long categoryId;
+  private Integer price;
+  private Integer stock;
+}
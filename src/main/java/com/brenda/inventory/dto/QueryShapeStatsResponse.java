@@ -0,0 +1,22 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryShapeStatsResponse {
+  // SQL with literals and IN lists collapsed, so every execution of the same query lands on one line
+  private String sql;
+  private long executions;
+  private long slowExecutions;
+  private double totalMillis;
+  private double averageMillis;
+  private double maxMillis;
+}
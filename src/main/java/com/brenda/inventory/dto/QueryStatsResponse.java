@@ -0,0 +1,22 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryStatsResponse {
+  // Most expensive first (total time)
+  private List<QueryShapeStatsResponse> shapes;
+  // Most recent first
+  private List<FlaggedRequestResponse> flaggedRequests;
+  private HibernateStatsResponse hibernate;
+}
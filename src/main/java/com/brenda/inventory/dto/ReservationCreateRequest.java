@@ -0,0 +1,23 @@
+package com.brenda.inventory.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReservationCreateRequest {
+  @NotNull(message = "ProductId is required")
+  private Long productId;
+
+  @NotNull(message = "Quantity is required")
+  @Min(value = 1, message = "Quantity must be >= 1")
+  private Integer quantity;
+
+  // Optional, defaults to inventory.reservations.default-ttl-seconds
+  @Min(value = 1, message = "TTL must be >= 1 second")
+  @Max(value = 3600, message = "TTL must be at most 3600 seconds")
+  private Integer ttlSeconds;
+}
@@ -0,0 +1,23 @@
+package com.brenda.inventory.dto;
+
+import com.brenda.inventory.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResponse {
+  private Long id;
+  private Long productId;
+  private Integer quantity;
+  private ReservationStatus status;
+  private Instant expiresAt;
+}
@@ -0,0 +1,17 @@
+package com.brenda.inventory.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockAdjustRequest {
+  // Signed: negative to take units out, positive to put them back
+  @NotNull(message = "Delta is required")
+  private Integer delta;
+
+  @Size(max = 100, message = "Reason must be at most 100 characters")
+  private String reason;
+}
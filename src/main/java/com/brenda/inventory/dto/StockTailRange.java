@@ -0,0 +1,14 @@
+package com.brenda.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Smallest and largest uncompacted ledger tail over all products: how far any current stock can be from its snapshot
+@Getter
+@AllArgsConstructor
+public class StockTailRange {
+  public static final StockTailRange NONE = new StockTailRange(0L, 0L);
+
+  private Long lowest;
+  private Long highest;
+}
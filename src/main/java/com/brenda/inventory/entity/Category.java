@@ -4,7 +4,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,13 +17,19 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+// Listings and searches resolve category names to ids
+@Table(indexes = @Index(name = "idx_category_name", columnList = "name"))
 public class Category {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+  @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 50)
   private Long id;
 
   private String name;
 
+  @Version
+  private Long version;
+
   @OneToMany(mappedBy = "category")
   private List<Product> products;
 }
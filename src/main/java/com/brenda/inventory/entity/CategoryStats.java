@@ -0,0 +1,35 @@
+package com.brenda.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running inventory totals of one category. Never recomputed on read: every product and stock write
+ * adds its difference in the same transaction ({@code CategoryStatsService}), so a summary costs one
+ * row per category however many products there are.
+ */
+@Getter
+@Setter
+@Entity
+public class CategoryStats {
+  // Same id as the category; no association, the row is only ever touched through bulk updates
+  @Id
+  @Column(name = "category_id")
+  private Long categoryId;
+
+  @Column(nullable = false)
+  private long skuCount;
+
+  @Column(nullable = false)
+  private long unitsInStock;
+
+  // Sum of price * stock
+  @Column(nullable = false)
+  private long stockValue;
+
+  @Column(nullable = false)
+  private long lowStockCount;
+}
@@ -0,0 +1,54 @@
+package com.brenda.inventory.entity;
+
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One catalog write, in commit order. {@code position} is what feed cursors point at; unlike the id it
+ * is handed out under the {@link ChangeLogHead} lock, so a reader never sees a position before an
+ * earlier one has committed.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = {
+    @Index(name = "idx_change_log_position", columnList = "position", unique = true),
+    @Index(name = "idx_change_log_changed_at", columnList = "changed_at")
+})
+public class ChangeLogEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+  @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_seq", allocationSize = 500)
+  private Long id;
+
+  @Column(nullable = false)
+  private long position;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ChangeEntityType entityType;
+
+  @Column(nullable = false)
+  private Long entityId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ChangeOperation operation;
+
+  @Column(name = "changed_at", nullable = false)
+  private Instant changedAt;
+}
@@ -0,0 +1,26 @@
+package com.brenda.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Single row: the last position handed out and the last one pruned. Writers lock it as the final
+ * step of their transaction, which orders their entries the way they commit.
+ */
+@Getter
+@Setter
+@Entity
+public class ChangeLogHead {
+  @Id
+  private Long id;
+
+  @Column(nullable = false)
+  private long lastPosition;
+
+  // Cursors before this point can no longer be served
+  @Column(nullable = false)
+  private long prunedThrough;
+}
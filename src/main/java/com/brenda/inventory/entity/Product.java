@@ -1,28 +1,52 @@
 package com.brenda.inventory.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+// Search filters and sorts range-scan these; id is the tie-breaker of every order, so keyset pages
+// resume inside the index. Stock filters are on the current stock, so the snapshot index only narrows
+// them to the rows within the ledger tail's reach (see ProductSpecifications)
+@Table(indexes = {
+    @Index(name = "idx_product_category", columnList = "category_id, id"),
+    @Index(name = "idx_product_price", columnList = "price, id"),
+    @Index(name = "idx_product_name", columnList = "name, id"),
+    @Index(name = "idx_product_stock", columnList = "stock, id")
+})
 public class Product {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // Pooled sequence instead of IDENTITY: Hibernate can hand out ids without a round trip per row and batch the inserts
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+  @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
   private Long id;
 
   private String name;
   private String description;
   private Integer price;
+
+  // Snapshot as of the last ledger compaction; only StockLedger moves it, never an entity update
+  @Column(updatable = false)
   private Integer stock;
 
-  @ManyToOne
+  // Bumped by every entity update; stock moves through the ledger and doesn't touch it
+  @Version
+  private Long version;
+
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "category_id", nullable = false)
   private Category category;
 }
@@ -0,0 +1,8 @@
+package com.brenda.inventory.entity;
+
+public enum ReservationStatus {
+  ACTIVE,
+  CONFIRMED,
+  RELEASED,
+  EXPIRED
+}
@@ -0,0 +1,48 @@
+package com.brenda.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Append-only stock ledger entry. Current stock is {@code Product.stock} (the last
+ * compacted snapshot) plus the deltas of this product's movements that are not compacted yet.
+ */
+@Getter
+@Setter
+@Entity
+// The second index finds the uncompacted tail without reading the compacted history
+@Table(indexes = {
+    @Index(name = "idx_stock_movement_product", columnList = "product_id, compacted"),
+    @Index(name = "idx_stock_movement_uncompacted", columnList = "compacted, product_id")
+})
+public class StockMovement {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_seq")
+  @SequenceGenerator(name = "stock_movement_seq", sequenceName = "stock_movement_seq", allocationSize = 500)
+  private Long id;
+
+  // Plain column instead of @ManyToOne: appends never need to load the product, and the history outlives deletes
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(nullable = false)
+  private Integer delta;
+
+  private String reason;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @Column(nullable = false)
+  private boolean compacted;
+}
@@ -0,0 +1,7 @@
+package com.brenda.inventory.exceptions;
+
+public class BadRequestException extends RuntimeException{
+  public BadRequestException(String message) {
+    super(message);
+  }
+}
@@ -1,7 +1,12 @@
 package com.brenda.inventory.exceptions;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,16 +16,69 @@ import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+  // inventory.http.errors, registered up front so counting a handled error is a single increment
+  private final Counter notFound;
+  private final Counter badRequest;
+  private final Counter validationFailed;
+
+  // Web slices without metrics auto-configuration get the global registry, a no-op until something is added to it
+  public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistries) {
+    MeterRegistry meterRegistry = meterRegistries.getIfAvailable(() -> Metrics.globalRegistry);
+    notFound = errorCounter(meterRegistry, HttpStatus.NOT_FOUND, ResourceNotFoundException.class);
+    badRequest = errorCounter(meterRegistry, HttpStatus.BAD_REQUEST, BadRequestException.class);
+    validationFailed = errorCounter(meterRegistry, HttpStatus.BAD_REQUEST, MethodArgumentNotValidException.class);
+  }
 
   @ExceptionHandler(ResourceNotFoundException.class)
   public ResponseEntity<?> handleNotFound(ResourceNotFoundException exception) {
+    notFound.increment();
     return ResponseEntity
         .status(HttpStatus.NOT_FOUND)
         .body(exception.getMessage());
   }
 
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<?> handleBadRequest(BadRequestException exception) {
+    badRequest.increment();
+    return ResponseEntity
+        .status(HttpStatus.BAD_REQUEST)
+        .body(exception.getMessage());
+  }
+
+  @ExceptionHandler(ConflictException.class)
+  public ResponseEntity<?> handleConflict(ConflictException exception) {
+    return ResponseEntity
+        .status(HttpStatus.CONFLICT)
+        .body(exception.getMessage());
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<?> handlePreconditionFailed(PreconditionFailedException exception) {
+    return ResponseEntity
+        .status(HttpStatus.PRECONDITION_FAILED)
+        .body(exception.getMessage());
+  }
+
+  @ExceptionHandler(GoneException.class)
+  public ResponseEntity<?> handleGone(GoneException exception) {
+    return ResponseEntity
+        .status(HttpStatus.GONE)
+        .body(exception.getMessage());
+  }
+
+  // Another update committed between our read and our write; same answer as a stale If-Match
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<?> handleOptimisticLock(ObjectOptimisticLockingFailureException exception) {
+    return ResponseEntity
+        .status(HttpStatus.PRECONDITION_FAILED)
+        .body(exception.getIdentifier() == null
+            ? "Resource was modified concurrently"
+            : "Resource was modified concurrently with id: " + exception.getIdentifier());
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<?> handleValidation(MethodArgumentNotValidException exception) {
+    validationFailed.increment();
     Map<String, String> errors = new HashMap<>();
 
     exception.getBindingResult().getFieldErrors().forEach(error -> {errors.put(error.getField(), error.getDefaultMessage());});
@@ -36,4 +94,12 @@ public class GlobalExceptionHandler {
         .status(HttpStatus.INTERNAL_SERVER_ERROR)
         .body("Unexpected error: " + exception.getMessage());
   }
+
+  private static Counter errorCounter(MeterRegistry meterRegistry, HttpStatus status, Class<? extends Exception> type) {
+    return Counter.builder("inventory.http.errors")
+        .description("Client errors handled by GlobalExceptionHandler")
+        .tag("status", String.valueOf(status.value()))
+        .tag("exception", type.getSimpleName())
+        .register(meterRegistry);
+  }
 }
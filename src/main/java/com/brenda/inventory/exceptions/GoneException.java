@@ -0,0 +1,7 @@
+package com.brenda.inventory.exceptions;
+
+public class GoneException extends RuntimeException {
+  public GoneException(String message) {
+    super(message);
+  }
+}
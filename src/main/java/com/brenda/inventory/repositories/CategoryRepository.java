@@ -4,6 +4,9 @@ import com.brenda.inventory.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+  List<Category> findAllByNameOrderByIdAsc(String name);
 }
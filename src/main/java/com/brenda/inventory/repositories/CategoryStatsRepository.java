@@ -0,0 +1,40 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.CategorySummaryResponse;
+import com.brenda.inventory.entity.CategoryStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, Long> {
+  String SUMMARY_SELECT = "select new com.brenda.inventory.dto.CategorySummaryResponse("
+      + "c.id, c.name, s.skuCount, s.unitsInStock, s.stockValue, s.lowStockCount) "
+      + "from CategoryStats s join Category c on c.id = s.categoryId ";
+
+  @Query(SUMMARY_SELECT + "order by c.id")
+  List<CategorySummaryResponse> findAllSummaries();
+
+  @Query(SUMMARY_SELECT + "where c.id = :categoryId")
+  Optional<CategorySummaryResponse> findSummary(Long categoryId);
+
+  // In-place increments: concurrent writers queue on the row lock instead of overwriting each other's totals
+  @Transactional
+  @Modifying
+  @Query("update CategoryStats s set s.skuCount = s.skuCount + :skus, s.unitsInStock = s.unitsInStock + :units, "
+      + "s.stockValue = s.stockValue + :value, s.lowStockCount = s.lowStockCount + :lowStock "
+      + "where s.categoryId = :categoryId")
+  int increment(Long categoryId, long skus, long units, long value, long lowStock);
+
+  // Taken by a rebuild so writers wait for it instead of adding to totals it is about to replace
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from CategoryStats s order by s.categoryId")
+  List<CategoryStats> lockAll();
+}
@@ -0,0 +1,17 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.entity.ChangeLogHead;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogHeadRepository extends JpaRepository<ChangeLogHead, Long> {
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select h from ChangeLogHead h where h.id = :id")
+  Optional<ChangeLogHead> lockById(Long id);
+}
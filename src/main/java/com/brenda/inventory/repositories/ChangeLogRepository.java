@@ -0,0 +1,24 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.entity.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+  List<ChangeLogEntry> findByPositionGreaterThanOrderByPosition(long position, Limit limit);
+
+  @Query("select max(e.position) from ChangeLogEntry e where e.changedAt < :cutoff")
+  Optional<Long> findLastPositionBefore(Instant cutoff);
+
+  @Modifying
+  @Query("delete from ChangeLogEntry e where e.position <= :position")
+  int deleteThrough(long position);
+}
@@ -0,0 +1,157 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.exceptions.BadRequestException;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A sparse fieldset for product reads ({@code ?fields=id,name,stock}). Only the requested columns are
+ * selected: the stock subquery runs only for {@code stock}, and the category is joined only for its name
+ * or version, since {@code category.id} is the product's own foreign key. {@code id} is always included,
+ * it is what page cursors are made of; searches also select their sort fields (see {@link #with}).
+ */
+public final class ProductFields {
+
+  public enum Field {
+    ID("id", "p.id", ProductResponse::getId),
+    NAME("name", "p.name", ProductResponse::getName),
+    DESCRIPTION("description", "p.description", ProductResponse::getDescription),
+    PRICE("price", "p.price", ProductResponse::getPrice),
+    STOCK("stock", ProductRepository.CURRENT_STOCK, ProductResponse::getStock),
+    VERSION("version", "p.version", ProductResponse::getVersion),
+    CATEGORY_ID("category.id", "p.category.id", product -> product.getCategory().getId()),
+    CATEGORY_NAME("category.name", "c.name", product -> product.getCategory().getName()),
+    CATEGORY_VERSION("category.version", "c.version", product -> product.getCategory().getVersion());
+
+    private final String path;
+    private final String select;
+    private final Function<ProductResponse, Object> value;
+
+    Field(String path, String select, Function<ProductResponse, Object> value) {
+      this.path = path;
+      this.select = select;
+      this.value = value;
+    }
+
+    boolean inCategory() {
+      return path.startsWith("category.");
+    }
+  }
+
+  private static final List<Field> CATEGORY = List.of(Field.CATEGORY_ID, Field.CATEGORY_NAME, Field.CATEGORY_VERSION);
+
+  private final EnumSet<Field> fields;
+
+  private ProductFields(EnumSet<Field> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * Parses a comma-separated list of field paths; {@code category} stands for all of the category's.
+   *
+   * @throws BadRequestException naming the first unknown field
+   */
+  public static ProductFields parse(String spec) {
+    EnumSet<Field> fields = EnumSet.of(Field.ID);
+    for (String raw : spec.split(",")) {
+      String path = raw.trim().toLowerCase(Locale.ROOT);
+      if (path.isEmpty()) {
+        continue;
+      }
+      if (path.equals("category")) {
+        fields.addAll(CATEGORY);
+        continue;
+      }
+      fields.add(EnumSet.allOf(Field.class).stream()
+          .filter(field -> field.path.equals(path))
+          .findFirst()
+          .orElseThrow(() -> new BadRequestException("Unknown field: " + raw.trim() + "; available: "
+              + EnumSet.allOf(Field.class).stream().map(field -> field.path).collect(Collectors.joining(", ")))));
+    }
+    return new ProductFields(fields);
+  }
+
+  /** Canonical form, the same for every spelling of the same set; usable as a cache key. */
+  public String key() {
+    return fields.stream().map(field -> field.path).collect(Collectors.joining(","));
+  }
+
+  String selectList() {
+    return fields.stream().map(field -> field.select).collect(Collectors.joining(", "));
+  }
+
+  boolean joinsCategory() {
+    return fields.contains(Field.CATEGORY_NAME) || fields.contains(Field.CATEGORY_VERSION);
+  }
+
+  /** These fields plus the ones {@code sort} orders by, which a search needs to build its cursor. */
+  public ProductFields with(ProductSort sort) {
+    EnumSet<Field> widened = EnumSet.copyOf(fields);
+    sort.keys().forEach(key -> widened.add(Field.valueOf(key.field().name())));
+    return new ProductFields(widened);
+  }
+
+  /** A row read with a wider fieldset (see {@link #with}), cut down to these fields. */
+  public Map<String, Object> narrow(Map<String, Object> row) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (Field field : fields) {
+      String name = field.inCategory() ? "category" : field.path;
+      result.putIfAbsent(name, row.get(name));
+    }
+    return result;
+  }
+
+  // selectList() as criteria selections, in the same order
+  List<Selection<?>> selections(Root<Product> product, AbstractQuery<?> query, CriteriaBuilder cb) {
+    Join<Product, Category> category = joinsCategory() ? product.join("category") : null;
+    return fields.stream().<Selection<?>>map(field -> switch (field) {
+      case STOCK -> ProductSpecifications.currentStock(product, query, cb);
+      case CATEGORY_ID -> product.get("category").get("id");
+      case CATEGORY_NAME -> category.get("name");
+      case CATEGORY_VERSION -> category.get("version");
+      default -> product.get(field.path);
+    }).toList();
+  }
+
+  Map<String, Object> toMap(Object[] row) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    int column = 0;
+    for (Field field : fields) {
+      put(result, field, row[column++]);
+    }
+    return result;
+  }
+
+  /** The same shape cut out of a full response, e.g. one already cached. */
+  public Map<String, Object> toMap(ProductResponse product) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (Field field : fields) {
+      put(result, field, field.value.apply(product));
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void put(Map<String, Object> result, Field field, Object value) {
+    if (field.inCategory()) {
+      ((Map<String, Object>) result.computeIfAbsent("category", key -> new LinkedHashMap<String, Object>()))
+          .put(field.path.substring("category.".length()), value);
+    } else {
+      result.put(field.path, value);
+    }
+  }
+}
@@ -1,12 +1,110 @@
 package com.brenda.inventory.repositories;
 
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.dto.ProductStockState;
+import com.brenda.inventory.dto.ProductText;
+import com.brenda.inventory.dto.StockTailRange;
 import com.brenda.inventory.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-  List<Product> findByCategory_Name(String name);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+  // Current stock: the compacted snapshot in Product.stock plus the ledger tail not folded into it yet
+  String CURRENT_STOCK = "cast(p.stock + coalesce((select sum(m.delta) from StockMovement m "
+      + "where m.productId = p.id and m.compacted = false), 0) as Integer)";
+
+  // Read queries project straight into ProductResponse with a single join, so listings
+  // cost one statement no matter how many categories they touch and no entities are managed
+  String RESPONSE_SELECT = "select new com.brenda.inventory.dto.ProductResponse("
+      + "p.id, p.name, p.description, p.price, " + CURRENT_STOCK + ", p.version, c.id, c.name, c.version) "
+      + "from Product p join p.category c ";
+
+  @Query(RESPONSE_SELECT + "where c.name = :name order by p.id")
+  List<ProductResponse> findByCategory_Name(String name);
+
+  // Forward-only cursor for exports: rows are pulled from the driver fetch-size rows at a time and,
+  // being DTOs, never enter the persistence context, so memory stays flat however big the catalog is
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(RESPONSE_SELECT + "order by p.id")
+  Stream<ProductResponse> streamAll();
+
+  @Query(RESPONSE_SELECT + "where p.id = :id")
+  Optional<ProductResponse> findResponseById(Long id);
+
+  @Query(RESPONSE_SELECT + "where p.id in :ids")
+  List<ProductResponse> findResponsesByIds(Collection<Long> ids);
+
+  // Just the text, for building the search index
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select new com.brenda.inventory.dto.ProductText(p.id, p.version, p.name, p.description) from Product p order by p.id")
+  Stream<ProductText> streamTexts();
+
+  // Keyset (seek) pages: "id > :afterId order by id" walks the primary key index, so deep pages cost the same as the first one
+  @Query(RESPONSE_SELECT + "where p.id > :afterId order by p.id")
+  List<ProductResponse> findPageAfter(Long afterId, Limit limit);
+
+  @Query(RESPONSE_SELECT + "where c.id in :categoryIds and p.id > :afterId order by p.id")
+  List<ProductResponse> findPageByCategoryIdsAfter(Collection<Long> categoryIds, Long afterId, Limit limit);
+
+  @Query("select " + CURRENT_STOCK + " from Product p where p.id = :id")
+  Optional<Integer> findStockById(Long id);
+
+  // Products without a tail count as 0, so the range always contains it. The tail is what the last few seconds
+  // of movements left uncompacted, so this reads a handful of rows
+  @Query("select new com.brenda.inventory.dto.StockTailRange(least(coalesce(min(t.tail), 0L), 0L), greatest(coalesce(max(t.tail), 0L), 0L)) "
+      + "from (select sum(m.delta) as tail from StockMovement m where m.compacted = false group by m.productId) t")
+  StockTailRange findStockTailRange();
+
+  // Price, category and current stock: what each product adds to its category's aggregates
+  @Query("select new com.brenda.inventory.dto.ProductStockState(p.id, p.category.id, p.price, " + CURRENT_STOCK + ") "
+      + "from Product p where p.id in :ids")
+  List<ProductStockState> findStockStatesByIds(Collection<Long> ids);
+
+  @Query("select new com.brenda.inventory.dto.ProductStockState(p.id, p.category.id, p.price, " + CURRENT_STOCK + ") "
+      + "from Product p where p.category.id = :categoryId")
+  List<ProductStockState> findStockStatesByCategoryId(Long categoryId);
+
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select new com.brenda.inventory.dto.ProductStockState(p.id, p.category.id, p.price, " + CURRENT_STOCK + ") "
+      + "from Product p")
+  Stream<ProductStockState> streamStockStates();
+
+  // Row locks for writers that change a product's contribution to the category aggregates, always in id order
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select p from Product p where p.id = :id")
+  Optional<Product> findByIdForUpdate(Long id);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select p from Product p where p.id in :ids order by p.id")
+  List<Product> findAllByIdForUpdate(Collection<Long> ids);
+
+  // Folds every uncompacted movement up to upToId into the snapshot of its product, in one statement
+  @Modifying
+  @Query("update Product p set p.stock = p.stock + (select coalesce(sum(m.delta), 0) from StockMovement m "
+      + "where m.productId = p.id and m.compacted = false and m.id <= :upToId) "
+      + "where p.id in (select m.productId from StockMovement m where m.compacted = false and m.id <= :upToId)")
+  int foldMovements(Long upToId);
 }
@@ -0,0 +1,31 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Queries whose select list is only known at request time
+public interface ProductRepositoryCustom {
+  Optional<Map<String, Object>> findFieldsById(Long id, ProductFields fields);
+
+  /** Keyset page like {@code findPageAfter}; {@code categoryIds} null means every category. */
+  List<Map<String, Object>> findFieldsPageAfter(ProductFields fields, Collection<Long> categoryIds, long afterId, int limit);
+
+  /**
+   * Products matching {@code filter} in {@code sort} order, resuming after the row whose sort values
+   * are {@code after} (null for the first page).
+   */
+  List<ProductResponse> search(Specification<Product> filter, ProductSort sort, List<Object> after, int limit);
+
+  /**
+   * The same search selecting only {@code fields}, which must include the sort's (see {@link ProductFields#with}).
+   * The category is joined only if one of its other columns is asked for.
+   */
+  List<Map<String, Object>> searchFields(Specification<Product> filter, ProductSort sort, List<Object> after, int limit,
+                                         ProductFields fields);
+}
@@ -0,0 +1,135 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+  private final EntityManager entityManager;
+
+  ProductRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public Optional<Map<String, Object>> findFieldsById(Long id, ProductFields fields) {
+    return query(fields, "where p.id = :id")
+        .setParameter("id", id)
+        .getResultList()
+        .stream()
+        .findFirst()
+        .map(fields::toMap);
+  }
+
+  @Override
+  public List<Map<String, Object>> findFieldsPageAfter(ProductFields fields, Collection<Long> categoryIds, long afterId, int limit) {
+    // Filtering on the foreign key keeps the category out of the query unless its columns were asked for
+    TypedQuery<Object[]> query = categoryIds == null
+        ? query(fields, "where p.id > :afterId order by p.id")
+        : query(fields, "where p.category.id in :categoryIds and p.id > :afterId order by p.id")
+            .setParameter("categoryIds", categoryIds);
+    return query.setParameter("afterId", afterId)
+        .setMaxResults(limit)
+        .getResultList()
+        .stream()
+        .map(fields::toMap)
+        .toList();
+  }
+
+  @Override
+  public List<ProductResponse> search(Specification<Product> filter, ProductSort sort, List<Object> after, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+    Root<Product> product = query.from(Product.class);
+    Join<Product, Category> category = product.join("category");
+
+    query.select(cb.construct(ProductResponse.class,
+        product.get("id"), product.get("name"), product.get("description"), product.get("price"),
+        ProductSpecifications.currentStock(product, query, cb), product.get("version"),
+        category.get("id"), category.get("name"), category.get("version")));
+    return search(query, product, filter, sort, after, limit);
+  }
+
+  @Override
+  public List<Map<String, Object>> searchFields(Specification<Product> filter, ProductSort sort, List<Object> after, int limit,
+                                                ProductFields fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<Product> product = query.from(Product.class);
+
+    query.multiselect(fields.selections(product, query, cb));
+    return search(query, product, filter, sort, after, limit).stream().map(fields::toMap).toList();
+  }
+
+  private <T> List<T> search(CriteriaQuery<T> query, Root<Product> product, Specification<Product> filter, ProductSort sort,
+                             List<Object> after, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    List<Predicate> where = new ArrayList<>();
+    Predicate filtered = filter.toPredicate(product, query, cb);
+    if (filtered != null) {
+      where.add(filtered);
+    }
+    if (after != null) {
+      where.add(seek(sort, after, product, query, cb));
+    }
+    query.where(where.toArray(Predicate[]::new));
+    query.orderBy(sort.keys().stream()
+        .map(key -> {
+          Expression<?> expression = key.field().expression(product, query, cb);
+          return key.descending() ? cb.desc(expression) : cb.asc(expression);
+        })
+        .toList());
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  /*
+   * Keyset condition for a mixed-direction order: (k1 past v1) or (k1 = v1 and k2 past v2) or ...
+   * The leading key is also bounded on its own (k1 >= v1) so the planner can range-scan its index.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate seek(ProductSort sort, List<Object> after, Root<Product> product, CriteriaQuery<?> query, CriteriaBuilder cb) {
+    List<ProductSort.Key> keys = sort.keys();
+    List<Expression> expressions = keys.stream().map(key -> (Expression) key.field().expression(product, query, cb)).toList();
+
+    List<Predicate> alternatives = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      List<Predicate> terms = new ArrayList<>();
+      for (int j = 0; j < i; j++) {
+        terms.add(cb.equal(expressions.get(j), after.get(j)));
+      }
+      Comparable value = (Comparable) after.get(i);
+      terms.add(keys.get(i).descending()
+          ? cb.lessThan(expressions.get(i), value)
+          : cb.greaterThan(expressions.get(i), value));
+      alternatives.add(cb.and(terms.toArray(Predicate[]::new)));
+    }
+
+    Comparable lead = (Comparable) after.get(0);
+    Predicate bound = keys.get(0).descending()
+        ? cb.lessThanOrEqualTo(expressions.get(0), lead)
+        : cb.greaterThanOrEqualTo(expressions.get(0), lead);
+    return cb.and(bound, cb.or(alternatives.toArray(Predicate[]::new)));
+  }
+
+  // Object[] even for a single column (Hibernate wraps it), so rows are always read by position
+  private TypedQuery<Object[]> query(ProductFields fields, String where) {
+    String from = fields.joinsCategory() ? "from Product p join p.category c " : "from Product p ";
+    return entityManager.createQuery("select " + fields.selectList() + " " + from + where, Object[].class);
+  }
+}
@@ -0,0 +1,125 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.exceptions.BadRequestException;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Search order ({@code ?sort=-price,name}: a leading {@code -} sorts descending). Ends with {@code id}
+ * unless the client already put it in, so the order is total and a page can resume after the last
+ * row's sort values (see {@link #values}).
+ */
+public final class ProductSort {
+  public static final ProductSort BY_ID = new ProductSort(List.of(new Key(Field.ID, false)));
+
+  public enum Field {
+    ID(ProductResponse::getId, Long::valueOf),
+    NAME(ProductResponse::getName, value -> value),
+    PRICE(ProductResponse::getPrice, Integer::valueOf),
+    STOCK(ProductResponse::getStock, Integer::valueOf);
+
+    private final Function<ProductResponse, Object> value;
+    private final Function<String, Object> parser;
+
+    Field(Function<ProductResponse, Object> value, Function<String, Object> parser) {
+      this.value = value;
+      this.parser = parser;
+    }
+
+    String path() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+
+    Expression<?> expression(Root<Product> product, AbstractQuery<?> query, CriteriaBuilder cb) {
+      return this == STOCK ? ProductSpecifications.currentStock(product, query, cb) : product.get(path());
+    }
+  }
+
+  public record Key(Field field, boolean descending) {
+  }
+
+  private final List<Key> keys;
+
+  private ProductSort(List<Key> keys) {
+    this.keys = keys;
+  }
+
+  /**
+   * @throws BadRequestException naming the first field that can't be sorted on
+   */
+  public static ProductSort parse(String spec) {
+    if (spec == null || spec.isBlank()) {
+      return BY_ID;
+    }
+    List<Key> keys = new ArrayList<>();
+    for (String raw : spec.split(",")) {
+      String name = raw.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      boolean descending = name.startsWith("-");
+      String path = (descending ? name.substring(1) : name).toLowerCase(Locale.ROOT);
+      Field field = Arrays.stream(Field.values())
+          .filter(candidate -> candidate.path().equals(path))
+          .findFirst()
+          .orElseThrow(() -> new BadRequestException("Cannot sort by: " + name + "; available: "
+              + Arrays.stream(Field.values()).map(Field::path).collect(Collectors.joining(", "))));
+      if (keys.stream().noneMatch(key -> key.field() == field)) {
+        keys.add(new Key(field, descending));
+      }
+    }
+    if (keys.stream().noneMatch(key -> key.field() == Field.ID)) {
+      keys.add(new Key(Field.ID, false));
+    }
+    return new ProductSort(List.copyOf(keys));
+  }
+
+  public List<Key> keys() {
+    return keys;
+  }
+
+  /** Canonical form; cursors carry it so one issued for another order is rejected. */
+  public String key() {
+    return keys.stream().map(key -> (key.descending() ? "-" : "") + key.field().path()).collect(Collectors.joining(","));
+  }
+
+  /** The row's sort values, in key order: what the next page resumes after. */
+  public List<String> values(ProductResponse product) {
+    return keys.stream().map(key -> String.valueOf(key.field().value.apply(product))).toList();
+  }
+
+  /** The same for a sparse row, which holds the sort fields under their names. */
+  public List<String> values(Map<String, Object> row) {
+    return keys.stream().map(key -> String.valueOf(row.get(key.field().path()))).toList();
+  }
+
+  /**
+   * @throws BadRequestException if the values don't fit the keys
+   */
+  public List<Object> parseValues(List<String> values) {
+    if (values.size() != keys.size()) {
+      throw new BadRequestException("Cursor does not match sort " + key());
+    }
+    List<Object> parsed = new ArrayList<>(values.size());
+    try {
+      for (int i = 0; i < values.size(); i++) {
+        parsed.add(keys.get(i).field().parser.apply(values.get(i)));
+      }
+    } catch (NumberFormatException exception) {
+      throw new BadRequestException("Cursor does not match sort " + key());
+    }
+    return parsed;
+  }
+}
@@ -0,0 +1,70 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.StockTailRange;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.entity.StockMovement;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Product search filters, one independent predicate each; a search is {@code Specification.allOf} the
+ * ones it uses. Price, name and category compare plain columns, so their indexes serve range scans.
+ * Stock is the current stock (snapshot plus ledger tail), a computed value: its filters also bound the
+ * snapshot by the range of tails in flight, which the stock index can range-scan, and compute the
+ * current stock only for the rows inside that bound. Sorting by stock still computes it for every
+ * row that passes the filters.
+ */
+public final class ProductSpecifications {
+
+  private ProductSpecifications() {
+  }
+
+  public static Specification<Product> priceAtLeast(int min) {
+    return (product, query, cb) -> cb.ge(product.get("price"), min);
+  }
+
+  public static Specification<Product> priceAtMost(int max) {
+    return (product, query, cb) -> cb.le(product.get("price"), max);
+  }
+
+  // A snapshot below min minus the largest tail can't reach min, whatever its own tail is
+  public static Specification<Product> stockAtLeast(int min, StockTailRange tails) {
+    int snapshotAtLeast = (int) Math.max(Integer.MIN_VALUE, min - tails.getHighest());
+    return (product, query, cb) -> cb.and(
+        cb.ge(product.get("stock"), snapshotAtLeast),
+        cb.ge(currentStock(product, query, cb), min));
+  }
+
+  public static Specification<Product> stockAtMost(int max, StockTailRange tails) {
+    int snapshotAtMost = (int) Math.min(Integer.MAX_VALUE, max - tails.getLowest());
+    return (product, query, cb) -> cb.and(
+        cb.le(product.get("stock"), snapshotAtMost),
+        cb.le(currentStock(product, query, cb), max));
+  }
+
+  // Case-sensitive, so "name like 'abc%'" stays a range scan on the name index
+  public static Specification<Product> nameStartsWith(String prefix) {
+    String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    return (product, query, cb) -> cb.like(product.get("name"), pattern, '\\');
+  }
+
+  // On the foreign key itself, no join
+  public static Specification<Product> inCategories(Collection<Long> categoryIds) {
+    return (product, query, cb) -> product.get("category").get("id").in(categoryIds);
+  }
+
+  // ProductRepository.CURRENT_STOCK as a criteria expression
+  static Expression<Integer> currentStock(Root<Product> product, AbstractQuery<?> query, CriteriaBuilder cb) {
+    Subquery<Integer> tail = query.subquery(Integer.class);
+    Root<StockMovement> movement = tail.from(StockMovement.class);
+    tail.select(cb.sum(movement.get("delta")))
+        .where(cb.equal(movement.get("productId"), product.get("id")), cb.isFalse(movement.get("compacted")));
+    return cb.toInteger(cb.sum(product.get("stock"), cb.coalesce(tail, 0)));
+  }
+}
@@ -0,0 +1,39 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.CategoryResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ReactiveCategoryRepository {
+  private static final String SELECT = "select c.id, c.name, c.version from category c ";
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveCategoryRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  // Keyset page, like ReactiveProductRepository's
+  public Flux<CategoryResponse> findAllAfter(long afterId, int limit) {
+    return databaseClient.sql(SELECT + "where c.id > :afterId order by c.id limit :limit")
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(ReactiveCategoryRepository::toResponse)
+        .all();
+  }
+
+  public Mono<CategoryResponse> findById(long id) {
+    return databaseClient.sql(SELECT + "where c.id = :id")
+        .bind("id", id)
+        .map(ReactiveCategoryRepository::toResponse)
+        .one();
+  }
+
+  private static CategoryResponse toResponse(Readable row) {
+    return new CategoryResponse(row.get("id", Long.class), row.get("name", String.class), row.get("version", Long.class));
+  }
+}
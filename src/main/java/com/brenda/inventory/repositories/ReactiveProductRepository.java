@@ -0,0 +1,67 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.dto.ProductResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the ProductRepository read queries: the same columns,
+ * stock formula and id ordering, in SQL over R2DBC. Lists are keyset pages of at most
+ * {@code limit} rows, so a stream is a series of short queries rather than one that holds
+ * a pooled connection for as long as its client takes to read.
+ */
+@Repository
+public class ReactiveProductRepository {
+  // Same as ProductRepository.CURRENT_STOCK: snapshot plus the uncompacted ledger tail
+  private static final String SELECT = "select p.id, p.name, p.description, p.price, "
+      + "cast(p.stock + coalesce((select sum(m.delta) from stock_movement m "
+      + "where m.product_id = p.id and m.compacted = false), 0) as integer) as stock, "
+      + "p.version, c.id as category_id, c.name as category_name, c.version as category_version "
+      + "from product p join category c on c.id = p.category_id ";
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveProductRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  public Flux<ProductResponse> findAllAfter(long afterId, int limit) {
+    return databaseClient.sql(SELECT + "where p.id > :afterId order by p.id limit :limit")
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(ReactiveProductRepository::toResponse)
+        .all();
+  }
+
+  public Flux<ProductResponse> findByCategoryNameAfter(String name, long afterId, int limit) {
+    return databaseClient.sql(SELECT + "where c.name = :name and p.id > :afterId order by p.id limit :limit")
+        .bind("name", name)
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(ReactiveProductRepository::toResponse)
+        .all();
+  }
+
+  public Mono<ProductResponse> findById(long id) {
+    return databaseClient.sql(SELECT + "where p.id = :id")
+        .bind("id", id)
+        .map(ReactiveProductRepository::toResponse)
+        .one();
+  }
+
+  private static ProductResponse toResponse(Readable row) {
+    return new ProductResponse(
+        row.get("id", Long.class),
+        row.get("name", String.class),
+        row.get("description", String.class),
+        row.get("price", Integer.class),
+        row.get("stock", Integer.class),
+        row.get("version", Long.class),
+        row.get("category_id", Long.class),
+        row.get("category_name", String.class),
+        row.get("category_version", Long.class));
+  }
+}
@@ -0,0 +1,19 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+  @Query("select max(m.id) from StockMovement m where m.compacted = false")
+  Optional<Long> findLastUncompactedId();
+
+  @Modifying
+  @Query("update StockMovement m set m.compacted = true where m.compacted = false and m.id <= :upToId")
+  int markCompacted(Long upToId);
+}
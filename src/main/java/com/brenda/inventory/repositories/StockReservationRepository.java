@@ -0,0 +1,22 @@
+package com.brenda.inventory.repositories;
+
+import com.brenda.inventory.entity.ReservationStatus;
+import com.brenda.inventory.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+  List<StockReservation> findByStatus(ReservationStatus status);
+
+  // Compare-and-set on the status, so exactly one of confirm, release and expiry wins for a given hold
+  @Transactional
+  @Modifying
+  @Query("update StockReservation r set r.status = :to where r.id = :id and r.status = :from")
+  int transition(Long id, ReservationStatus from, ReservationStatus to);
+}
@@ -0,0 +1,42 @@
+package com.brenda.inventory.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through lookups on a Caffeine {@link AsyncCache} with the loader run by the calling thread.
+ * A synchronous Caffeine cache runs its loader inside {@code ConcurrentHashMap.compute}, holding a
+ * monitor for the whole JDBC round trip, which pins the carrier when the caller is a virtual thread.
+ * Here only an empty future is installed under that lock; concurrent misses on the key still wait
+ * for the one load.
+ */
+final class CacheLoads {
+  private CacheLoads() {
+  }
+
+  static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+
+    if (future == created) {
+      try {
+        created.complete(loader.apply(key));
+      } catch (RuntimeException exception) {
+        // Caffeine drops failed futures, so the next caller retries the load
+        created.completeExceptionally(exception);
+      }
+    }
+
+    try {
+      return future.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CacheStatsResponse;
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-through cache of categories by id, by name and as the full id-sorted list. Categories
+ * are a small set that rarely changes, so every writer in CategoryService invalidates the
+ * affected keys and the TTL only bounds staleness from writes that bypass the service.
+ */
+@Component
+public class CategoryCache implements MonitoredCache {
+  private static final String ALL = "all";
+
+  private final CategoryRepository categoryRepository;
+  private final AsyncCache<Long, Optional<CategoryResponse>> byId;
+  private final AsyncCache<String, List<CategoryResponse>> byName;
+  private final AsyncCache<String, List<CategoryResponse>> all;
+
+  public CategoryCache(CategoryRepository categoryRepository,
+                       @Value("${inventory.cache.categories.max-size:1000}") long maxSize,
+                       @Value("${inventory.cache.categories.ttl-seconds:600}") long ttlSeconds) {
+    this.categoryRepository = categoryRepository;
+    this.byId = newCache(maxSize, ttlSeconds);
+    this.byName = newCache(maxSize, ttlSeconds);
+    this.all = newCache(1, ttlSeconds);
+  }
+
+  public Optional<CategoryResponse> getById(Long id) {
+    return CacheLoads.get(byId, id, key -> categoryRepository.findById(key).map(this::toResponse));
+  }
+
+  // Names aren't unique, so a name maps to every category carrying it (usually one, possibly none)
+  public List<CategoryResponse> getByName(String name) {
+    return CacheLoads.get(byName, name, key -> categoryRepository.findAllByNameOrderByIdAsc(key)
+        .stream()
+        .map(this::toResponse)
+        .toList());
+  }
+
+  public List<CategoryResponse> getAll() {
+    return CacheLoads.get(all, ALL, key -> categoryRepository.findAll(Sort.by("id"))
+        .stream()
+        .map(this::toResponse)
+        .toList());
+  }
+
+  public void invalidate(Long id, String... names) {
+    if (id != null) {
+      byId.synchronous().invalidate(id);
+    }
+    for (String name : names) {
+      if (name != null) {
+        byName.synchronous().invalidate(name);
+      }
+    }
+    all.synchronous().invalidateAll();
+  }
+
+  public void invalidateAll() {
+    byId.synchronous().invalidateAll();
+    byName.synchronous().invalidateAll();
+    all.synchronous().invalidateAll();
+  }
+
+  @Override
+  public String name() {
+    return "categories";
+  }
+
+  @Override
+  public CacheStatsResponse stats() {
+    return MonitoredCache.toResponse(
+        byId.synchronous().estimatedSize() + byName.synchronous().estimatedSize() + all.synchronous().estimatedSize(),
+        byId.synchronous().stats().plus(byName.synchronous().stats()).plus(all.synchronous().stats()));
+  }
+
+  private <K, V> AsyncCache<K, V> newCache(long maxSize, long ttlSeconds) {
+    return Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .buildAsync();
+  }
+
+  private CategoryResponse toResponse(Category category) {
+    return CategoryResponse.builder()
+        .id(category.getId())
+        .name(category.getName())
+        .version(category.getVersion())
+        .build();
+  }
+}
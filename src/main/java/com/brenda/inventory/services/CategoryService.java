@@ -1,54 +1,113 @@
 package com.brenda.inventory.services;
 
 import com.brenda.inventory.dto.CategoryCreateRequest;
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeOperation;
 import com.brenda.inventory.dto.CategoryResponse;
 import com.brenda.inventory.dto.CategoryUpdateRequest;
+import com.brenda.inventory.dto.PageResponse;
 import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.exceptions.PreconditionFailedException;
 import com.brenda.inventory.exceptions.ResourceNotFoundException;
 import com.brenda.inventory.repositories.CategoryRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class CategoryService {
   private final CategoryRepository categoryRepository;
+  private final CategoryCache categoryCache;
+  private final ProductCache productCache;
+  private final ProductListingCache productListingCache;
+  private final CategoryStatsService categoryStats;
+  private final ChangeFeedService changeFeed;
+  private final TransactionTemplate transactionTemplate;
 
-  public CategoryService(CategoryRepository categoryRepository) {
+  public CategoryService(CategoryRepository categoryRepository, CategoryCache categoryCache, ProductCache productCache,
+                         ProductListingCache productListingCache, CategoryStatsService categoryStats,
+                         ChangeFeedService changeFeed, PlatformTransactionManager transactionManager) {
     this.categoryRepository = categoryRepository;
+    this.categoryCache = categoryCache;
+    this.productCache = productCache;
+    this.productListingCache = productListingCache;
+    this.categoryStats = categoryStats;
+    this.changeFeed = changeFeed;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   public CategoryResponse create(CategoryCreateRequest request) {
     Category category = new Category();
     category.setName(request.getName());
 
-    Category saved = categoryRepository.save(category);
+    Category saved = transactionTemplate.execute(status -> {
+      Category created = categoryRepository.save(category);
+      categoryStats.categoryCreated(created.getId());
+      changeFeed.record(ChangeEntityType.CATEGORY, created.getId(), ChangeOperation.CREATED);
+      return created;
+    });
+    categoryCache.invalidate(saved.getId(), saved.getName());
+    productListingCache.invalidate(saved.getName());
     return toResponse(saved);
   }
 
-  public List<CategoryResponse> getAll() {
-    return categoryRepository.findAll()
-        .stream()
-        .map(this::toResponse)
-        .toList();
+  // Pages are cut from the cached id-sorted list, so listing categories doesn't touch the database
+  public PageResponse<CategoryResponse> getAll(int limit, String after) {
+    int pageSize = Cursors.checkLimit(limit);
+    long afterId = Cursors.decode(after);
+
+    List<CategoryResponse> categories = categoryCache.getAll();
+    int from = firstAfter(categories, afterId);
+    List<CategoryResponse> rows = categories.subList(from, Math.min(from + pageSize + 1, categories.size()));
+
+    return Cursors.page(rows, pageSize, CategoryResponse::getId, Function.identity());
   }
 
   public CategoryResponse getById(Long id) {
-    Category category = getOrThrow(id);
-    return toResponse(category);
+    return categoryCache.getById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
   }
 
-  public CategoryResponse update(Long id, CategoryUpdateRequest request){
+  // expectedVersion comes from the client's If-Match; null skips the check
+  public CategoryResponse update(Long id, CategoryUpdateRequest request, Long expectedVersion){
     Category category = getOrThrow(id);
+    if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+      throw new PreconditionFailedException("Category was modified with id: " + id);
+    }
+    String previousName = category.getName();
     category.setName(request.getName());
 
-    Category updated = categoryRepository.save(category);
+    Category updated = transactionTemplate.execute(status -> {
+      Category saved = categoryRepository.save(category);
+      changeFeed.record(ChangeEntityType.CATEGORY, id, ChangeOperation.UPDATED);
+      return saved;
+    });
+    categoryCache.invalidate(id, previousName, updated.getName());
+    // Cached product responses embed the category name; renames are rare enough to just drop them all
+    productCache.invalidateAll();
+    productListingCache.invalidate(previousName, updated.getName());
     return toResponse(updated);
   }
 
   public void delete(Long id) {
     Category category = getOrThrow(id);
-    categoryRepository.delete(category);
+    transactionTemplate.executeWithoutResult(status -> {
+      categoryStats.categoryDeleted(id);
+      categoryRepository.delete(category);
+      changeFeed.record(ChangeEntityType.CATEGORY, id, ChangeOperation.DELETED);
+    });
+    categoryCache.invalidate(id, category.getName());
+    productListingCache.invalidate(category.getName());
+  }
+
+  private int firstAfter(List<CategoryResponse> categories, long afterId) {
+    CategoryResponse key = CategoryResponse.builder().id(afterId).build();
+    int index = Collections.binarySearch(categories, key, Comparator.comparing(CategoryResponse::getId));
+    return index >= 0 ? index + 1 : -index - 1;
   }
 
   private Category getOrThrow(Long id) {
@@ -59,6 +118,7 @@ public class CategoryService {
     return CategoryResponse.builder()
         .id(category.getId())
         .name(category.getName())
+        .version(category.getVersion())
         .build();
   }
 }
@@ -0,0 +1,185 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategorySummaryResponse;
+import com.brenda.inventory.dto.ProductStockState;
+import com.brenda.inventory.entity.CategoryStats;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-category SKU count, units, stock value and low-stock count, kept current by the writers
+ * themselves: each one records what it changed in a {@link Changes} and calls {@link #apply} inside
+ * its own transaction, after locking the products involved. Reads are one row per category.
+ */
+@Service
+public class CategoryStatsService {
+  private final CategoryStatsRepository categoryStatsRepository;
+  private final CategoryRepository categoryRepository;
+  private final ProductRepository productRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int lowStockThreshold;
+
+  public CategoryStatsService(CategoryStatsRepository categoryStatsRepository,
+                              CategoryRepository categoryRepository,
+                              ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${inventory.stats.low-stock-threshold:5}") int lowStockThreshold) {
+    this.categoryStatsRepository = categoryStatsRepository;
+    this.categoryRepository = categoryRepository;
+    this.productRepository = productRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.lowStockThreshold = lowStockThreshold;
+  }
+
+  public List<CategorySummaryResponse> getAll() {
+    return categoryStatsRepository.findAllSummaries();
+  }
+
+  public CategorySummaryResponse getByCategory(Long categoryId) {
+    return categoryStatsRepository.findSummary(categoryId)
+        .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
+  }
+
+  public Changes changes() {
+    return new Changes(lowStockThreshold);
+  }
+
+  /**
+   * Adds the differences to the totals. Must run in the caller's transaction, after the products
+   * behind them were locked, so totals commit or roll back together with the products.
+   */
+  public void apply(Changes changes) {
+    // Categories in id order, like the product locks, so two writers never wait on each other in a cycle
+    changes.byCategory.forEach((categoryId, delta) -> {
+      if (!delta.isZero()
+          && categoryStatsRepository.increment(categoryId, delta.skus, delta.units, delta.value, delta.lowStock) == 0) {
+        // No totals yet (category created outside CategoryService): count it from its products, this write included
+        Changes totals = changes();
+        productRepository.findStockStatesByCategoryId(categoryId)
+            .forEach(product -> totals.add(categoryId, product.getPrice(), product.getStock()));
+        categoryStatsRepository.save(fill(new CategoryStats(), categoryId, totals.delta(categoryId)));
+      }
+    });
+  }
+
+  // Called in the transaction that creates the category, so increments always find a row
+  public void categoryCreated(Long categoryId) {
+    CategoryStats stats = new CategoryStats();
+    stats.setCategoryId(categoryId);
+    categoryStatsRepository.save(stats);
+  }
+
+  public void categoryDeleted(Long categoryId) {
+    categoryStatsRepository.deleteById(categoryId);
+  }
+
+  /**
+   * Recomputes every category from the products, for repair (or after changing the low-stock threshold).
+   * Writers arriving meanwhile block on the locked totals and add their change on top of the rebuilt ones;
+   * whatever committed before is already in the products the rebuild reads.
+   */
+  public List<CategorySummaryResponse> rebuild() {
+    transactionTemplate.executeWithoutResult(status -> {
+      Map<Long, CategoryStats> existing = new HashMap<>();
+      categoryStatsRepository.lockAll().forEach(stats -> existing.put(stats.getCategoryId(), stats));
+
+      Changes totals = changes();
+      categoryRepository.findAll().forEach(category -> totals.delta(category.getId()));
+      try (Stream<ProductStockState> products = productRepository.streamStockStates()) {
+        products.forEach(product -> totals.add(product.getCategoryId(), product.getPrice(), product.getStock()));
+      }
+
+      // Locked rows are overwritten in place (written on commit), the rest inserted; rows of deleted categories go
+      totals.byCategory.forEach((categoryId, delta) -> {
+        CategoryStats stats = existing.remove(categoryId);
+        if (stats == null) {
+          categoryStatsRepository.save(fill(new CategoryStats(), categoryId, delta));
+        } else {
+          fill(stats, categoryId, delta);
+        }
+      });
+      categoryStatsRepository.deleteAll(existing.values());
+    });
+    return getAll();
+  }
+
+  // A database created before the aggregates existed starts with an empty table
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildIfMissing() {
+    if (categoryStatsRepository.count() < categoryRepository.count()) {
+      rebuild();
+    }
+  }
+
+  private CategoryStats fill(CategoryStats stats, Long categoryId, Delta totals) {
+    stats.setCategoryId(categoryId);
+    stats.setSkuCount(totals.skus);
+    stats.setUnitsInStock(totals.units);
+    stats.setStockValue(totals.value);
+    stats.setLowStockCount(totals.lowStock);
+    return stats;
+  }
+
+  /**
+   * What a write changes in the category totals: remove a product's old contribution, add its new one.
+   */
+  public static final class Changes {
+    private final int lowStockThreshold;
+    private final Map<Long, Delta> byCategory = new TreeMap<>();
+
+    private Changes(int lowStockThreshold) {
+      this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Changes add(Long categoryId, Integer price, Integer stock) {
+      return contribute(categoryId, price, stock, 1);
+    }
+
+    public Changes remove(Long categoryId, Integer price, Integer stock) {
+      return contribute(categoryId, price, stock, -1);
+    }
+
+    private Changes contribute(Long categoryId, Integer price, Integer stock, int sign) {
+      long units = stock == null ? 0 : stock;
+      long value = price == null ? 0 : price * units;
+      delta(categoryId).add(sign, sign * units, sign * value, units <= lowStockThreshold ? sign : 0);
+      return this;
+    }
+
+    private Delta delta(Long categoryId) {
+      return byCategory.computeIfAbsent(categoryId, id -> new Delta());
+    }
+  }
+
+  private static final class Delta {
+    private long skus;
+    private long units;
+    private long value;
+    private long lowStock;
+
+    void add(long skus, long units, long value, long lowStock) {
+      this.skus += skus;
+      this.units += units;
+      this.value += value;
+      this.lowStock += lowStock;
+    }
+
+    boolean isZero() {
+      return skus == 0 && units == 0 && value == 0 && lowStock == 0;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeFeedResponse;
+import com.brenda.inventory.dto.ChangeOperation;
+import com.brenda.inventory.dto.ChangeResponse;
+import com.brenda.inventory.entity.ChangeLogEntry;
+import com.brenda.inventory.entity.ChangeLogHead;
+import com.brenda.inventory.exceptions.GoneException;
+import com.brenda.inventory.repositories.ChangeLogHeadRepository;
+import com.brenda.inventory.repositories.ChangeLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordered log of catalog writes for clients that keep a copy of the catalog. Writers call
+ * {@link #record} as the last step of their transaction; readers page through it with a cursor,
+ * so catching up costs the number of changes since the last sync, not the size of the catalog.
+ * Entries older than the retention are pruned; a cursor from before that gets 410 and must resync.
+ */
+@Service
+public class ChangeFeedService {
+  private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+  private static final long HEAD_ID = 1L;
+
+  private final ChangeLogRepository changeLogRepository;
+  private final ChangeLogHeadRepository changeLogHeadRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration retention;
+  private final long pruneIntervalSeconds;
+  private final ScheduledExecutorService pruner;
+
+  public ChangeFeedService(ChangeLogRepository changeLogRepository,
+                           ChangeLogHeadRepository changeLogHeadRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${inventory.changes.retention-hours:168}") long retentionHours,
+                           @Value("${inventory.changes.prune-interval-seconds:3600}") long pruneIntervalSeconds) {
+    this.changeLogRepository = changeLogRepository;
+    this.changeLogHeadRepository = changeLogHeadRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.retention = Duration.ofHours(retentionHours);
+    this.pruneIntervalSeconds = pruneIntervalSeconds;
+    this.pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "change-log-pruner");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PostConstruct
+  void start() {
+    transactionTemplate.executeWithoutResult(status -> {
+      if (!changeLogHeadRepository.existsById(HEAD_ID)) {
+        ChangeLogHead head = new ChangeLogHead();
+        head.setId(HEAD_ID);
+        changeLogHeadRepository.save(head);
+      }
+    });
+    pruner.scheduleWithFixedDelay(() -> {
+      try {
+        prune();
+      } catch (RuntimeException exception) {
+        log.warn("Change log pruning failed", exception);
+      }
+    }, pruneIntervalSeconds, pruneIntervalSeconds, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    pruner.shutdownNow();
+  }
+
+  public static Change change(ChangeEntityType entityType, Long entityId, ChangeOperation operation) {
+    return new Change(entityType, entityId, operation);
+  }
+
+  public void record(ChangeEntityType entityType, Long entityId, ChangeOperation operation) {
+    record(List.of(change(entityType, entityId, operation)));
+  }
+
+  /**
+   * Appends the changes of the caller's transaction. Call it last: the head row stays locked until
+   * the commit, so every catalog writer queues here for just the end of its transaction.
+   */
+  public void record(Collection<Change> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    ChangeLogHead head = lockHead();
+    long position = head.getLastPosition();
+    Instant now = Instant.now();
+
+    List<ChangeLogEntry> entries = new ArrayList<>(changes.size());
+    for (Change change : changes) {
+      ChangeLogEntry entry = new ChangeLogEntry();
+      entry.setPosition(++position);
+      entry.setEntityType(change.entityType());
+      entry.setEntityId(change.entityId());
+      entry.setOperation(change.operation());
+      entry.setChangedAt(now);
+      entries.add(entry);
+    }
+    head.setLastPosition(position);
+    changeLogRepository.saveAll(entries);
+  }
+
+  /** Changes after {@code since}, oldest first; no cursor starts at the oldest change still kept. */
+  public ChangeFeedResponse getChanges(String since, int limit) {
+    int pageSize = Cursors.checkLimit(limit);
+    long after = Cursors.decode(since);
+
+    List<ChangeLogEntry> rows = changeLogRepository.findByPositionGreaterThanOrderByPosition(after, Limit.of(pageSize + 1));
+    // Read after the entries: pruning moves the watermark before deleting, so a gap in them shows up here
+    ChangeLogHead head = changeLogHeadRepository.findById(HEAD_ID).orElseThrow();
+    if (since != null && after < head.getPrunedThrough()) {
+      throw new GoneException("Changes after " + since + " are no longer kept; download the catalog again");
+    }
+    boolean hasMore = rows.size() > pageSize;
+    List<ChangeLogEntry> page = hasMore ? rows.subList(0, pageSize) : rows;
+    long last = page.isEmpty() ? Math.max(after, head.getPrunedThrough()) : page.get(page.size() - 1).getPosition();
+
+    return ChangeFeedResponse.builder()
+        .items(page.stream().map(this::toResponse).toList())
+        .nextCursor(Cursors.encode(last))
+        .hasMore(hasMore)
+        .build();
+  }
+
+  /** Cursor of the latest change; take it before a full download, then follow the feed from it. */
+  public String currentCursor() {
+    return Cursors.encode(changeLogHeadRepository.findById(HEAD_ID).orElseThrow().getLastPosition());
+  }
+
+  /**
+   * Drops entries older than the retention. The watermark moves first, in its own transaction,
+   * so a reader can't skip entries deleted under it without getting 410.
+   */
+  public int prune() {
+    return prune(Instant.now().minus(retention));
+  }
+
+  int prune(Instant cutoff) {
+    Long through = transactionTemplate.execute(status -> changeLogRepository.findLastPositionBefore(cutoff)
+        .filter(position -> position > 0)
+        .map(position -> {
+          ChangeLogHead head = lockHead();
+          head.setPrunedThrough(Math.max(head.getPrunedThrough(), position));
+          return position;
+        })
+        .orElse(null));
+    if (through == null) {
+      return 0;
+    }
+
+    Integer deleted = transactionTemplate.execute(status -> changeLogRepository.deleteThrough(through));
+    log.debug("Pruned {} change log entries through position {}", deleted, through);
+    return deleted == null ? 0 : deleted;
+  }
+
+  private ChangeLogHead lockHead() {
+    return changeLogHeadRepository.lockById(HEAD_ID).orElseThrow();
+  }
+
+  private ChangeResponse toResponse(ChangeLogEntry entry) {
+    return ChangeResponse.builder()
+        .entityType(entry.getEntityType())
+        .entityId(entry.getEntityId())
+        .operation(entry.getOperation())
+        .changedAt(entry.getChangedAt())
+        .build();
+  }
+
+  public record Change(ChangeEntityType entityType, Long entityId, ChangeOperation operation) {
+  }
+}
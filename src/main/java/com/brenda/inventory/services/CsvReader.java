@@ -0,0 +1,92 @@
+package com.brenda.inventory.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: one record per call, quoted fields may contain separators,
+ * doubled quotes and line breaks. Reads the underlying stream incrementally.
+ */
+class CsvReader {
+  private final BufferedReader reader;
+  private final int maxRecordChars;
+  private long line;
+  private long recordLine;
+
+  CsvReader(BufferedReader reader, int maxRecordChars) {
+    this.reader = reader;
+    this.maxRecordChars = maxRecordChars;
+  }
+
+  /**
+   * Returns the next record, or null at end of input. A record spanning more than
+   * maxRecordChars characters (usually an unterminated quote swallowing the rest of the
+   * file) fails with an IOException, since there is no reliable point to resume from.
+   */
+  List<String> next() throws IOException {
+    String current = reader.readLine();
+    if (current == null) {
+      return null;
+    }
+    line++;
+    recordLine = line;
+
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    int i = 0;
+    long recordChars = current.length();
+
+    while (true) {
+      if (i == current.length()) {
+        if (!quoted) {
+          break;
+        }
+        // Line break inside a quoted field: keep it and continue with the next physical line
+        String continuation = reader.readLine();
+        if (continuation == null) {
+          break;
+        }
+        recordChars += continuation.length() + 1;
+        if (recordChars > maxRecordChars) {
+          throw new IOException("Record starting at line " + recordLine + " exceeds "
+              + maxRecordChars + " characters (unterminated quote?)");
+        }
+        line++;
+        field.append('\n');
+        current = continuation;
+        i = 0;
+        continue;
+      }
+
+      char c = current.charAt(i++);
+      if (quoted) {
+        if (c == '"' && i < current.length() && current.charAt(i) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+
+    fields.add(field.toString());
+    return fields;
+  }
+
+  // Line where the record returned by the last next() started
+  long recordLine() {
+    return recordLine;
+  }
+}
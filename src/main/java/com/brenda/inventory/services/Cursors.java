@@ -0,0 +1,104 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.PageResponse;
+import com.brenda.inventory.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes the last seen id of a keyset page into an opaque cursor so clients
+ * don't depend on how pages are sliced. Sorted searches resume after a row's
+ * sort values instead, carried by a key cursor along with the order they belong to.
+ */
+public final class Cursors {
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 500;
+
+  private static final String PREFIX = "id:";
+  private static final String KEY_PREFIX = "key:";
+
+  private Cursors() {
+  }
+
+  public static String encode(Long lastId) {
+    return base64(PREFIX + lastId);
+  }
+
+  public static long decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0L;
+    }
+
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(PREFIX)) {
+        throw new BadRequestException("Invalid cursor: " + cursor);
+      }
+      return Long.parseLong(raw.substring(PREFIX.length()));
+    } catch (IllegalArgumentException exception) {
+      throw new BadRequestException("Invalid cursor: " + cursor);
+    }
+  }
+
+  // Each part is encoded on its own so values may contain the separator
+  public static String encodeKey(String sort, List<String> values) {
+    StringBuilder raw = new StringBuilder(KEY_PREFIX).append(base64(sort));
+    values.forEach(value -> raw.append('.').append(base64(value)));
+    return base64(raw.toString());
+  }
+
+  /** The values of a key cursor issued for {@code sort}. */
+  public static List<String> decodeKey(String cursor, String sort) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(KEY_PREFIX)) {
+        throw new BadRequestException("Invalid cursor: " + cursor);
+      }
+      List<String> parts = Arrays.stream(raw.substring(KEY_PREFIX.length()).split("\\.", -1))
+          .map(part -> new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8))
+          .toList();
+      if (!parts.get(0).equals(sort)) {
+        throw new BadRequestException("Cursor was issued for sort " + parts.get(0) + ", not " + sort);
+      }
+      return parts.subList(1, parts.size());
+    } catch (IllegalArgumentException exception) {
+      throw new BadRequestException("Invalid cursor: " + cursor);
+    }
+  }
+
+  public static int checkLimit(int limit) {
+    if (limit < 1) {
+      throw new BadRequestException("Limit must be >= 1");
+    }
+    return Math.min(limit, MAX_LIMIT);
+  }
+
+  /**
+   * Builds a page from rows fetched with {@code limit + 1}: the extra row only
+   * tells us whether there is a next page and is never returned.
+   */
+  public static <E, T> PageResponse<T> page(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+    return pageWithCursor(rows, limit, row -> encode(idOf.apply(row)), mapper);
+  }
+
+  /** {@link #page} with the cursor built from the last row by {@code cursorOf}. */
+  public static <E, T> PageResponse<T> pageWithCursor(List<E> rows, int limit, Function<E, String> cursorOf, Function<E, T> mapper) {
+    boolean hasMore = rows.size() > limit;
+    List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+    String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+
+    return PageResponse.<T>builder()
+        .items(pageRows.stream().map(mapper).toList())
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  private static String base64(String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,144 @@
+package com.brenda.inventory.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: deadlines are hashed into {@code wheelSize} buckets of {@code tickMs}
+ * each, and one worker thread only visits the bucket of the current tick. Scheduling and
+ * cancelling are O(1) and the cost of a tick depends on that bucket alone, not on how many
+ * timeouts are pending in total. Expiry fires at most one tick late.
+ */
+class HashedTimingWheel<T> implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+  private final long tickMs;
+  private final Queue<Timeout<T>>[] buckets;
+  private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+  private final Consumer<T> onExpire;
+  private final long startMs;
+  private final Thread worker;
+
+  private volatile boolean running = true;
+  private long tick;
+
+  @SuppressWarnings("unchecked")
+  HashedTimingWheel(long tickMs, int wheelSize, Consumer<T> onExpire, String threadName) {
+    this.tickMs = tickMs;
+    this.buckets = new Queue[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      buckets[i] = new ArrayDeque<>();
+    }
+    this.onExpire = onExpire;
+    this.startMs = System.currentTimeMillis();
+    this.worker = new Thread(this::run, threadName);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Schedules {@code item} to expire at {@code deadline}. Deadlines already in the past fire on the next tick.
+   */
+  Timeout<T> schedule(T item, Instant deadline) {
+    return schedule(item, deadline, timeout -> {
+    });
+  }
+
+  /**
+   * Like {@link #schedule(Object, Instant)}, but hands the timeout to {@code register} before the worker can
+   * see it, so callers can record it somewhere the expiry handler will look it up.
+   */
+  Timeout<T> schedule(T item, Instant deadline, Consumer<Timeout<T>> register) {
+    Timeout<T> timeout = new Timeout<>(item, deadline.toEpochMilli());
+    register.accept(timeout);
+    // Buckets belong to the worker thread; new timeouts are handed over through a lock-free queue
+    pending.add(timeout);
+    return timeout;
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    worker.interrupt();
+  }
+
+  private void run() {
+    while (running) {
+      long tickDeadline = startMs + (tick + 1) * tickMs;
+      long sleep = tickDeadline - System.currentTimeMillis();
+
+      if (sleep > 0) {
+        try {
+          TimeUnit.MILLISECONDS.sleep(sleep);
+        } catch (InterruptedException exception) {
+          return;
+        }
+      }
+
+      transferPending();
+      expire(buckets[(int) (tick % buckets.length)], tickDeadline);
+      tick++;
+    }
+  }
+
+  private void transferPending() {
+    Timeout<T> timeout;
+    while ((timeout = pending.poll()) != null) {
+      if (timeout.cancelled) {
+        continue;
+      }
+
+      // Never place a timeout behind the current tick, or it would wait for a whole extra revolution
+      long ticks = Math.max(tick, (timeout.deadlineMs - startMs) / tickMs);
+      timeout.rounds = (ticks - tick) / buckets.length;
+      buckets[(int) (ticks % buckets.length)].add(timeout);
+    }
+  }
+
+  private void expire(Queue<Timeout<T>> bucket, long now) {
+    int size = bucket.size();
+
+    for (int i = 0; i < size; i++) {
+      Timeout<T> timeout = bucket.poll();
+
+      if (timeout.cancelled) {
+        continue;
+      }
+
+      if (timeout.rounds > 0 || timeout.deadlineMs > now) {
+        timeout.rounds--;
+        bucket.add(timeout);
+        continue;
+      }
+
+      try {
+        onExpire.accept(timeout.item);
+      } catch (RuntimeException exception) {
+        log.error("Timeout handler failed for {}", timeout.item, exception);
+      }
+    }
+  }
+
+  static final class Timeout<T> {
+    private final T item;
+    private final long deadlineMs;
+    private long rounds;
+    private volatile boolean cancelled;
+
+    private Timeout(T item, long deadlineMs) {
+      this.item = item;
+      this.deadlineMs = deadlineMs;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process cache whose statistics are published on {@code GET /admin/caches}.
+ */
+public interface MonitoredCache {
+  String name();
+
+  CacheStatsResponse stats();
+
+  static CacheStatsResponse toResponse(long size, CacheStats stats) {
+    return CacheStatsResponse.builder()
+        .size(size)
+        .hits(stats.hitCount())
+        .misses(stats.missCount())
+        .hitRate(stats.hitRate())
+        .evictions(stats.evictionCount())
+        .averageLoadMillis(stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1))
+        .build();
+  }
+}
@@ -0,0 +1,159 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.BatchItemError;
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeOperation;
+import com.brenda.inventory.dto.ProductBatchResponse;
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.exceptions.BadRequestException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product ingestion. Every item is validated on its own so one bad row doesn't
+ * reject the whole upload, categories are resolved once per distinct id, and valid
+ * items are inserted in fixed-size chunks, each in its own transaction, so Hibernate
+ * can send them as JDBC batches and the persistence context never grows past one chunk.
+ */
+@Service
+public class ProductBatchService {
+  private final ProductRepository productRepository;
+  private final CategoryRepository categoryRepository;
+  private final Validator validator;
+  private final ProductCache productCache;
+  private final ProductListingCache productListingCache;
+  private final ProductSearchIndex searchIndex;
+  private final CategoryStatsService categoryStats;
+  private final ChangeFeedService changeFeed;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+
+  public ProductBatchService(ProductRepository productRepository,
+                             CategoryRepository categoryRepository,
+                             Validator validator,
+                             ProductCache productCache,
+                             ProductListingCache productListingCache,
+                             ProductSearchIndex searchIndex,
+                             CategoryStatsService categoryStats,
+                             ChangeFeedService changeFeed,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${inventory.batch.chunk-size:500}") int chunkSize) {
+    this.productRepository = productRepository;
+    this.categoryRepository = categoryRepository;
+    this.validator = validator;
+    this.productCache = productCache;
+    this.productListingCache = productListingCache;
+    this.searchIndex = searchIndex;
+    this.categoryStats = categoryStats;
+    this.changeFeed = changeFeed;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+  }
+
+  public ProductBatchResponse createAll(List<ProductCreateRequest> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new BadRequestException("Batch must contain at least one product");
+    }
+
+    Map<Long, Category> categories = resolveCategories(requests);
+
+    List<BatchItemError> errors = new ArrayList<>();
+    List<Product> valid = new ArrayList<>();
+
+    for (int i = 0; i < requests.size(); i++) {
+      ProductCreateRequest request = requests.get(i);
+      Map<String, String> itemErrors = validate(request, categories);
+
+      if (itemErrors.isEmpty()) {
+        valid.add(toEntity(request, categories.get(request.getCategoryId())));
+      } else {
+        errors.add(BatchItemError.builder().index(i).errors(itemErrors).build());
+      }
+    }
+
+    List<Long> createdIds = new ArrayList<>(valid.size());
+    for (int from = 0; from < valid.size(); from += chunkSize) {
+      List<Product> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+      transactionTemplate.executeWithoutResult(status -> {
+        productRepository.saveAll(chunk);
+        CategoryStatsService.Changes changes = categoryStats.changes();
+        chunk.forEach(product -> changes.add(product.getCategory().getId(), product.getPrice(), product.getStock()));
+        categoryStats.apply(changes);
+        changeFeed.record(chunk.stream()
+            .map(product -> ChangeFeedService.change(ChangeEntityType.PRODUCT, product.getId(), ChangeOperation.CREATED))
+            .toList());
+      });
+      chunk.forEach(product -> {
+        createdIds.add(product.getId());
+        productCache.invalidate(product.getId());
+        searchIndex.index(product.getId(), product.getVersion(), product.getName(), product.getDescription());
+      });
+      chunk.stream().map(product -> product.getCategory().getId()).distinct().forEach(productListingCache::invalidateCategory);
+    }
+
+    return ProductBatchResponse.builder()
+        .received(requests.size())
+        .created(createdIds.size())
+        .createdIds(createdIds)
+        .errors(errors)
+        .build();
+  }
+
+  private Map<Long, Category> resolveCategories(List<ProductCreateRequest> requests) {
+    List<Long> ids = requests.stream()
+        .filter(Objects::nonNull)
+        .map(ProductCreateRequest::getCategoryId)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+
+    return categoryRepository.findAllById(ids)
+        .stream()
+        .collect(Collectors.toMap(Category::getId, Function.identity()));
+  }
+
+  private Map<String, String> validate(ProductCreateRequest request, Map<Long, Category> categories) {
+    Map<String, String> errors = new HashMap<>();
+
+    if (request == null) {
+      errors.put("item", "Product is required");
+      return errors;
+    }
+
+    for (ConstraintViolation<ProductCreateRequest> violation : validator.validate(request)) {
+      errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+    }
+
+    if (request.getCategoryId() != null && !categories.containsKey(request.getCategoryId())) {
+      errors.put("categoryId", "Category not found with id: " + request.getCategoryId());
+    }
+
+    return errors;
+  }
+
+  private Product toEntity(ProductCreateRequest request, Category category) {
+    Product product = new Product();
+    product.setName(request.getName());
+    product.setDescription(request.getDescription());
+    product.setPrice(request.getPrice());
+    product.setStock(request.getStock());
+    product.setCategory(category);
+    return product;
+  }
+}
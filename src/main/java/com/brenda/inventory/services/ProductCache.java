@@ -0,0 +1,66 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CacheStatsResponse;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-through cache of {@code GET /products/{id}} responses. Caffeine evicts with W-TinyLFU,
+ * so a burst of one-off ids can't push out the SKUs that are read all the time, and concurrent
+ * misses on the same id wait for a single load instead of each hitting the database.
+ * Missing ids are cached too, which is why creates invalidate the new id.
+ */
+@Component
+public class ProductCache implements MonitoredCache {
+  private final ProductRepository productRepository;
+  private final AsyncCache<Long, Optional<ProductResponse>> byId;
+
+  public ProductCache(ProductRepository productRepository,
+                      @Value("${inventory.cache.products.max-size:10000}") long maxSize,
+                      @Value("${inventory.cache.products.ttl-seconds:60}") long ttlSeconds) {
+    this.productRepository = productRepository;
+    this.byId = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .buildAsync();
+  }
+
+  public Optional<ProductResponse> getById(Long id) {
+    return CacheLoads.get(byId, id, productRepository::findResponseById);
+  }
+
+  // Only an entry that has finished loading; never starts or waits on a load
+  public Optional<ProductResponse> getIfLoaded(Long id) {
+    CompletableFuture<Optional<ProductResponse>> entry = byId.getIfPresent(id);
+    return entry != null && entry.isDone() && !entry.isCompletedExceptionally() ? entry.join() : Optional.empty();
+  }
+
+  // An invalidation that lands while a load for the same id is running drops the pending entry; that load's
+  // result still goes to the callers already waiting on it but is never served from the cache
+  public void invalidate(Long id) {
+    byId.synchronous().invalidate(id);
+  }
+
+  public void invalidateAll() {
+    byId.synchronous().invalidateAll();
+  }
+
+  @Override
+  public String name() {
+    return "products";
+  }
+
+  @Override
+  public CacheStatsResponse stats() {
+    return MonitoredCache.toResponse(byId.synchronous().estimatedSize(), byId.synchronous().stats());
+  }
+}
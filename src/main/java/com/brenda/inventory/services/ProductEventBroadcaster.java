@@ -0,0 +1,344 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductEvent;
+import com.brenda.inventory.dto.ProductEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed product changes to server-sent event subscribers. Writers only append to each
+ * matching subscriber's bounded buffer; a pooled thread drains a buffer into its connection while it
+ * has events, so an idle stream costs a buffer, not a thread, and a slow client never holds up a write.
+ * Draining is a blocking servlet write, so each drain has a thread of its own, and a stream whose
+ * drain is stuck past {@code inventory.events.send-timeout-ms} is closed: a client that stopped
+ * reading holds one thread until its socket write times out, never the streams of the others.
+ *
+ * <p>When a buffer is full the overflow policy applies: {@code drop-oldest} discards the oldest event
+ * and later sends a {@code dropped} event with the count, so the client knows to re-read what it shows;
+ * {@code disconnect} closes the stream and leaves the client to reconnect.
+ */
+@Component
+public class ProductEventBroadcaster {
+  private static final Envelope HEARTBEAT = new Envelope(0, null);
+
+  public enum OverflowPolicy {
+    DROP_OLDEST,
+    DISCONNECT
+  }
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final AtomicLong sequence = new AtomicLong();
+  private final ExecutorService dispatcher;
+  private final ScheduledExecutorService scheduler;
+  private final int bufferSize;
+  private final OverflowPolicy overflowPolicy;
+  private final long timeoutMillis;
+  private final long sendTimeoutNanos;
+  private final int lowStockThreshold;
+  private final Counter droppedEvents;
+  private final Counter disconnectedSubscribers;
+
+  public ProductEventBroadcaster(ObjectProvider<MeterRegistry> meterRegistries,
+                                 @Value("${inventory.events.buffer-size:256}") int bufferSize,
+                                 @Value("${inventory.events.overflow-policy:drop-oldest}") String overflowPolicy,
+                                 @Value("${inventory.events.send-timeout-ms:10000}") long sendTimeoutMillis,
+                                 @Value("${inventory.events.heartbeat-seconds:15}") long heartbeatSeconds,
+                                 @Value("${inventory.events.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${inventory.stats.low-stock-threshold:5}") int lowStockThreshold) {
+    this.bufferSize = bufferSize;
+    this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.replace('-', '_').toUpperCase(Locale.ROOT));
+    this.timeoutMillis = timeoutMillis;
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    this.lowStockThreshold = lowStockThreshold;
+
+    AtomicInteger threads = new AtomicInteger();
+    // Unbounded but reused: only streams with events in flight hold a thread
+    dispatcher = Executors.newCachedThreadPool(runnable -> daemon(runnable, "product-events-" + threads.incrementAndGet()));
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "product-events-scheduler"));
+    // Comments on idle streams, so proxies keep them open and dead clients are noticed on the failed write
+    scheduler.scheduleAtFixedRate(() -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)),
+        heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    long checkMillis = Math.max(10, sendTimeoutMillis / 4);
+    scheduler.scheduleAtFixedRate(this::closeStuckSubscribers, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+
+    MeterRegistry meterRegistry = meterRegistries.getIfAvailable(() -> Metrics.globalRegistry);
+    Gauge.builder("inventory.events.subscribers", subscribers, Set::size)
+        .description("Open product event streams")
+        .register(meterRegistry);
+    droppedEvents = Counter.builder("inventory.events.dropped")
+        .description("Product events discarded because a subscriber's buffer was full")
+        .register(meterRegistry);
+    disconnectedSubscribers = Counter.builder("inventory.events.disconnected")
+        .description("Product event streams closed for falling behind")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Opens a stream of the events of the given categories or products (either matches); both empty means all.
+   */
+  public SseEmitter subscribe(Collection<Long> categoryIds, Collection<Long> productIds) {
+    return subscribe(new SseEmitter(timeoutMillis), categoryIds, productIds);
+  }
+
+  // Package-private for ProductEventBroadcasterTest, which stands in for the connection
+  SseEmitter subscribe(SseEmitter emitter, Collection<Long> categoryIds, Collection<Long> productIds) {
+    Subscriber subscriber = new Subscriber(emitter, Set.copyOf(categoryIds), Set.copyOf(productIds));
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    // EventSource clients reconnect on their own when the stream ends
+    emitter.onTimeout(emitter::complete);
+    subscribers.add(subscriber);
+    try {
+      // Held by the emitter until the response is ready; tells the client it is subscribed
+      emitter.send(SseEmitter.event().comment("subscribed"));
+    } catch (IOException exception) {
+      emitter.completeWithError(exception);
+    }
+    return emitter;
+  }
+
+  public void stockChanged(Long productId, Long categoryId, int previousStock, int stock) {
+    if (previousStock == stock) {
+      return;
+    }
+    Instant now = Instant.now();
+    List<ProductEvent> events = new ArrayList<>(2);
+    events.add(stockEvent(ProductEventType.STOCK_CHANGED, productId, categoryId, previousStock, stock, now));
+    boolean wasLow = previousStock <= lowStockThreshold;
+    boolean isLow = stock <= lowStockThreshold;
+    if (isLow != wasLow) {
+      ProductEventType crossing = isLow ? ProductEventType.LOW_STOCK : ProductEventType.LOW_STOCK_CLEARED;
+      events.add(stockEvent(crossing, productId, categoryId, previousStock, stock, now));
+    }
+    publish(events);
+  }
+
+  public void priceChanged(Long productId, Long categoryId, Integer previousPrice, Integer price) {
+    if (previousPrice != null && previousPrice.equals(price)) {
+      return;
+    }
+    publish(List.of(ProductEvent.builder()
+        .type(ProductEventType.PRICE_CHANGED)
+        .productId(productId)
+        .categoryId(categoryId)
+        .previousPrice(previousPrice)
+        .price(price)
+        .occurredAt(Instant.now())
+        .build()));
+  }
+
+  public void moved(Long productId, Long previousCategoryId, Long categoryId) {
+    if (previousCategoryId.equals(categoryId)) {
+      return;
+    }
+    publish(List.of(ProductEvent.builder()
+        .type(ProductEventType.MOVED)
+        .productId(productId)
+        .categoryId(categoryId)
+        .previousCategoryId(previousCategoryId)
+        .occurredAt(Instant.now())
+        .build()));
+  }
+
+  public void deleted(Long productId, Long categoryId) {
+    publish(List.of(ProductEvent.builder()
+        .type(ProductEventType.DELETED)
+        .productId(productId)
+        .categoryId(categoryId)
+        .occurredAt(Instant.now())
+        .build()));
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+    dispatcher.shutdownNow();
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  private void publish(List<ProductEvent> events) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    for (ProductEvent event : events) {
+      Envelope envelope = new Envelope(sequence.incrementAndGet(), event);
+      for (Subscriber subscriber : subscribers) {
+        if (subscriber.accepts(event)) {
+          subscriber.offer(envelope);
+        }
+      }
+    }
+  }
+
+  private void closeStuckSubscribers() {
+    long now = System.nanoTime();
+    for (Subscriber subscriber : subscribers) {
+      long since = subscriber.sendingSince;
+      if (since != 0 && now - since > sendTimeoutNanos) {
+        subscriber.disconnect();
+      }
+    }
+  }
+
+  private static ProductEvent stockEvent(ProductEventType type, Long productId, Long categoryId,
+                                         int previousStock, int stock, Instant now) {
+    return ProductEvent.builder()
+        .type(type)
+        .productId(productId)
+        .categoryId(categoryId)
+        .previousStock(previousStock)
+        .stock(stock)
+        .occurredAt(now)
+        .build();
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  // id is the SSE event id, increasing across all streams; a null event is a heartbeat
+  private record Envelope(long id, ProductEvent event) {
+  }
+
+  /**
+   * One open stream. At most one dispatcher thread drains it at a time ({@code scheduled}),
+   * so events reach the client in the order they were published.
+   */
+  private final class Subscriber implements Runnable {
+    private final SseEmitter emitter;
+    private final Set<Long> categoryIds;
+    private final Set<Long> productIds;
+
+    // System.nanoTime() when the current drain started writing, 0 when not writing
+    private volatile long sendingSince;
+
+    // Guarded by this
+    private final ArrayDeque<Envelope> buffer = new ArrayDeque<>();
+    private long dropped;
+    private boolean scheduled;
+    private boolean closed;
+
+    private Subscriber(SseEmitter emitter, Set<Long> categoryIds, Set<Long> productIds) {
+      this.emitter = emitter;
+      this.categoryIds = categoryIds;
+      this.productIds = productIds;
+    }
+
+    boolean accepts(ProductEvent event) {
+      if (categoryIds.isEmpty() && productIds.isEmpty()) {
+        return true;
+      }
+      return categoryIds.contains(event.getCategoryId())
+          || event.getPreviousCategoryId() != null && categoryIds.contains(event.getPreviousCategoryId())
+          || productIds.contains(event.getProductId());
+    }
+
+    void offer(Envelope envelope) {
+      synchronized (this) {
+        if (closed || (envelope == HEARTBEAT && !buffer.isEmpty())) {
+          return;
+        }
+        if (buffer.size() >= bufferSize) {
+          if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+            disconnect();
+            return;
+          }
+          buffer.pollFirst();
+          dropped++;
+          droppedEvents.increment();
+        }
+        buffer.addLast(envelope);
+        if (scheduled) {
+          return;
+        }
+        scheduled = true;
+      }
+      dispatcher.execute(this);
+    }
+
+    // For falling behind. Completing waits for a write in progress, so it happens on a thread of its own
+    void disconnect() {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        buffer.clear();
+      }
+      subscribers.remove(this);
+      disconnectedSubscribers.increment();
+      dispatcher.execute(emitter::complete);
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        List<Envelope> batch;
+        long droppedBefore;
+        synchronized (this) {
+          if (closed || buffer.isEmpty()) {
+            scheduled = false;
+            return;
+          }
+          batch = new ArrayList<>(buffer);
+          buffer.clear();
+          droppedBefore = dropped;
+          dropped = 0;
+        }
+
+        sendingSince = System.nanoTime();
+        try {
+          if (droppedBefore > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(Map.of("dropped", droppedBefore), MediaType.APPLICATION_JSON));
+          }
+          for (Envelope envelope : batch) {
+            emitter.send(envelope == HEARTBEAT
+                ? SseEmitter.event().comment("keep-alive")
+                : SseEmitter.event()
+                    .id(String.valueOf(envelope.id()))
+                    .name(envelope.event().getType().name())
+                    .data(envelope.event(), MediaType.APPLICATION_JSON));
+          }
+        } catch (IOException | IllegalStateException exception) {
+          // Client gone (or the emitter already completed): stop buffering for it
+          synchronized (this) {
+            closed = true;
+            scheduled = false;
+            buffer.clear();
+          }
+          subscribers.remove(this);
+          return;
+        } finally {
+          sendingSince = 0;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.FileFormat;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalog row by row from a database cursor straight into the response,
+ * so nothing is accumulated in memory and the first rows go out before the query is done.
+ */
+@Service
+public class ProductExportService {
+  private static final int FLUSH_EVERY = 1000;
+  private static final String CSV_HEADER = "id,name,description,price,stock,categoryId,categoryName";
+
+  private final ProductRepository productRepository;
+  private final ObjectMapper objectMapper;
+  // Writing a value flushes the stream by default, which would send every row in its own write
+  private final ObjectWriter rowWriter;
+
+  public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper) {
+    this.productRepository = productRepository;
+    this.objectMapper = objectMapper;
+    this.rowWriter = objectMapper.writerFor(ProductResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  // The cursor only lives as long as the transaction, so the whole write happens inside it
+  @Transactional(readOnly = true)
+  public long export(FileFormat format, OutputStream out) throws IOException {
+    try (Stream<ProductResponse> rows = productRepository.streamAll()) {
+      return format == FileFormat.CSV ? writeCsv(rows.iterator(), out) : writeNdjson(rows.iterator(), out);
+    }
+  }
+
+  private long writeNdjson(Iterator<ProductResponse> rows, OutputStream out) throws IOException {
+    long count = 0;
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    while (rows.hasNext()) {
+      rowWriter.writeValue(generator, rows.next());
+      generator.writeRaw('\n');
+      if (++count == 1 || count % FLUSH_EVERY == 0) {
+        generator.flush();
+      }
+    }
+
+    generator.flush();
+    return count;
+  }
+
+  private long writeCsv(Iterator<ProductResponse> rows, OutputStream out) throws IOException {
+    long count = 0;
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.write(CSV_HEADER);
+    writer.write('\n');
+
+    while (rows.hasNext()) {
+      ProductResponse product = rows.next();
+      writer.write(String.valueOf(product.getId()));
+      writer.write(',');
+      writer.write(csv(product.getName()));
+      writer.write(',');
+      writer.write(csv(product.getDescription()));
+      writer.write(',');
+      writer.write(String.valueOf(product.getPrice()));
+      writer.write(',');
+      writer.write(String.valueOf(product.getStock()));
+      writer.write(',');
+      writer.write(String.valueOf(product.getCategory().getId()));
+      writer.write(',');
+      writer.write(csv(product.getCategory().getName()));
+      writer.write('\n');
+      if (++count == 1 || count % FLUSH_EVERY == 0) {
+        writer.flush();
+      }
+    }
+
+    writer.flush();
+    return count;
+  }
+
+  // RFC 4180: quote when the value has a separator, quote or line break, doubling inner quotes
+  private String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,469 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeOperation;
+import com.brenda.inventory.dto.FileFormat;
+import com.brenda.inventory.dto.ImportJobResponse;
+import com.brenda.inventory.dto.ImportJobStatus;
+import com.brenda.inventory.dto.ImportLineError;
+import com.brenda.inventory.dto.ProductImportRow;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Imports CSV or NDJSON catalog files of any size. The request thread parses and validates the
+ * upload line by line and hands valid rows to a writer thread through a small bounded queue;
+ * the writer upserts them in fixed-size chunks: a transaction for the new rows and one stock ledger
+ * commit for the updates, which carry a stock level. When the database falls
+ * behind, the queue fills, the parser stops reading and the client's upload slows down with it,
+ * so memory holds at most a couple of chunks whatever the file size.
+ */
+@Service
+public class ProductImportService {
+  private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+  private static final int MAX_JOBS = 100;
+
+  private final ProductRepository productRepository;
+  private final CategoryRepository categoryRepository;
+  private final CategoryCache categoryCache;
+  private final ProductCache productCache;
+  private final ProductListingCache productListingCache;
+  private final ProductSearchIndex searchIndex;
+  private final StockLedger stockLedger;
+  private final CategoryStatsService categoryStats;
+  private final ProductEventBroadcaster productEvents;
+  private final ChangeFeedService changeFeed;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final SimpleAsyncTaskExecutor writers = new SimpleAsyncTaskExecutor("product-import-writer-");
+  private final int chunkSize;
+  private final int maxErrors;
+  private final int maxRecordChars;
+
+  private final AtomicLong ids = new AtomicLong();
+  // Most recent jobs only, in start order
+  private final Map<Long, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, ImportJob> eldest) {
+      return size() > MAX_JOBS;
+    }
+  });
+
+  public ProductImportService(ProductRepository productRepository,
+                              CategoryRepository categoryRepository,
+                              CategoryCache categoryCache,
+                              ProductCache productCache,
+                              ProductListingCache productListingCache,
+                              ProductSearchIndex searchIndex,
+                              StockLedger stockLedger,
+                              CategoryStatsService categoryStats,
+                              ProductEventBroadcaster productEvents,
+                              ChangeFeedService changeFeed,
+                              Validator validator,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${inventory.import.chunk-size:500}") int chunkSize,
+                              @Value("${inventory.import.max-errors:1000}") int maxErrors,
+                              @Value("${inventory.import.max-record-chars:65536}") int maxRecordChars,
+                              Environment environment) {
+    this.productRepository = productRepository;
+    this.categoryRepository = categoryRepository;
+    this.categoryCache = categoryCache;
+    this.productCache = productCache;
+    this.productListingCache = productListingCache;
+    this.searchIndex = searchIndex;
+    this.stockLedger = stockLedger;
+    this.categoryStats = categoryStats;
+    this.productEvents = productEvents;
+    this.changeFeed = changeFeed;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.maxErrors = maxErrors;
+    this.maxRecordChars = maxRecordChars;
+
+    // One thread per running import, virtual in the virtual-threads mode like the request threads feeding it.
+    // Same check as Boot's own executors: the flag alone would fail the context on a JDK below 21
+    writers.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    writers.setDaemon(true);
+  }
+
+  @PreDestroy
+  void stop() {
+    writers.close();
+  }
+
+  /**
+   * Runs an import to completion on the calling thread; progress is visible through {@link #getById} meanwhile.
+   */
+  public ImportJobResponse importFile(FileFormat format, InputStream in) {
+    ImportJob job = new ImportJob(ids.incrementAndGet(), format);
+    jobs.put(job.id, job);
+
+    BlockingQueue<Line> queue = new ArrayBlockingQueue<>(chunkSize * 2);
+    Future<?> writer = writers.submit(() -> write(job, queue));
+
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      if (format == FileFormat.CSV) {
+        parseCsv(job, reader, queue, writer);
+      } else {
+        parseNdjson(job, reader, queue, writer);
+      }
+      put(queue, Line.END, writer);
+      writer.get();
+      job.finish(ImportJobStatus.COMPLETED, null);
+    } catch (ExecutionException exception) {
+      log.error("Import {} failed while writing", job.id, exception.getCause());
+      job.finish(ImportJobStatus.FAILED, "Write failed: " + exception.getCause().getMessage());
+    } catch (IOException | RuntimeException exception) {
+      writer.cancel(true);
+      log.error("Import {} failed while reading", job.id, exception);
+      job.finish(ImportJobStatus.FAILED, "Read failed: " + exception.getMessage());
+    } catch (InterruptedException exception) {
+      writer.cancel(true);
+      Thread.currentThread().interrupt();
+      job.finish(ImportJobStatus.FAILED, "Interrupted");
+    }
+
+    return job.toResponse();
+  }
+
+  public ImportJobResponse getById(Long id) {
+    ImportJob job = jobs.get(id);
+    if (job == null) {
+      throw new ResourceNotFoundException("Import job not found with id: " + id);
+    }
+    return job.toResponse();
+  }
+
+  public List<ImportJobResponse> getAll() {
+    synchronized (jobs) {
+      return jobs.values().stream().map(ImportJob::toResponse).toList();
+    }
+  }
+
+  private void parseNdjson(ImportJob job, BufferedReader reader, BlockingQueue<Line> queue, Future<?> writer)
+      throws IOException, InterruptedException, ExecutionException {
+    String text;
+    long lineNumber = 0;
+
+    while ((text = reader.readLine()) != null) {
+      lineNumber++;
+      if (text.isBlank()) {
+        continue;
+      }
+      job.linesRead.incrementAndGet();
+
+      try {
+        accept(job, lineNumber, objectMapper.readValue(text, ProductImportRow.class), queue, writer);
+      } catch (JsonProcessingException exception) {
+        job.fail(lineNumber, Map.of("line", "Malformed JSON: " + exception.getOriginalMessage()));
+      }
+    }
+  }
+
+  private void parseCsv(ImportJob job, BufferedReader reader, BlockingQueue<Line> queue, Future<?> writer)
+      throws IOException, InterruptedException, ExecutionException {
+    CsvReader csv = new CsvReader(reader, maxRecordChars);
+    List<String> header = csv.next();
+    if (header == null) {
+      return;
+    }
+
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+
+    List<String> record;
+    while ((record = csv.next()) != null) {
+      if (record.size() == 1 && record.get(0).isBlank()) {
+        continue;
+      }
+      job.linesRead.incrementAndGet();
+
+      Map<String, String> errors = new HashMap<>();
+      ProductImportRow row = new ProductImportRow();
+      row.setId(parseLong(columns, record, "id", errors));
+      row.setName(column(columns, record, "name"));
+      row.setDescription(column(columns, record, "description"));
+      row.setPrice(parseInt(columns, record, "price", errors));
+      row.setStock(parseInt(columns, record, "stock", errors));
+      row.setCategoryId(parseLong(columns, record, "categoryid", errors));
+
+      if (errors.isEmpty()) {
+        accept(job, csv.recordLine(), row, queue, writer);
+      } else {
+        job.fail(csv.recordLine(), errors);
+      }
+    }
+  }
+
+  // Same rules as POST /products, checked here so only rows worth writing reach the writer
+  private void accept(ImportJob job, long lineNumber, ProductImportRow row, BlockingQueue<Line> queue, Future<?> writer)
+      throws InterruptedException, ExecutionException {
+    Map<String, String> errors = new HashMap<>();
+    for (ConstraintViolation<ProductImportRow> violation : validator.validate(row)) {
+      errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+    }
+
+    if (errors.isEmpty()) {
+      put(queue, new Line(lineNumber, row), writer);
+    } else {
+      job.fail(lineNumber, errors);
+    }
+  }
+
+  // Blocks while the writer is behind; this is the backpressure. Gives up if the writer died.
+  private void put(BlockingQueue<Line> queue, Line line, Future<?> writer) throws InterruptedException, ExecutionException {
+    while (!queue.offer(line, 1, TimeUnit.SECONDS)) {
+      if (writer.isDone()) {
+        writer.get();
+        throw new IllegalStateException("Import writer stopped");
+      }
+    }
+  }
+
+  private void write(ImportJob job, BlockingQueue<Line> queue) {
+    List<Line> chunk = new ArrayList<>(chunkSize);
+
+    while (true) {
+      Line line;
+      try {
+        line = queue.take();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      if (line != Line.END) {
+        chunk.add(line);
+      }
+      if (chunk.size() == chunkSize || (line == Line.END && !chunk.isEmpty())) {
+        writeChunk(job, chunk);
+        chunk.clear();
+      }
+      if (line == Line.END) {
+        return;
+      }
+    }
+  }
+
+  private void writeChunk(ImportJob job, List<Line> chunk) {
+    List<Line> inserts = new ArrayList<>();
+    List<Line> updates = new ArrayList<>();
+
+    for (Line line : chunk) {
+      if (categoryCache.getById(line.row().getCategoryId()).isEmpty()) {
+        job.fail(line.number(), Map.of("categoryId", "Category not found with id: " + line.row().getCategoryId()));
+      } else if (line.row().getId() == null) {
+        inserts.add(line);
+      } else {
+        updates.add(line);
+      }
+    }
+
+    Set<Long> touchedCategories = new HashSet<>();
+    inserts.forEach(line -> touchedCategories.add(line.row().getCategoryId()));
+    List<Product> insertedProducts = new ArrayList<>();
+
+    transactionTemplate.executeWithoutResult(status -> {
+      for (Line line : inserts) {
+        Product product = new Product();
+        apply(product, line.row());
+        product.setStock(line.row().getStock());
+        insertedProducts.add(product);
+      }
+      productRepository.saveAll(insertedProducts);
+      CategoryStatsService.Changes changes = categoryStats.changes();
+      insertedProducts.forEach(product -> changes.add(product.getCategory().getId(), product.getPrice(), product.getStock()));
+      categoryStats.apply(changes);
+      changeFeed.record(insertedProducts.stream()
+          .map(product -> ChangeFeedService.change(ChangeEntityType.PRODUCT, product.getId(), ChangeOperation.CREATED))
+          .toList());
+    });
+    insertedProducts.forEach(product -> productCache.invalidate(product.getId()));
+    job.created.addAndGet(insertedProducts.size());
+
+    // Product.stock is the ledger snapshot, so existing products are updated in the ledger's transaction: their
+    // other fields commit with the new stock level, and a row the ledger rejects changes nothing
+    Map<Long, Line> updated = new HashMap<>();
+    updates.forEach(line -> updated.put(line.row().getId(), line));
+    Map<Long, Integer> stocks = new HashMap<>();
+    updated.forEach((id, line) -> stocks.put(id, line.row().getStock()));
+    Map<Long, Integer> previousPrices = new HashMap<>();
+    Map<Long, Long> previousCategories = new HashMap<>();
+    List<Product> existingUpdated = new ArrayList<>();
+
+    Map<Long, RuntimeException> failures = updated.isEmpty() ? Map.of() : stockLedger.setAll(stocks, "import " + job.id, accepted -> {
+      // Already locked by the ledger, and at the new stock level once it commits
+      CategoryStatsService.Changes changes = categoryStats.changes();
+      for (Product product : productRepository.findAllById(accepted)) {
+        Line line = updated.get(product.getId());
+        int stock = line.row().getStock();
+        previousPrices.put(product.getId(), product.getPrice());
+        previousCategories.put(product.getId(), product.getCategory().getId());
+        changes.remove(product.getCategory().getId(), product.getPrice(), stock);
+        apply(product, line.row());
+        changes.add(line.row().getCategoryId(), product.getPrice(), stock);
+        existingUpdated.add(product);
+      }
+      categoryStats.apply(changes);
+      changeFeed.record(accepted.stream()
+          .map(id -> ChangeFeedService.change(ChangeEntityType.PRODUCT, id, ChangeOperation.UPDATED))
+          .toList());
+    });
+
+    failures.forEach((id, exception) -> job.fail(updated.get(id).number(),
+        Map.of(exception instanceof ResourceNotFoundException ? "id" : "stock", exception.getMessage())));
+    // Only what committed: if the ledger's transaction failed as a whole, every product is among the failures
+    existingUpdated.removeIf(product -> failures.containsKey(product.getId()));
+    existingUpdated.forEach(product -> {
+      productCache.invalidate(product.getId());
+      touchedCategories.add(previousCategories.get(product.getId()));
+      touchedCategories.add(product.getCategory().getId());
+    });
+
+    // Updated products are the managed entities, their versions bumped by the commit's flush
+    Stream.concat(insertedProducts.stream(), existingUpdated.stream())
+        .forEach(product -> searchIndex.index(product.getId(), product.getVersion(), product.getName(), product.getDescription()));
+    touchedCategories.forEach(productListingCache::invalidateCategory);
+    existingUpdated.forEach(product -> productEvents.priceChanged(product.getId(), product.getCategory().getId(),
+        previousPrices.get(product.getId()), product.getPrice()));
+    job.updated.addAndGet(existingUpdated.size());
+  }
+
+  private void apply(Product product, ProductImportRow row) {
+    product.setName(row.getName());
+    product.setDescription(row.getDescription());
+    product.setPrice(row.getPrice());
+    product.setCategory(categoryRepository.getReferenceById(row.getCategoryId()));
+  }
+
+  private String column(Map<String, Integer> columns, List<String> record, String name) {
+    Integer index = columns.get(name);
+    if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+      return null;
+    }
+    return record.get(index);
+  }
+
+  private Integer parseInt(Map<String, Integer> columns, List<String> record, String name, Map<String, String> errors) {
+    String value = column(columns, record, name);
+    try {
+      return value == null ? null : Integer.valueOf(value.trim());
+    } catch (NumberFormatException exception) {
+      errors.put(name, "Must be a whole number: " + value);
+      return null;
+    }
+  }
+
+  private Long parseLong(Map<String, Integer> columns, List<String> record, String name, Map<String, String> errors) {
+    String value = column(columns, record, name);
+    try {
+      return value == null ? null : Long.valueOf(value.trim());
+    } catch (NumberFormatException exception) {
+      errors.put(name.equals("categoryid") ? "categoryId" : name, "Must be a whole number: " + value);
+      return null;
+    }
+  }
+
+  private record Line(long number, ProductImportRow row) {
+    private static final Line END = new Line(-1, null);
+  }
+
+  private final class ImportJob {
+    private final Long id;
+    private final FileFormat format;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ImportLineError> errors = Collections.synchronizedList(new ArrayList<>());
+    private volatile ImportJobStatus status = ImportJobStatus.RUNNING;
+    private volatile String message;
+    private volatile Instant finishedAt;
+
+    private ImportJob(Long id, FileFormat format) {
+      this.id = id;
+      this.format = format;
+    }
+
+    private void fail(long line, Map<String, String> lineErrors) {
+      failed.incrementAndGet();
+      if (errors.size() < maxErrors) {
+        errors.add(ImportLineError.builder().line(line).errors(lineErrors).build());
+      }
+    }
+
+    private void finish(ImportJobStatus finalStatus, String finalMessage) {
+      message = finalMessage;
+      finishedAt = Instant.now();
+      status = finalStatus;
+    }
+
+    private ImportJobResponse toResponse() {
+      List<ImportLineError> snapshot;
+      synchronized (errors) {
+        snapshot = new ArrayList<>(errors);
+      }
+
+      return ImportJobResponse.builder()
+          .id(id)
+          .format(format)
+          .status(status)
+          .linesRead(linesRead.get())
+          .created(created.get())
+          .updated(updated.get())
+          .failed(failed.get())
+          .errors(snapshot)
+          .message(message)
+          .startedAt(startedAt)
+          .finishedAt(finishedAt)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CacheStatsResponse;
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.PageResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized {@code GET /products?category=} pages, kept as the JSON bytes (and a gzipped copy when
+ * large enough) so a hit is written out without a query, a mapping pass or Jackson. Capped by total
+ * bytes rather than entries, since one category's page can be a hundred times another's.
+ *
+ * <p>Writes don't look for the entries they affect: they bump a generation counter for the category
+ * name, and an entry loaded under an older generation is treated as a miss. The generation is read
+ * before the load starts, so a load racing a write is never served after it.
+ */
+@Component
+public class ProductListingCache implements MonitoredCache {
+  // Rough per-entry overhead (key, arrays, Caffeine node) so tiny pages still count against the cap
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final ObjectMapper objectMapper;
+  private final CategoryCache categoryCache;
+  private final AsyncCache<Key, Listing> listings;
+  private final Map<String, Long> generations = new ConcurrentHashMap<>();
+  private final int gzipMinBytes;
+
+  public ProductListingCache(ObjectMapper objectMapper,
+                             CategoryCache categoryCache,
+                             @Value("${inventory.cache.listings.max-bytes:33554432}") long maxBytes,
+                             @Value("${inventory.cache.listings.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${inventory.cache.listings.gzip-min-bytes:1024}") int gzipMinBytes) {
+    this.objectMapper = objectMapper;
+    this.categoryCache = categoryCache;
+    this.gzipMinBytes = gzipMinBytes;
+    this.listings = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((Key key, Listing listing) -> listing.weight())
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .buildAsync();
+  }
+
+  /**
+   * The serialized page for the filter, produced by {@code loader} on a miss. {@code fields} is the
+   * canonical sparse fieldset, null for full products.
+   */
+  public Listing get(String categoryName, int limit, String after, String fields, Supplier<? extends PageResponse<?>> loader) {
+    Key key = new Key(categoryName, limit, after, fields);
+    long generation = generations.getOrDefault(categoryName, 0L);
+    Listing listing = CacheLoads.get(listings, key, k -> serialize(generation, loader.get()));
+    if (listing.generation() == generation) {
+      return listing;
+    }
+
+    // Written under an older generation; replace it (only if nobody else already did)
+    listings.synchronous().asMap().remove(key, listing);
+    return CacheLoads.get(listings, key, k -> serialize(generation, loader.get()));
+  }
+
+  // After the commit of a product write, for the category the product was in (and the one it moved to)
+  public void invalidateCategory(Long categoryId) {
+    if (categoryId != null) {
+      categoryCache.getById(categoryId).map(CategoryResponse::getName).ifPresent(this::invalidate);
+    }
+  }
+
+  // Category writes: a new or renamed category can fill a listing that was cached empty
+  public void invalidate(String... categoryNames) {
+    for (String name : categoryNames) {
+      if (name != null) {
+        generations.merge(name, 1L, Long::sum);
+      }
+    }
+  }
+
+  @Override
+  public String name() {
+    return "product-listings";
+  }
+
+  @Override
+  public CacheStatsResponse stats() {
+    return MonitoredCache.toResponse(listings.synchronous().estimatedSize(), listings.synchronous().stats());
+  }
+
+  private Listing serialize(long generation, PageResponse<?> page) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(page);
+      return new Listing(generation, json, gzipMinBytes >= 0 && json.length >= gzipMinBytes ? gzip(json) : null);
+    } catch (JsonProcessingException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return out.toByteArray();
+  }
+
+  private record Key(String categoryName, int limit, String after, String fields) {
+  }
+
+  /** {@code gzip} is null for pages under {@code inventory.cache.listings.gzip-min-bytes}. */
+  public record Listing(long generation, byte[] json, byte[] gzip) {
+    int weight() {
+      return ENTRY_OVERHEAD_BYTES + json.length + (gzip == null ? 0 : gzip.length);
+    }
+  }
+}
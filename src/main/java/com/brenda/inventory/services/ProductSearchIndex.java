@@ -0,0 +1,496 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductText;
+import com.brenda.inventory.dto.SearchIndexStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over product name and description. Text is folded to lower case without
+ * accents and split into words; every word of a query must match a term it is a prefix of (the
+ * first 50 such terms), and products are ranked by how rare the matched terms
+ * are, name matches above description ones and whole words above prefixes.
+ *
+ * <p>Products are numbered in the order they were indexed; a term's postings are those numbers, each
+ * with two bits for the fields it appeared in, in one sorted {@code int[]}. A write indexes the product
+ * again under a new number and marks the old one dead; dead numbers are squeezed out once they
+ * outnumber the live ones. Writers call it after their commit, carrying the product's version, so a
+ * late call can't put back older text. A removal leaves the deleted version behind (ids aren't reused,
+ * so it is one entry per delete), and a late write of that product is ignored rather than indexing it again.
+ */
+@Component
+public class ProductSearchIndex {
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int NAME = 1;
+  private static final int DESCRIPTION = 2;
+  private static final float NAME_WEIGHT = 2f;
+  private static final float DESCRIPTION_WEIGHT = 1f;
+  private static final float PREFIX_WEIGHT = 0.5f;
+  private static final int FIELDS = NAME | DESCRIPTION;
+  // Like Elasticsearch's max_expansions: a short prefix doesn't turn into every term it starts
+  private static final int MAX_EXPANSIONS = 50;
+  // Rough steps of one binary search in a posting list, against reading an entry
+  private static final int PROBE_COST = 16;
+  private static final int DENSE_FRACTION = 8;
+  private static final int MIN_COMPACTION_DEAD = 1024;
+  private static final float MIN_IDF = 0.01f;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Guarded by lock; replay is non-null while a rebuild runs and collects the writes it must not miss
+  private Index index = new Index();
+  private List<Write> replay;
+
+  public void index(Long productId, Long version, String name, String description) {
+    apply(new Write(productId, version == null ? 0 : version, false, name, description));
+  }
+
+  /** {@code version} is the one deleted: writes up to it that arrive later are ignored. */
+  public void remove(Long productId, Long version) {
+    apply(new Write(productId, version == null ? 0 : version, true, null, null));
+  }
+
+  /**
+   * Replaces the index with one built from {@code products}. Writes made meanwhile go to the old index,
+   * which keeps serving queries, and are applied again on top of the new one before it takes over.
+   */
+  public synchronized void rebuild(Stream<ProductText> products) {
+    lock.writeLock().lock();
+    try {
+      replay = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    Index rebuilt = new Index();
+    boolean complete = false;
+    try {
+      products.forEach(product -> rebuilt.put(product.getId(), product.getVersion(), product.getName(), product.getDescription()));
+      complete = true;
+    } finally {
+      lock.writeLock().lock();
+      try {
+        if (complete) {
+          // Products deleted before the rebuild stay deleted for writes that arrive after it
+          rebuilt.removed.putAll(index.removed);
+          replay.forEach(rebuilt::apply);
+          index = rebuilt;
+        }
+        replay = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** Ids of the best {@code limit} matches, best first, and how many products matched in all. */
+  public Hits search(String query, int limit) {
+    List<String> words = tokenize(query).stream().distinct().toList();
+    if (words.isEmpty()) {
+      return new Hits(List.of(), 0);
+    }
+    lock.readLock().lock();
+    try {
+      return index.search(words, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public SearchIndexStatsResponse stats() {
+    lock.readLock().lock();
+    try {
+      long postings = index.terms.values().stream().mapToLong(list -> list.size).sum();
+      return SearchIndexStatsResponse.builder()
+          .documents(index.live)
+          .terms(index.terms.size())
+          .postings(postings)
+          .build();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    return Arrays.stream(SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toList();
+  }
+
+  private void apply(Write write) {
+    lock.writeLock().lock();
+    try {
+      index.apply(write);
+      if (replay != null) {
+        replay.add(write);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public record Hits(List<Long> productIds, int total) {
+  }
+
+  private record Write(Long productId, long version, boolean removal, String name, String description) {
+  }
+
+  /** A term's postings: document number << 2 | field bits, ascending. */
+  private static final class Postings {
+    private int[] entries = new int[2];
+    private int size;
+
+    void add(int entry) {
+      if (size == entries.length) {
+        entries = Arrays.copyOf(entries, size + (size >> 1) + 1);
+      }
+      entries[size++] = entry;
+    }
+  }
+
+  // Documents matching one query word, by ascending document number
+  private record Matches(int[] docs, float[] scores) {
+  }
+
+  // scores by the field bits of a posting entry
+  private record Term(Postings postings, float[] scores) {
+  }
+
+  // A query word's terms; cost is their postings in all
+  private record Word(List<Term> terms, int cost) {
+  }
+
+  private static final class Index {
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    // Deleted version by product id
+    private final Map<Long, Long> removed = new HashMap<>();
+    // By document number; a dead document has product id 0
+    private long[] productIds = new long[1024];
+    private long[] versions = new long[1024];
+    private int size;
+    private int live;
+
+    void apply(Write write) {
+      if (write.removal()) {
+        removed.merge(write.productId(), write.version(), Math::max);
+        Integer doc = docByProduct.remove(write.productId());
+        if (doc != null) {
+          kill(doc);
+        }
+      } else {
+        put(write.productId(), write.version(), write.name(), write.description());
+      }
+    }
+
+    void put(Long productId, Long version, String name, String description) {
+      long current = version == null ? 0 : version;
+      Long deleted = removed.get(productId);
+      if (deleted != null && deleted >= current) {
+        return;
+      }
+      Integer previous = docByProduct.get(productId);
+      if (previous != null) {
+        if (versions[previous] > current) {
+          return;
+        }
+        kill(previous);
+      }
+      if (size == productIds.length) {
+        productIds = Arrays.copyOf(productIds, size * 2);
+        versions = Arrays.copyOf(versions, size * 2);
+      }
+      int doc = size++;
+      productIds[doc] = productId;
+      versions[doc] = current;
+      docByProduct.put(productId, doc);
+      live++;
+
+      Map<String, Integer> fields = new LinkedHashMap<>();
+      tokenize(name).forEach(word -> fields.merge(word, NAME, (a, b) -> a | b));
+      tokenize(description).forEach(word -> fields.merge(word, DESCRIPTION, (a, b) -> a | b));
+      fields.forEach((word, bits) -> terms.computeIfAbsent(word, key -> new Postings()).add(doc << 2 | bits));
+
+      if (size - live > Math.max(MIN_COMPACTION_DEAD, live)) {
+        compact();
+      }
+    }
+
+    Hits search(List<String> words, int limit) {
+      List<Word> expanded = new ArrayList<>(words.size());
+      for (String word : words) {
+        Word terms = expand(word);
+        if (terms.cost() == 0) {
+          return new Hits(List.of(), 0);
+        }
+        expanded.add(terms);
+      }
+      // Rarest word first, so the candidates only shrink; a word far more common than the candidates
+      // left is looked up per candidate instead of read in full
+      expanded.sort(Comparator.comparingInt(Word::cost));
+      Matches result = collect(expanded.get(0));
+      for (int i = 1; i < expanded.size() && result.docs().length > 0; i++) {
+        Word word = expanded.get(i);
+        result = (long) result.docs().length * word.terms().size() * PROBE_COST < word.cost()
+            ? probe(result, word)
+            : intersect(result, collect(word));
+      }
+      return top(result, limit);
+    }
+
+    // The word itself if it is a term (it sorts first), then the terms it is a prefix of, up to MAX_EXPANSIONS
+    private Word expand(String word) {
+      List<Term> expansion = new ArrayList<>();
+      int cost = 0;
+      for (Map.Entry<String, Postings> entry : terms.subMap(word, word + Character.MAX_VALUE).entrySet()) {
+        if (expansion.size() == MAX_EXPANSIONS) {
+          break;
+        }
+        Postings postings = entry.getValue();
+        float weight = idf(postings.size) * (entry.getKey().equals(word) ? 1f : PREFIX_WEIGHT);
+        // Indexed by the field bits of an entry
+        float[] scores = {0, weight * NAME_WEIGHT, weight * DESCRIPTION_WEIGHT, weight * (NAME_WEIGHT + DESCRIPTION_WEIGHT)};
+        expansion.add(new Term(postings, scores));
+        cost += postings.size;
+      }
+      return new Word(expansion, cost);
+    }
+
+    // Every live document of the word's terms; one found under several takes its best score
+    private Matches collect(Word word) {
+      int[] docs;
+      float[] scores;
+      int count = 0;
+      // Until something is updated or removed every posting is live, and the lookups can be skipped
+      boolean anyDead = live < size;
+      if (word.terms().size() == 1) {
+        Term term = word.terms().get(0);
+        docs = new int[term.postings().size];
+        scores = new float[docs.length];
+        for (int i = 0; i < term.postings().size; i++) {
+          int entry = term.postings().entries[i];
+          if (!anyDead || productIds[entry >>> 2] != 0) {
+            docs[count] = entry >>> 2;
+            scores[count++] = term.scores()[entry & FIELDS];
+          }
+        }
+      } else if (word.cost() > size / DENSE_FRACTION) {
+        // Large unions: a score slot per document beats sorting them
+        float[] best = new float[size];
+        for (Term term : word.terms()) {
+          for (int i = 0; i < term.postings().size; i++) {
+            int entry = term.postings().entries[i];
+            int doc = entry >>> 2;
+            if (!anyDead || productIds[doc] != 0) {
+              best[doc] = Math.max(best[doc], term.scores()[entry & FIELDS]);
+            }
+          }
+        }
+        docs = new int[word.cost()];
+        scores = new float[docs.length];
+        for (int doc = 0; doc < size && count < docs.length; doc++) {
+          if (best[doc] > 0) {
+            docs[count] = doc;
+            scores[count++] = best[doc];
+          }
+        }
+      } else {
+        // Positive floats order like their bits, so sorting puts each document's best score last
+        long[] packed = new long[word.cost()];
+        int total = 0;
+        for (Term term : word.terms()) {
+          for (int i = 0; i < term.postings().size; i++) {
+            int entry = term.postings().entries[i];
+            if (!anyDead || productIds[entry >>> 2] != 0) {
+              packed[total++] = (long) (entry >>> 2) << 32 | Float.floatToIntBits(term.scores()[entry & FIELDS]);
+            }
+          }
+        }
+        Arrays.sort(packed, 0, total);
+        docs = new int[total];
+        scores = new float[total];
+        for (int i = 0; i < total; i++) {
+          int doc = (int) (packed[i] >>> 32);
+          if (count == 0 || docs[count - 1] != doc) {
+            count++;
+          }
+          docs[count - 1] = doc;
+          scores[count - 1] = Float.intBitsToFloat((int) packed[i]);
+        }
+      }
+      return new Matches(Arrays.copyOf(docs, count), Arrays.copyOf(scores, count));
+    }
+
+    // Binary search of each candidate in the word's postings
+    private static Matches probe(Matches candidates, Word word) {
+      int[] docs = new int[candidates.docs().length];
+      float[] scores = new float[docs.length];
+      int count = 0;
+      for (int i = 0; i < candidates.docs().length; i++) {
+        int doc = candidates.docs()[i];
+        float best = 0;
+        for (Term term : word.terms()) {
+          int entry = find(term.postings(), doc);
+          if (entry >= 0) {
+            best = Math.max(best, term.scores()[entry & FIELDS]);
+          }
+        }
+        if (best > 0) {
+          docs[count] = doc;
+          scores[count++] = candidates.scores()[i] + best;
+        }
+      }
+      return new Matches(Arrays.copyOf(docs, count), Arrays.copyOf(scores, count));
+    }
+
+    private static int find(Postings postings, int doc) {
+      int low = 0;
+      int high = postings.size - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        int found = postings.entries[middle] >>> 2;
+        if (found < doc) {
+          low = middle + 1;
+        } else if (found > doc) {
+          high = middle - 1;
+        } else {
+          return postings.entries[middle];
+        }
+      }
+      return -1;
+    }
+
+    private static Matches intersect(Matches left, Matches right) {
+      int[] docs = new int[Math.min(left.docs().length, right.docs().length)];
+      float[] scores = new float[docs.length];
+      int count = 0;
+      for (int i = 0, j = 0; i < left.docs().length && j < right.docs().length; ) {
+        int a = left.docs()[i];
+        int b = right.docs()[j];
+        if (a == b) {
+          docs[count] = a;
+          scores[count++] = left.scores()[i++] + right.scores()[j++];
+        } else if (a < b) {
+          i++;
+        } else {
+          j++;
+        }
+      }
+      return new Matches(Arrays.copyOf(docs, count), Arrays.copyOf(scores, count));
+    }
+
+    // Best `limit` by score, ties to the lower product id: a heap of match indexes with the worst kept on top
+    private Hits top(Matches matches, int limit) {
+      int[] heap = new int[Math.min(limit, matches.docs().length)];
+      int kept = 0;
+      for (int i = 0; i < matches.docs().length; i++) {
+        if (kept < heap.length) {
+          heap[kept] = i;
+          for (int child = kept++; child > 0 && better(matches, heap[(child - 1) / 2], heap[child]); child = (child - 1) / 2) {
+            swap(heap, child, (child - 1) / 2);
+          }
+        } else if (better(matches, i, heap[0])) {
+          heap[0] = i;
+          siftDown(matches, heap, kept);
+        }
+      }
+      Long[] ranked = new Long[kept];
+      while (kept > 0) {
+        ranked[kept - 1] = productIds[matches.docs()[heap[0]]];
+        heap[0] = heap[--kept];
+        siftDown(matches, heap, kept);
+      }
+      return new Hits(List.of(ranked), matches.docs().length);
+    }
+
+    private void siftDown(Matches matches, int[] heap, int kept) {
+      int parent = 0;
+      while (true) {
+        int worst = parent;
+        for (int child = 2 * parent + 1; child <= 2 * parent + 2 && child < kept; child++) {
+          if (better(matches, heap[worst], heap[child])) {
+            worst = child;
+          }
+        }
+        if (worst == parent) {
+          return;
+        }
+        swap(heap, parent, worst);
+        parent = worst;
+      }
+    }
+
+    private boolean better(Matches matches, int a, int b) {
+      float scoreA = matches.scores()[a];
+      float scoreB = matches.scores()[b];
+      return scoreA > scoreB || (scoreA == scoreB && productIds[matches.docs()[a]] < productIds[matches.docs()[b]]);
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+      int held = heap[a];
+      heap[a] = heap[b];
+      heap[b] = held;
+    }
+
+    // BM25's idf; dead postings still count, close enough until the next compaction (but kept positive)
+    private float idf(int documentFrequency) {
+      return Math.max(MIN_IDF, (float) Math.log(1 + (live - documentFrequency + 0.5) / (documentFrequency + 0.5)));
+    }
+
+    private void kill(int doc) {
+      productIds[doc] = 0;
+      live--;
+    }
+
+    // Renumbers the live documents in order, so every list stays sorted as it is filtered
+    private void compact() {
+      int[] renumbered = new int[size];
+      int next = 0;
+      for (int doc = 0; doc < size; doc++) {
+        renumbered[doc] = productIds[doc] == 0 ? -1 : next++;
+      }
+      long[] ids = new long[Math.max(1024, next * 2)];
+      long[] versionsByDoc = new long[ids.length];
+      for (int doc = 0; doc < size; doc++) {
+        if (renumbered[doc] >= 0) {
+          ids[renumbered[doc]] = productIds[doc];
+          versionsByDoc[renumbered[doc]] = versions[doc];
+          docByProduct.put(productIds[doc], renumbered[doc]);
+        }
+      }
+
+      terms.values().removeIf(postings -> {
+        int kept = 0;
+        for (int i = 0; i < postings.size; i++) {
+          int entry = postings.entries[i];
+          int doc = renumbered[entry >>> 2];
+          if (doc >= 0) {
+            postings.entries[kept++] = doc << 2 | (entry & FIELDS);
+          }
+        }
+        postings.entries = Arrays.copyOf(postings.entries, kept);
+        postings.size = kept;
+        return kept == 0;
+      });
+      productIds = ids;
+      versions = versionsByDoc;
+      size = next;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.dto.ProductSearchResponse;
+import com.brenda.inventory.dto.ProductText;
+import com.brenda.inventory.dto.SearchIndexStatsResponse;
+import com.brenda.inventory.exceptions.BadRequestException;
+import com.brenda.inventory.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keyword search over product name and description. The matching and ranking happen in
+ * {@link ProductSearchIndex}; only the page of hits is read from the database, in one query.
+ */
+@Service
+public class ProductSearchService {
+  private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+
+  private final ProductRepository productRepository;
+  private final ProductSearchIndex searchIndex;
+  private final TransactionTemplate readOnlyTransaction;
+
+  public ProductSearchService(ProductRepository productRepository, ProductSearchIndex searchIndex,
+                              PlatformTransactionManager transactionManager) {
+    this.productRepository = productRepository;
+    this.searchIndex = searchIndex;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  public ProductSearchResponse search(String query, int limit) {
+    int pageSize = Cursors.checkLimit(limit);
+    if (ProductSearchIndex.tokenize(query).isEmpty()) {
+      throw new BadRequestException("Search query must contain at least one word");
+    }
+
+    ProductSearchIndex.Hits hits = searchIndex.search(query, pageSize);
+    Map<Long, ProductResponse> products = hits.productIds().isEmpty() ? Map.of()
+        : productRepository.findResponsesByIds(hits.productIds()).stream()
+            .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+    // A hit deleted since it was ranked is just left out
+    return ProductSearchResponse.builder()
+        .items(hits.productIds().stream().map(products::get).filter(Objects::nonNull).toList())
+        .total(hits.total())
+        .build();
+  }
+
+  // Rereads every product; writes keep going and are carried over to the new index
+  public SearchIndexStatsResponse rebuild() {
+    long started = System.nanoTime();
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<ProductText> products = productRepository.streamTexts()) {
+        searchIndex.rebuild(products);
+      }
+    });
+    SearchIndexStatsResponse stats = searchIndex.stats();
+    log.info("Search index built: {} products, {} terms in {} ms",
+        stats.getDocuments(), stats.getTerms(), (System.nanoTime() - started) / 1_000_000);
+    return stats;
+  }
+
+  public SearchIndexStatsResponse stats() {
+    return searchIndex.stats();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildOnStartup() {
+    rebuild();
+  }
+}
@@ -1,102 +1,314 @@
 package com.brenda.inventory.services;
 
 import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeOperation;
+import com.brenda.inventory.dto.PageResponse;
+import com.brenda.inventory.dto.ProductFilter;
 import com.brenda.inventory.dto.ProductCreateRequest;
 import com.brenda.inventory.dto.ProductResponse;
 import com.brenda.inventory.dto.ProductUpdateRequest;
-import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.dto.StockResponse;
+import com.brenda.inventory.dto.StockTailRange;
 import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.exceptions.PreconditionFailedException;
 import com.brenda.inventory.exceptions.ResourceNotFoundException;
 import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductFields;
 import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.ProductSort;
+import com.brenda.inventory.repositories.ProductSpecifications;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 
 @Service
 public class ProductService {
   private final ProductRepository productRepository;
   private final CategoryRepository categoryRepository;
+  private final StockLedger stockLedger;
+  private final CategoryCache categoryCache;
+  private final ProductCache productCache;
+  private final ProductListingCache productListingCache;
+  private final ProductSearchIndex searchIndex;
+  private final CategoryStatsService categoryStats;
+  private final ProductEventBroadcaster productEvents;
+  private final ChangeFeedService changeFeed;
+  private final TransactionTemplate transactionTemplate;
 
-  public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+  public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, StockLedger stockLedger,
+                        CategoryCache categoryCache, ProductCache productCache, ProductListingCache productListingCache,
+                        ProductSearchIndex searchIndex, CategoryStatsService categoryStats,
+                        ProductEventBroadcaster productEvents, ChangeFeedService changeFeed,
+                        PlatformTransactionManager transactionManager) {
     this.productRepository = productRepository;
     this.categoryRepository = categoryRepository;
+    this.stockLedger = stockLedger;
+    this.categoryCache = categoryCache;
+    this.productCache = productCache;
+    this.productListingCache = productListingCache;
+    this.searchIndex = searchIndex;
+    this.categoryStats = categoryStats;
+    this.productEvents = productEvents;
+    this.changeFeed = changeFeed;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   public ProductResponse create(ProductCreateRequest request) {
-    Category category = getCategoryOrThrow(request.getCategoryId());
+    CategoryResponse category = getCategoryOrThrow(request.getCategoryId());
 
     Product product = new Product();
     product.setName(request.getName());
     product.setDescription(request.getDescription());
     product.setPrice(request.getPrice());
     product.setStock(request.getStock());
-    product.setCategory(category);
+    product.setCategory(categoryRepository.getReferenceById(category.getId()));
 
-    Product saved = productRepository.save(product);
-    return toResponse(saved);
+    Product saved = transactionTemplate.execute(status -> {
+      Product created = productRepository.save(product);
+      categoryStats.apply(categoryStats.changes().add(category.getId(), created.getPrice(), created.getStock()));
+      changeFeed.record(ChangeEntityType.PRODUCT, created.getId(), ChangeOperation.CREATED);
+      return created;
+    });
+    productCache.invalidate(saved.getId());
+    productListingCache.invalidateCategory(category.getId());
+    searchIndex.index(saved.getId(), saved.getVersion(), saved.getName(), saved.getDescription());
+    return toResponse(saved, category);
   }
 
-  public List<ProductResponse> getAll(String categoryName) {
-    List<Product> products;
+  public PageResponse<ProductResponse> getAll(String categoryName, int limit, String after) {
+    int pageSize = Cursors.checkLimit(limit);
+    long afterId = Cursors.decode(after);
+    Limit fetch = Limit.of(pageSize + 1);
+
+    List<ProductResponse> products;
 
     if (categoryName == null || categoryName.isBlank()) {
-      products = productRepository.findAll();
+      products = productRepository.findPageAfter(afterId, fetch);
     } else {
-      products = productRepository.findByCategory_Name(categoryName);
+      // Resolving the name through the cache lets the page query filter on category_id, and skips it for unknown names
+      List<Long> categoryIds = categoryCache.getByName(categoryName).stream().map(CategoryResponse::getId).toList();
+      products = categoryIds.isEmpty()
+          ? List.of()
+          : productRepository.findPageByCategoryIdsAfter(categoryIds, afterId, fetch);
+    }
+
+    return Cursors.page(products, pageSize, ProductResponse::getId, Function.identity());
+  }
+
+  /** A page holding only the requested fields; the listing above narrowed to {@code fields}. */
+  public PageResponse<Map<String, Object>> getAll(String categoryName, int limit, String after, ProductFields fields) {
+    int pageSize = Cursors.checkLimit(limit);
+    long afterId = Cursors.decode(after);
+
+    List<Long> categoryIds = null;
+    if (categoryName != null && !categoryName.isBlank()) {
+      categoryIds = categoryCache.getByName(categoryName).stream().map(CategoryResponse::getId).toList();
+    }
+    List<Map<String, Object>> products = categoryIds != null && categoryIds.isEmpty()
+        ? List.of()
+        : productRepository.findFieldsPageAfter(fields, categoryIds, afterId, pageSize + 1);
+
+    return Cursors.page(products, pageSize, product -> (Long) product.get("id"), Function.identity());
+  }
+
+  /**
+   * Products matching the filter (and the category name, if any) in the given order. Each filter is its own
+   * predicate; the ones set are combined into a single query.
+   */
+  public PageResponse<ProductResponse> search(ProductFilter filter, String categoryName, String sort, int limit, String after) {
+    int pageSize = Cursors.checkLimit(limit);
+    ProductSort order = ProductSort.parse(sort);
+    List<Object> afterKey = afterKey(order, after);
+
+    List<ProductResponse> products = searchFilter(filter, categoryName)
+        .map(where -> productRepository.search(where, order, afterKey, pageSize + 1))
+        .orElse(List.of());
+    return Cursors.pageWithCursor(products, pageSize,
+        isById(order) ? product -> Cursors.encode(product.getId()) : product -> Cursors.encodeKey(order.key(), order.values(product)),
+        Function.identity());
+  }
+
+  /** The search above selecting only {@code fields}, plus the sort fields its cursor needs (left out of the items). */
+  public PageResponse<Map<String, Object>> search(ProductFilter filter, String categoryName, String sort, int limit, String after,
+                                                  ProductFields fields) {
+    int pageSize = Cursors.checkLimit(limit);
+    ProductSort order = ProductSort.parse(sort);
+    List<Object> afterKey = afterKey(order, after);
+
+    List<Map<String, Object>> rows = searchFilter(filter, categoryName)
+        .map(where -> productRepository.searchFields(where, order, afterKey, pageSize + 1, fields.with(order)))
+        .orElse(List.of());
+    return Cursors.pageWithCursor(rows, pageSize,
+        isById(order) ? row -> Cursors.encode((Long) row.get("id")) : row -> Cursors.encodeKey(order.key(), order.values(row)),
+        fields::narrow);
+  }
+
+  // Ordered by id alone, the plain id cursors work and listing cursors carry over
+  private static boolean isById(ProductSort order) {
+    return order.keys().size() == 1;
+  }
+
+  private static List<Object> afterKey(ProductSort order, String after) {
+    if (after == null || after.isBlank()) {
+      return null;
     }
+    return isById(order) ? List.of(Cursors.decode(after)) : order.parseValues(Cursors.decodeKey(after, order.key()));
+  }
 
-    return products.stream()
-        .map(this::toResponse)
-        .toList();
+  // Empty when the category name matches no category, so nothing can match
+  private Optional<Specification<Product>> searchFilter(ProductFilter filter, String categoryName) {
+    List<Specification<Product>> predicates = new ArrayList<>();
+    if (filter.getMinPrice() != null) {
+      predicates.add(ProductSpecifications.priceAtLeast(filter.getMinPrice()));
+    }
+    if (filter.getMaxPrice() != null) {
+      predicates.add(ProductSpecifications.priceAtMost(filter.getMaxPrice()));
+    }
+    if (filter.getMinStock() != null || filter.getMaxStock() != null) {
+      // Read before the search: a movement committed in between is left out, as if the search had run first
+      StockTailRange tails = productRepository.findStockTailRange();
+      if (filter.getMinStock() != null) {
+        predicates.add(ProductSpecifications.stockAtLeast(filter.getMinStock(), tails));
+      }
+      if (filter.getMaxStock() != null) {
+        predicates.add(ProductSpecifications.stockAtMost(filter.getMaxStock(), tails));
+      }
+    }
+    if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+      predicates.add(ProductSpecifications.nameStartsWith(filter.getNamePrefix()));
+    }
+    if (filter.getCategoryId() != null && !filter.getCategoryId().isEmpty()) {
+      predicates.add(ProductSpecifications.inCategories(filter.getCategoryId()));
+    }
+    if (categoryName != null && !categoryName.isBlank()) {
+      List<Long> categoryIds = categoryCache.getByName(categoryName).stream().map(CategoryResponse::getId).toList();
+      if (categoryIds.isEmpty()) {
+        return Optional.empty();
+      }
+      predicates.add(ProductSpecifications.inCategories(categoryIds));
+    }
+    return Optional.of(Specification.allOf(predicates));
   }
 
   public ProductResponse getById(Long id) {
-    Product product = getProductOrThrow(id);
-    return toResponse(product);
+    return productCache.getById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
   }
 
-  public ProductResponse update(Long id, ProductUpdateRequest request) {
-    Product product = getProductOrThrow(id);
-    Category category = getCategoryOrThrow(request.getCategoryId());
+  // Cut out of the cached product when it is there; otherwise a query for just these columns, not a cache load
+  public Map<String, Object> getById(Long id, ProductFields fields) {
+    return productCache.getIfLoaded(id).map(fields::toMap)
+        .or(() -> productRepository.findFieldsById(id, fields))
+        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+  }
 
-    product.setName(request.getName());
-    product.setDescription(request.getDescription());
-    product.setPrice(request.getPrice());
-    product.setStock(request.getStock());
-    product.setCategory(category);
+  /**
+   * Updates the product if it is still at expectedVersion (the version the client's If-Match ETag was issued for);
+   * pass null to skip that check. A concurrent update committed in between is still caught by the entity version.
+   * The fields and the new stock level commit in one transaction, so a rejected stock change leaves nothing applied.
+   */
+  public ProductResponse update(Long id, ProductUpdateRequest request, Long expectedVersion) {
+    CategoryResponse category = getCategoryOrThrow(request.getCategoryId());
 
-    Product updated = productRepository.save(product);
-    return toResponse(updated);
+    // Product.stock is only the compacted snapshot; the new level is a ledger movement, recorded in the same
+    // transaction as the entity changes. The row lock keeps the version check and the re-pricing of the stock
+    // atomic against a concurrent update or delete
+    AtomicReference<Updated> result = new AtomicReference<>();
+    int stock = stockLedger.set(id, request.getStock(), "update", () -> {
+      Product locked = getProductForUpdateOrThrow(id);
+      if (expectedVersion != null && !expectedVersion.equals(locked.getVersion())) {
+        throw new PreconditionFailedException("Product was modified with id: " + id);
+      }
+      Integer current = currentStock(id);
+      CategoryStatsService.Changes changes = categoryStats.changes()
+          .remove(locked.getCategory().getId(), locked.getPrice(), current);
+      Integer previousPrice = locked.getPrice();
+      Long previousCategoryId = locked.getCategory().getId();
+
+      locked.setName(request.getName());
+      locked.setDescription(request.getDescription());
+      locked.setPrice(request.getPrice());
+      locked.setCategory(categoryRepository.getReferenceById(category.getId()));
+
+      Product saved = productRepository.saveAndFlush(locked);
+      categoryStats.apply(changes.add(category.getId(), saved.getPrice(), current));
+      changeFeed.record(ChangeEntityType.PRODUCT, id, ChangeOperation.UPDATED);
+      result.set(new Updated(saved, previousPrice, previousCategoryId));
+    });
+    Updated updated = result.get();
+    productCache.invalidate(id);
+    productListingCache.invalidateCategory(updated.previousCategoryId());
+    productListingCache.invalidateCategory(category.getId());
+    Product product = updated.product();
+    searchIndex.index(id, product.getVersion(), product.getName(), product.getDescription());
+    // Subscribers of the old category only hear about the move; later events go to the new one
+    productEvents.moved(id, updated.previousCategoryId(), category.getId());
+    productEvents.priceChanged(id, category.getId(), updated.previousPrice(), product.getPrice());
+
+    product.setStock(stock);
+    return toResponse(product, category);
+  }
+
+  public StockResponse adjustStock(Long id, int delta, String reason) {
+    int stock = stockLedger.append(id, delta, reason);
+    return StockResponse.builder()
+        .productId(id)
+        .stock(stock)
+        .build();
   }
 
   public void delete(Long id) {
-    Product product = getProductOrThrow(id);
-    productRepository.delete(product);
+    Product deleted = transactionTemplate.execute(status -> {
+      Product product = getProductForUpdateOrThrow(id);
+      Integer stock = currentStock(id);
+      productRepository.delete(product);
+      categoryStats.apply(categoryStats.changes().remove(product.getCategory().getId(), product.getPrice(), stock));
+      changeFeed.record(ChangeEntityType.PRODUCT, id, ChangeOperation.DELETED);
+      return product;
+    });
+    Long categoryId = deleted.getCategory().getId();
+    productCache.invalidate(id);
+    productListingCache.invalidateCategory(categoryId);
+    searchIndex.remove(id, deleted.getVersion());
+    productEvents.deleted(id, categoryId);
   }
 
-  private Product getProductOrThrow(Long id) {
-    return productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+  private Product getProductForUpdateOrThrow(Long id) {
+    return productRepository.findByIdForUpdate(id).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
   }
 
-  private Category getCategoryOrThrow(Long id) {
-    return categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+  private Integer currentStock(Long id) {
+    return productRepository.findStockById(id).orElse(0);
   }
 
-  private ProductResponse toResponse(Product product) {
-    CategoryResponse categoryResponse = CategoryResponse.builder()
-        .id(product.getCategory().getId())
-        .name(product.getCategory().getName())
-        .build();
+  private CategoryResponse getCategoryOrThrow(Long id) {
+    return categoryCache.getById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+  }
 
+  // The category comes from the cache: product.getCategory() is a lazy reference that was never loaded.
+  // Package-private for ProductMappingBenchmark
+  ProductResponse toResponse(Product product, CategoryResponse category) {
     return ProductResponse.builder()
         .id(product.getId())
         .name(product.getName())
         .description(product.getDescription())
         .price(product.getPrice())
         .stock(product.getStock())
-        .category(categoryResponse)
+        .version(product.getVersion())
+        .category(category)
         .build();
   }
+
+  private record Updated(Product product, Integer previousPrice, Long previousCategoryId) {
+  }
 }
@@ -0,0 +1,272 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.AvailabilityResponse;
+import com.brenda.inventory.dto.ReservationCreateRequest;
+import com.brenda.inventory.dto.ReservationResponse;
+import com.brenda.inventory.entity.ReservationStatus;
+import com.brenda.inventory.entity.StockReservation;
+import com.brenda.inventory.exceptions.ConflictException;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockReservationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-limited stock holds. Holds are persisted, but the amount reserved per product ({@link ReservedStock})
+ * and the pending expiries live in memory (rebuilt from the table on startup), so creating a hold costs a
+ * stock read and an insert no matter how many holds are active, and expiry never scans the table.
+ */
+@Service
+public class ReservationService {
+  private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+  private final StockReservationRepository reservationRepository;
+  private final ProductRepository productRepository;
+  private final StockLedger stockLedger;
+  private final ReservedStock reservedStock;
+  private final TransactionTemplate transactionTemplate;
+  private final int defaultTtlSeconds;
+  private final long wheelTickMs;
+  private final int wheelSize;
+
+  private final Map<Long, HashedTimingWheel.Timeout<Hold>> timeouts = new ConcurrentHashMap<>();
+
+  // Striped per-product locks: the availability check and the insert of a hold must not interleave.
+  // ReentrantLock rather than synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+  private final ReentrantLock[] locks = new ReentrantLock[256];
+
+  private HashedTimingWheel<Hold> wheel;
+
+  public ReservationService(StockReservationRepository reservationRepository,
+                            ProductRepository productRepository,
+                            StockLedger stockLedger,
+                            ReservedStock reservedStock,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inventory.reservations.default-ttl-seconds:300}") int defaultTtlSeconds,
+                            @Value("${inventory.reservations.wheel-tick-ms:100}") long wheelTickMs,
+                            @Value("${inventory.reservations.wheel-size:512}") int wheelSize) {
+    this.reservationRepository = reservationRepository;
+    this.productRepository = productRepository;
+    this.stockLedger = stockLedger;
+    this.reservedStock = reservedStock;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.defaultTtlSeconds = defaultTtlSeconds;
+    this.wheelTickMs = wheelTickMs;
+    this.wheelSize = wheelSize;
+
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  @PostConstruct
+  void start() {
+    wheel = new HashedTimingWheel<>(wheelTickMs, wheelSize, this::expire, "reservation-expiry");
+
+    // Holds that expired while we were down are reclaimed on the first tick
+    int loaded = 0;
+    for (StockReservation reservation : reservationRepository.findByStatus(ReservationStatus.ACTIVE)) {
+      track(reservation);
+      loaded++;
+    }
+    log.info("Loaded {} active stock reservations", loaded);
+  }
+
+  @PreDestroy
+  void stop() {
+    wheel.close();
+  }
+
+  public ReservationResponse create(ReservationCreateRequest request) {
+    Long productId = request.getProductId();
+    int quantity = request.getQuantity();
+    int ttlSeconds = request.getTtlSeconds() == null ? defaultTtlSeconds : request.getTtlSeconds();
+
+    ReentrantLock lock = lockFor(productId);
+    lock.lock();
+    try {
+      // Under the product row lock, like the ledger's commits: a hold waits for stock movements in flight, and
+      // movements queued behind it see its units as reserved
+      StockReservation saved = transactionTemplate.execute(status -> {
+        productRepository.findByIdForUpdate(productId)
+            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        int stock = productRepository.findStockById(productId).orElse(0);
+
+        if (stock - reservedStock.get(productId) < quantity) {
+          throw new ConflictException("Insufficient available stock for product with id: " + productId);
+        }
+
+        Instant now = Instant.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plus(Duration.ofSeconds(ttlSeconds)));
+        StockReservation created = reservationRepository.save(reservation);
+
+        // Counted before the row lock is released, and taken back if the hold doesn't commit after all
+        reservedStock.add(productId, quantity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+              reservedStock.remove(productId, quantity);
+            }
+          }
+        });
+        return created;
+      });
+      schedule(saved);
+      return toResponse(saved);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public ReservationResponse confirm(Long id) {
+    StockReservation reservation = getOrThrow(id);
+
+    ReentrantLock lock = lockFor(reservation.getProductId());
+    lock.lock();
+    try {
+      // The status change commits with the movement taking its units, so a rejected movement leaves the hold
+      // active rather than confirmed with nothing taken
+      stockLedger.append(reservation.getProductId(), -reservation.getQuantity(), "reservation " + id,
+          () -> confirmInTransaction(reservation));
+
+      reservation.setStatus(ReservationStatus.CONFIRMED);
+      return toResponse(reservation);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public ReservationResponse release(Long id) {
+    StockReservation reservation = getOrThrow(id);
+
+    ReentrantLock lock = lockFor(reservation.getProductId());
+    lock.lock();
+    try {
+      claim(reservation, ReservationStatus.RELEASED);
+      reservation.setStatus(ReservationStatus.RELEASED);
+      return toResponse(reservation);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public ReservationResponse getById(Long id) {
+    return toResponse(getOrThrow(id));
+  }
+
+  public AvailabilityResponse getAvailability(Long productId) {
+    int stock = productRepository.findStockById(productId)
+        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+    int reserved = reservedStock.get(productId);
+
+    return AvailabilityResponse.builder()
+        .productId(productId)
+        .stock(stock)
+        .reserved(reserved)
+        .available(Math.max(0, stock - reserved))
+        .build();
+  }
+
+  private void expire(Hold hold) {
+    if (reservationRepository.transition(hold.id(), ReservationStatus.ACTIVE, ReservationStatus.EXPIRED) == 1) {
+      untrack(hold.id(), hold.productId(), hold.quantity());
+    }
+  }
+
+  // Runs inside the ledger's transaction, before it checks the units held
+  private void confirmInTransaction(StockReservation reservation) {
+    Long id = reservation.getId();
+    Long productId = reservation.getProductId();
+    int quantity = reservation.getQuantity();
+
+    if (reservationRepository.transition(id, ReservationStatus.ACTIVE, ReservationStatus.CONFIRMED) == 0) {
+      throw new ConflictException("Reservation is no longer active with id: " + id);
+    }
+
+    // The hold stops counting for the movement that takes its units, and counts again if that is rolled back
+    reservedStock.remove(productId, quantity);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED) {
+          HashedTimingWheel.Timeout<Hold> timeout = timeouts.remove(id);
+          if (timeout != null) {
+            timeout.cancel();
+          }
+        } else {
+          reservedStock.add(productId, quantity);
+        }
+      }
+    });
+  }
+
+  private void claim(StockReservation reservation, ReservationStatus to) {
+    if (reservationRepository.transition(reservation.getId(), ReservationStatus.ACTIVE, to) == 0) {
+      throw new ConflictException("Reservation is no longer active with id: " + reservation.getId());
+    }
+    untrack(reservation.getId(), reservation.getProductId(), reservation.getQuantity());
+  }
+
+  private void track(StockReservation reservation) {
+    reservedStock.add(reservation.getProductId(), reservation.getQuantity());
+    schedule(reservation);
+  }
+
+  private void schedule(StockReservation reservation) {
+    Hold hold = new Hold(reservation.getId(), reservation.getProductId(), reservation.getQuantity());
+    // Registered before the wheel can fire it, or an overdue hold would expire without being untracked
+    wheel.schedule(hold, reservation.getExpiresAt(), timeout -> timeouts.put(hold.id(), timeout));
+  }
+
+  // Callers must have won the status transition; a hold is subtracted once however often it gets here
+  private void untrack(Long id, Long productId, int quantity) {
+    HashedTimingWheel.Timeout<Hold> timeout = timeouts.remove(id);
+    if (timeout == null) {
+      return;
+    }
+    timeout.cancel();
+    reservedStock.remove(productId, quantity);
+  }
+
+  private ReentrantLock lockFor(Long productId) {
+    return locks[Math.floorMod(productId.hashCode(), locks.length)];
+  }
+
+  private StockReservation getOrThrow(Long id) {
+    return reservationRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
+  }
+
+  private ReservationResponse toResponse(StockReservation reservation) {
+    return ReservationResponse.builder()
+        .id(reservation.getId())
+        .productId(reservation.getProductId())
+        .quantity(reservation.getQuantity())
+        .status(reservation.getStatus())
+        .expiresAt(reservation.getExpiresAt())
+        .build();
+  }
+
+  private record Hold(Long id, Long productId, int quantity) {
+  }
+}
@@ -0,0 +1,27 @@
+package com.brenda.inventory.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Units held by ACTIVE reservations, per product id. {@link ReservationService} keeps it; {@link StockLedger}
+ * reads it when validating a movement, so no stock write can take a product below what its holds promised.
+ */
+@Component
+public class ReservedStock {
+  private final Map<Long, Integer> byProduct = new ConcurrentHashMap<>();
+
+  public int get(Long productId) {
+    return byProduct.getOrDefault(productId, 0);
+  }
+
+  void add(Long productId, int quantity) {
+    byProduct.merge(productId, quantity, Integer::sum);
+  }
+
+  void remove(Long productId, int quantity) {
+    byProduct.merge(productId, -quantity, (current, delta) -> current + delta == 0 ? null : current + delta);
+  }
+}
@@ -0,0 +1,441 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ChangeEntityType;
+import com.brenda.inventory.dto.ChangeOperation;
+import com.brenda.inventory.dto.ProductStockState;
+import com.brenda.inventory.entity.StockMovement;
+import com.brenda.inventory.exceptions.ConflictException;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Single writer for stock. Callers enqueue movements and block until they are durable;
+ * the writer thread drains whatever piled up while the previous commit was running and
+ * inserts it as one transaction (group commit), so hot SKUs cost one ledger insert per
+ * change instead of a contended Product row update.
+ *
+ * <p>The same thread periodically folds the ledger into the {@code Product.stock} snapshots.
+ * Because nothing else appends movements or touches snapshots, validation against the
+ * current stock and compaction never race with each other.
+ */
+@Component
+public class StockLedger {
+  private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+  private final ProductRepository productRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final ProductCache productCache;
+  private final ProductListingCache productListingCache;
+  private final ReservedStock reservedStock;
+  private final CategoryStatsService categoryStats;
+  private final ProductEventBroadcaster productEvents;
+  private final ChangeFeedService changeFeed;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<Command> queue;
+  // Enqueuers share it; stop() takes it exclusively, so nothing is queued after the writer was told to finish
+  private final ReadWriteLock enqueueLock = new ReentrantReadWriteLock();
+  private final int maxBatch;
+  private final long compactionIntervalMs;
+
+  private volatile boolean running;
+  private Thread writer;
+
+  public StockLedger(ProductRepository productRepository,
+                     StockMovementRepository stockMovementRepository,
+                     ProductCache productCache,
+                     ProductListingCache productListingCache,
+                     ReservedStock reservedStock,
+                     CategoryStatsService categoryStats,
+                     ProductEventBroadcaster productEvents,
+                     ChangeFeedService changeFeed,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${inventory.ledger.max-batch:500}") int maxBatch,
+                     @Value("${inventory.ledger.queue-capacity:10000}") int queueCapacity,
+                     @Value("${inventory.ledger.compaction-interval-ms:5000}") long compactionIntervalMs) {
+    this.productRepository = productRepository;
+    this.stockMovementRepository = stockMovementRepository;
+    this.productCache = productCache;
+    this.productListingCache = productListingCache;
+    this.reservedStock = reservedStock;
+    this.categoryStats = categoryStats;
+    this.productEvents = productEvents;
+    this.changeFeed = changeFeed;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    this.maxBatch = maxBatch;
+    this.compactionIntervalMs = compactionIntervalMs;
+  }
+
+  @PostConstruct
+  void start() {
+    running = true;
+    writer = new Thread(this::run, "stock-ledger-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    enqueueLock.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      enqueueLock.writeLock().unlock();
+    }
+    writer.join(TimeUnit.SECONDS.toMillis(10));
+    // Whatever the writer didn't get to before the timeout would otherwise be waited on forever
+    List<Command> abandoned = new ArrayList<>();
+    queue.drainTo(abandoned);
+    RuntimeException stopped = new IllegalStateException("Stock ledger stopped");
+    abandoned.forEach(command -> command.fail(stopped));
+  }
+
+  /**
+   * Appends a signed delta and returns the resulting stock once it is committed.
+   * Rejected with 409 if it would leave the product below zero, or a removal below the units its reservations hold.
+   */
+  public int append(Long productId, int delta, String reason) {
+    return submit(new Movement(productId, delta, false, reason));
+  }
+
+  /**
+   * {@link #append} with writes of its own, committed together; see {@link #set(Long, int, String, Runnable)}.
+   */
+  public int append(Long productId, int delta, String reason, Runnable inTransaction) {
+    return submit(new Movement(productId, delta, false, reason, inTransaction, new CompletableFuture<>()));
+  }
+
+  /**
+   * Records whatever movement takes the product to exactly {@code stock}, e.g. a full PUT.
+   */
+  public int set(Long productId, int stock, String reason) {
+    return submit(new Movement(productId, stock, true, reason));
+  }
+
+  /**
+   * Like {@link #set}, but runs {@code inTransaction} first, in the transaction that records the movement:
+   * its writes and the new stock commit together, and a rejected movement rolls them back. Committed on
+   * its own rather than in a group, so its failure never undoes anyone else's movement.
+   */
+  public int set(Long productId, int stock, String reason, Runnable inTransaction) {
+    return submit(new Movement(productId, stock, true, reason, inTransaction, new CompletableFuture<>()));
+  }
+
+  /**
+   * Sets many products at once. All movements are queued before waiting, so they share group commits
+   * instead of paying one commit each. Returns the failures by product id; empty when all were applied.
+   */
+  public Map<Long, RuntimeException> setAll(Map<Long, Integer> stocks, String reason) {
+    Map<Long, Movement> movements = new HashMap<>();
+    stocks.forEach((productId, stock) -> {
+      Movement movement = new Movement(productId, stock, true, reason);
+      enqueue(movement);
+      movements.put(productId, movement);
+    });
+    return awaitAll(movements);
+  }
+
+  /**
+   * {@link #setAll} in one transaction with writes of its own. Each movement is validated first, then
+   * {@code inTransaction} gets the ids whose movement was accepted, so a rejected product only loses its
+   * own writes; if the transaction fails, every product does. Returns the failures by product id.
+   */
+  public Map<Long, RuntimeException> setAll(Map<Long, Integer> stocks, String reason, Consumer<Set<Long>> inTransaction) {
+    Map<Long, Movement> movements = new HashMap<>();
+    stocks.forEach((productId, stock) -> movements.put(productId, new Movement(productId, stock, true, reason)));
+    enqueue(new Group(List.copyOf(movements.values()), inTransaction));
+    return awaitAll(movements);
+  }
+
+  private Map<Long, RuntimeException> awaitAll(Map<Long, Movement> movements) {
+    Map<Long, RuntimeException> failures = new HashMap<>();
+    movements.forEach((productId, movement) -> {
+      try {
+        await(movement.result());
+      } catch (RuntimeException exception) {
+        failures.put(productId, exception);
+      }
+    });
+    return failures;
+  }
+
+  /**
+   * Runs a compaction now instead of waiting for the next interval. Returns the number of movements folded.
+   */
+  public int compactNow() {
+    Compaction compaction = new Compaction(new CompletableFuture<>());
+    enqueue(compaction);
+    return await(compaction.result());
+  }
+
+  private int submit(Movement movement) {
+    enqueue(movement);
+    return await(movement.result());
+  }
+
+  private void enqueue(Command command) {
+    enqueueLock.readLock().lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException("Stock ledger stopped");
+      }
+      // Blocks when the writer falls behind, pushing back on callers instead of growing without bound
+      queue.put(command);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the stock ledger", exception);
+    } finally {
+      enqueueLock.readLock().unlock();
+    }
+  }
+
+  private int await(CompletableFuture<Integer> result) {
+    try {
+      return result.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+
+  private void run() {
+    long nextCompaction = System.currentTimeMillis() + compactionIntervalMs;
+    List<Command> batch = new ArrayList<>(maxBatch);
+
+    while (running || !queue.isEmpty()) {
+      try {
+        long wait = Math.max(1, nextCompaction - System.currentTimeMillis());
+        Command first = queue.poll(Math.min(wait, 100), TimeUnit.MILLISECONDS);
+
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch, maxBatch - 1);
+          process(batch);
+          batch.clear();
+        }
+
+        if (System.currentTimeMillis() >= nextCompaction) {
+          compact();
+          nextCompaction = System.currentTimeMillis() + compactionIntervalMs;
+        }
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException exception) {
+        log.error("Stock ledger writer failed", exception);
+        // Commands already answered keep their result; the rest would leave their callers waiting forever
+        batch.forEach(command -> command.fail(exception));
+        batch.clear();
+      }
+    }
+  }
+
+  private void process(List<Command> batch) {
+    List<Movement> movements = new ArrayList<>();
+
+    for (Command command : batch) {
+      if (command instanceof Movement movement && movement.inTransaction() == null) {
+        movements.add(movement);
+      } else if (command instanceof Movement movement) {
+        commit(movements);
+        movements = new ArrayList<>();
+        commit(List.of(movement));
+      } else if (command instanceof Group group) {
+        commit(movements);
+        movements = new ArrayList<>();
+        commit(group.movements(), group.inTransaction());
+      } else if (command instanceof Compaction compaction) {
+        // Keep ordering: everything queued before the compaction request goes in first
+        commit(movements);
+        movements = new ArrayList<>();
+        try {
+          compaction.result().complete(compact());
+        } catch (RuntimeException exception) {
+          compaction.result().completeExceptionally(exception);
+        }
+      }
+    }
+
+    commit(movements);
+  }
+
+  private void commit(List<Movement> movements) {
+    commit(movements, null);
+  }
+
+  // afterValidation, if any, runs in the transaction with the ids of the movements accepted
+  private void commit(List<Movement> movements, Consumer<Set<Long>> afterValidation) {
+    if (movements.isEmpty()) {
+      return;
+    }
+
+    Map<Movement, Integer> accepted = new HashMap<>();
+    Map<Long, ProductStockState> states = new HashMap<>();
+    Map<Long, Integer> stocks = new HashMap<>();
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        movements.stream().map(Movement::inTransaction).filter(Objects::nonNull).forEach(Runnable::run);
+        List<Long> productIds = movements.stream().map(Movement::productId).distinct().sorted().toList();
+        // Waits out product updates in flight, so price and category are the committed ones when pricing the movements
+        productRepository.findAllByIdForUpdate(productIds);
+        productRepository.findStockStatesByIds(productIds).forEach(state -> {
+          states.put(state.getProductId(), state);
+          stocks.put(state.getProductId(), state.getStock());
+        });
+        CategoryStatsService.Changes changes = categoryStats.changes();
+
+        List<StockMovement> rows = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (Movement movement : movements) {
+          Integer current = stocks.get(movement.productId());
+          if (current == null) {
+            reject(movement, new ResourceNotFoundException("Product not found with id: " + movement.productId()));
+            continue;
+          }
+
+          int delta = movement.absolute() ? movement.amount() - current : movement.amount();
+          if (current + delta < 0) {
+            reject(movement, new ConflictException("Insufficient stock for product with id: " + movement.productId()));
+            continue;
+          }
+          // Creating a hold takes the row lock we hold, so the units reserved can't grow until we commit
+          if (delta < 0 && current + delta < reservedStock.get(movement.productId())) {
+            reject(movement, new ConflictException("Insufficient available stock for product with id: " + movement.productId()));
+            continue;
+          }
+
+          if (delta != 0) {
+            rows.add(toEntity(movement.productId(), delta, movement.reason(), now));
+            ProductStockState state = states.get(movement.productId());
+            changes.remove(state.getCategoryId(), state.getPrice(), current)
+                .add(state.getCategoryId(), state.getPrice(), current + delta);
+          }
+          stocks.put(movement.productId(), current + delta);
+          accepted.put(movement, current + delta);
+        }
+
+        if (afterValidation != null) {
+          afterValidation.accept(accepted.keySet().stream().map(Movement::productId).collect(Collectors.toSet()));
+        }
+        stockMovementRepository.saveAll(rows);
+        categoryStats.apply(changes);
+        // One feed entry per product whose stock moved, however many movements it had in this group
+        changeFeed.record(states.values().stream()
+            .filter(state -> !state.getStock().equals(stocks.get(state.getProductId())))
+            .map(state -> ChangeFeedService.change(ChangeEntityType.PRODUCT, state.getProductId(), ChangeOperation.UPDATED))
+            .toList());
+      });
+    } catch (RuntimeException exception) {
+      // Rejected movements were already answered; completing them again is a no-op
+      movements.forEach(movement -> movement.result().completeExceptionally(exception));
+      return;
+    }
+
+    // Only acknowledge once the whole group is committed, and after cached responses stop showing the old stock.
+    // It is committed either way, so a failing hook still acknowledges before run() logs it
+    try {
+      accepted.keySet().forEach(movement -> productCache.invalidate(movement.productId()));
+      states.values().stream()
+          .filter(state -> !state.getStock().equals(stocks.get(state.getProductId())))
+          .map(ProductStockState::getCategoryId)
+          .distinct()
+          .forEach(productListingCache::invalidateCategory);
+      states.forEach((id, state) -> productEvents.stockChanged(id, state.getCategoryId(), state.getStock(), stocks.get(id)));
+    } finally {
+      accepted.forEach((movement, stock) -> movement.result().complete(stock));
+    }
+  }
+
+  private int compact() {
+    Integer folded = transactionTemplate.execute(status -> stockMovementRepository.findLastUncompactedId()
+        .map(upToId -> {
+          productRepository.foldMovements(upToId);
+          return stockMovementRepository.markCompacted(upToId);
+        })
+        .orElse(0));
+
+    if (folded != null && folded > 0) {
+      log.debug("Compacted {} stock movements into product snapshots", folded);
+    }
+    return folded == null ? 0 : folded;
+  }
+
+  // A movement with writes of its own takes them down with it, rolling back the transaction
+  private static void reject(Movement movement, RuntimeException exception) {
+    if (movement.inTransaction() != null) {
+      throw exception;
+    }
+    movement.result().completeExceptionally(exception);
+  }
+
+  private StockMovement toEntity(Long productId, int delta, String reason, Instant createdAt) {
+    StockMovement row = new StockMovement();
+    row.setProductId(productId);
+    row.setDelta(delta);
+    row.setReason(reason);
+    row.setCreatedAt(createdAt);
+    return row;
+  }
+
+  private sealed interface Command permits Movement, Group, Compaction {
+    void fail(RuntimeException exception);
+  }
+
+  // amount is a delta, or the target stock when absolute is true; inTransaction is usually null
+  private record Movement(Long productId, int amount, boolean absolute, String reason, Runnable inTransaction,
+                          CompletableFuture<Integer> result) implements Command {
+    Movement(Long productId, int amount, boolean absolute, String reason) {
+      this(productId, amount, absolute, reason, null, new CompletableFuture<>());
+    }
+
+    @Override
+    public void fail(RuntimeException exception) {
+      result.completeExceptionally(exception);
+    }
+  }
+
+  // Movements committed together, alone, with writes that depend on which of them were accepted
+  private record Group(List<Movement> movements, Consumer<Set<Long>> inTransaction) implements Command {
+    @Override
+    public void fail(RuntimeException exception) {
+      movements.forEach(movement -> movement.fail(exception));
+    }
+  }
+
+  private record Compaction(CompletableFuture<Integer> result) implements Command {
+    @Override
+    public void fail(RuntimeException exception) {
+      result.completeExceptionally(exception);
+    }
+  }
+}
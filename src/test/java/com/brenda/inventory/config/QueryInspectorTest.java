@@ -0,0 +1,30 @@
+package com.brenda.inventory.config;
+
+import com.brenda.inventory.dto.QueryShapeStatsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryInspectorTest {
+
+  @Test
+  void fullShapeTable_shouldKeepCountingKnownShapesAndLumpOnlyNewOnes() {
+    QueryInspector inspector = new QueryInspector(new SimpleMeterRegistry(), 1000, 10, 0, false, 2, 10);
+
+    inspector.executed("select * from product where id = 1", 1_000);
+    inspector.executed("select * from category where id = 1", 1_000);
+    inspector.executed("select * from stock_movement where id = 1", 1_000);
+    inspector.executed("select * from product where id = 2", 1_000);
+
+    Map<String, Long> executions = inspector.shapes().stream()
+        .collect(Collectors.toMap(QueryShapeStatsResponse::getSql, QueryShapeStatsResponse::getExecutions));
+    assertThat(executions).containsOnly(
+        Map.entry("select * from product where id = ?", 2L),
+        Map.entry("select * from category where id = ?", 1L),
+        Map.entry("<other>", 1L));
+  }
+}
@@ -3,6 +3,7 @@ package com.brenda.inventory.controllers;
 import com.brenda.inventory.dto.CategoryCreateRequest;
 import com.brenda.inventory.dto.CategoryResponse;
 import com.brenda.inventory.dto.CategoryUpdateRequest;
+import com.brenda.inventory.dto.PageResponse;
 import com.brenda.inventory.exceptions.GlobalExceptionHandler;
 import com.brenda.inventory.exceptions.ResourceNotFoundException;
 import com.brenda.inventory.services.CategoryService;
@@ -19,6 +20,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -43,15 +45,44 @@ class CategoryControllerTest {
 
   @Test
   void getAll_shouldReturnList() throws Exception {
-    when(categoryService.getAll()).thenReturn(List.of(
+    when(categoryService.getAll(50, null)).thenReturn(PageResponse.<CategoryResponse>builder().items(List.of(
         CategoryResponse.builder().id(1L).name("ropa").build(),
         CategoryResponse.builder().id(2L).name("tecnologia").build()
-    ));
+    )).build());
 
     mockMvc.perform(get("/categories"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(2))
-        .andExpect(jsonPath("$[0].name").value("ropa"));
+        .andExpect(jsonPath("$.items.length()").value(2))
+        .andExpect(jsonPath("$.items[0].name").value("ropa"));
+  }
+
+  @Test
+  void getAll_whenETagMatches_shouldReturn304() throws Exception {
+    when(categoryService.getAll(50, null)).thenReturn(PageResponse.<CategoryResponse>builder().items(List.of(
+        CategoryResponse.builder().id(1L).name("ropa").version(0L).build()
+    )).build());
+
+    String etag = mockMvc.perform(get("/categories"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/categories").header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void getAll_withLimitAndCursor_shouldPassThemToService() throws Exception {
+    when(categoryService.getAll(1, "aWQ6MQ")).thenReturn(PageResponse.<CategoryResponse>builder()
+        .items(List.of(CategoryResponse.builder().id(2L).name("tecnologia").build()))
+        .nextCursor("aWQ6Mg")
+        .build());
+
+    mockMvc.perform(get("/categories").param("limit", "1").param("after", "aWQ6MQ"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].name").value("tecnologia"))
+        .andExpect(jsonPath("$.nextCursor").value("aWQ6Mg"));
   }
 
   @Test
@@ -103,7 +134,7 @@ class CategoryControllerTest {
     CategoryUpdateRequest request = new CategoryUpdateRequest();
     request.setName("ropa nueva");
 
-    when(categoryService.update(eq(id), any(CategoryUpdateRequest.class)))
+    when(categoryService.update(eq(id), any(CategoryUpdateRequest.class), isNull()))
         .thenReturn(CategoryResponse.builder().id(id).name("ropa nueva").build());
 
     mockMvc.perform(put("/categories/{id}", id)
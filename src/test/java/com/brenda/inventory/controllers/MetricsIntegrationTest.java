@@ -0,0 +1,59 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false) // tests disable metrics export unless asked
+class MetricsIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Test
+  void prometheusEndpoint_shouldExposeRequestRepositoryErrorAndPoolMetrics() throws Exception {
+    Category category = new Category();
+    category.setName("metricas");
+    categoryRepository.save(category);
+    productRepository.findByCategory_Name("metricas");
+
+    mockMvc.perform(get("/categories/{id}", category.getId())).andExpect(status().isOk());
+    mockMvc.perform(get("/products/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    mockMvc.perform(post("/products")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+        .andExpect(status().isBadRequest());
+
+    String scrape = mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertThat(scrape)
+        .containsPattern("http_server_requests_seconds_bucket\\{[^}]*handler=\"CategoryController.getById\"")
+        .containsPattern("http_server_requests_seconds_count\\{[^}]*handler=\"ProductController.getById\"[^}]*status=\"404\"")
+        .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findByCategory_Name\"")
+        .containsPattern("inventory_http_errors_total\\{exception=\"ResourceNotFoundException\",status=\"404\"} [1-9]")
+        .containsPattern("inventory_http_errors_total\\{exception=\"MethodArgumentNotValidException\",status=\"400\"} [1-9]")
+        .contains("hikaricp_connections_pending", "hikaricp_connections_active", "hikaricp_connections_max");
+  }
+}
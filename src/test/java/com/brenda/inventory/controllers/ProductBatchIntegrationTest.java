@@ -0,0 +1,92 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "inventory.batch.chunk-size=3")
+@AutoConfigureMockMvc
+class ProductBatchIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void createBatch_shouldInsertValidItemsAcrossChunksAndReportInvalidOnes() throws Exception {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    List<ProductCreateRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      requests.add(request("producto " + i, ropa.getId()));
+    }
+    requests.get(2).setName("");          // fails @NotBlank
+    requests.get(5).setCategoryId(9999L); // unknown category
+
+    mockMvc.perform(post("/products/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(requests)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(7))
+        .andExpect(jsonPath("$.created").value(5))
+        .andExpect(jsonPath("$.createdIds.length()").value(5))
+        .andExpect(jsonPath("$.errors.length()").value(2))
+        .andExpect(jsonPath("$.errors[0].index").value(2))
+        .andExpect(jsonPath("$.errors[0].errors.name").exists())
+        .andExpect(jsonPath("$.errors[1].index").value(5))
+        .andExpect(jsonPath("$.errors[1].errors.categoryId").value("Category not found with id: 9999"));
+
+    assertThat(productRepository.count()).isEqualTo(5);
+  }
+
+  @Test
+  void createBatch_whenEmpty_shouldReturn400() throws Exception {
+    mockMvc.perform(post("/products/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[]"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private ProductCreateRequest request(String name, Long categoryId) {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName(name);
+    request.setDescription("descripcion");
+    request.setPrice(100);
+    request.setStock(1);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+}
@@ -1,12 +1,25 @@
 package com.brenda.inventory.controllers;
 
+import com.brenda.inventory.dto.AvailabilityResponse;
+import com.brenda.inventory.dto.BatchItemError;
 import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.PageResponse;
+import com.brenda.inventory.dto.ProductBatchResponse;
 import com.brenda.inventory.dto.ProductCreateRequest;
 import com.brenda.inventory.dto.ProductResponse;
 import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.dto.StockAdjustRequest;
+import com.brenda.inventory.dto.StockResponse;
+import com.brenda.inventory.exceptions.BadRequestException;
+import com.brenda.inventory.exceptions.ConflictException;
 import com.brenda.inventory.exceptions.GlobalExceptionHandler;
 import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.services.CategoryCache;
+import com.brenda.inventory.services.ProductBatchService;
+import com.brenda.inventory.services.ProductExportService;
+import com.brenda.inventory.services.ProductListingCache;
 import com.brenda.inventory.services.ProductService;
+import com.brenda.inventory.services.ReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,11 +30,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -30,7 +47,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
-@Import(GlobalExceptionHandler.class) // para que aplique el @ControllerAdvice en estos tests
+@Import({GlobalExceptionHandler.class, ProductListingCache.class}) // para que aplique el @ControllerAdvice en estos tests
 class ProductControllerTest {
 
   @Autowired
@@ -42,6 +59,19 @@ class ProductControllerTest {
   @MockBean
   private ProductService productService;
 
+  @MockBean
+  private ProductBatchService productBatchService;
+
+  @MockBean
+  private ReservationService reservationService;
+
+  @MockBean
+  private ProductExportService productExportService;
+
+  // Lo usa ProductListingCache para invalidar por id de categoria
+  @MockBean
+  private CategoryCache categoryCache;
+
   @Test
   void getAll_withoutCategory_shouldReturnList() throws Exception {
     ProductResponse p1 = ProductResponse.builder()
@@ -62,24 +92,55 @@ class ProductControllerTest {
         .category(CategoryResponse.builder().id(2L).name("tecnologia").build())
         .build();
 
-    when(productService.getAll(null)).thenReturn(List.of(p1, p2));
+    when(productService.getAll(null, 50, null))
+        .thenReturn(PageResponse.<ProductResponse>builder().items(List.of(p1, p2)).nextCursor("aWQ6Mg").build());
 
     mockMvc.perform(get("/products"))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-        .andExpect(jsonPath("$.length()").value(2))
-        .andExpect(jsonPath("$[0].id").value(1))
-        .andExpect(jsonPath("$[0].name").value("remera"))
-        .andExpect(jsonPath("$[0].category.name").value("ropa"));
+        .andExpect(jsonPath("$.items.length()").value(2))
+        .andExpect(jsonPath("$.items[0].id").value(1))
+        .andExpect(jsonPath("$.items[0].name").value("remera"))
+        .andExpect(jsonPath("$.items[0].category.name").value("ropa"))
+        .andExpect(jsonPath("$.nextCursor").value("aWQ6Mg"));
   }
 
   @Test
   void getAll_withCategoryParam_shouldPassItToService() throws Exception {
-    when(productService.getAll("ropa")).thenReturn(List.of());
+    when(productService.getAll("ropa", 50, null))
+        .thenReturn(PageResponse.<ProductResponse>builder().items(List.of()).build());
 
     mockMvc.perform(get("/products").param("category", "ropa"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(0));
+        .andExpect(jsonPath("$.items.length()").value(0))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  void getAll_withLimitAndCursor_shouldPassThemToService() throws Exception {
+    when(productService.getAll(null, 10, "aWQ6Mg"))
+        .thenReturn(PageResponse.<ProductResponse>builder().items(List.of()).build());
+
+    mockMvc.perform(get("/products").param("limit", "10").param("after", "aWQ6Mg"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(0));
+  }
+
+  @Test
+  void getAll_withInvalidCursor_shouldReturn400() throws Exception {
+    when(productService.getAll(null, 50, "garbage"))
+        .thenThrow(new BadRequestException("Invalid cursor: garbage"));
+
+    mockMvc.perform(get("/products").param("after", "garbage"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Invalid cursor: garbage"));
+  }
+
+  @Test
+  void export_withUnknownFormat_shouldReturn400() throws Exception {
+    mockMvc.perform(get("/products/export").param("format", "xml"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Unsupported file format: xml"));
   }
 
   @Test
@@ -92,6 +153,46 @@ class ProductControllerTest {
         .andExpect(content().string("Product not found with id: 999"));
   }
 
+  @Test
+  void getById_whenETagMatches_shouldReturn304WithoutBody() throws Exception {
+    when(productService.getById(1L)).thenReturn(product(3L, 10));
+
+    String etag = mockMvc.perform(get("/products/{id}", 1L))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"3-10-1\""))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/products/{id}", 1L).header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void update_whenIfMatchIsStale_shouldReturn412WithoutUpdating() throws Exception {
+    when(productService.getById(1L)).thenReturn(product(4L, 10));
+
+    mockMvc.perform(put("/products/{id}", 1L)
+            .header("If-Match", "\"3-10-1\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateRequest())))
+        .andExpect(status().isPreconditionFailed());
+
+    verify(productService, never()).update(any(), any(), any());
+  }
+
+  @Test
+  void update_whenIfMatchIsCurrent_shouldPassVersionAndReturnNewETag() throws Exception {
+    when(productService.getById(1L)).thenReturn(product(3L, 10));
+    when(productService.update(eq(1L), any(ProductUpdateRequest.class), eq(3L))).thenReturn(product(4L, 20));
+
+    mockMvc.perform(put("/products/{id}", 1L)
+            .header("If-Match", "\"3-10-1\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateRequest())))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"4-20-1\""));
+  }
+
   @Test
   void create_whenInvalidBody_shouldReturn400WithFieldErrors() throws Exception {
     // name blank, price null, stock null, categoryId null -> deben explotar las validations
@@ -139,6 +240,37 @@ class ProductControllerTest {
         .andExpect(jsonPath("$.category.name").value("ropa"));
   }
 
+  @Test
+  void createBatch_shouldReturnPerItemReport() throws Exception {
+    ProductCreateRequest valid = new ProductCreateRequest();
+    valid.setName("remera");
+    valid.setPrice(1000);
+    valid.setStock(10);
+    valid.setCategoryId(1L);
+
+    ProductCreateRequest invalid = new ProductCreateRequest();
+    invalid.setName("");
+
+    ProductBatchResponse response = ProductBatchResponse.builder()
+        .received(2)
+        .created(1)
+        .createdIds(List.of(1L))
+        .errors(List.of(BatchItemError.builder().index(1).errors(Map.of("name", "Product name is required")).build()))
+        .build();
+
+    when(productBatchService.createAll(any())).thenReturn(response);
+
+    // The invalid item must reach the service instead of failing the whole request with a 400
+    mockMvc.perform(post("/products/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(valid, invalid))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(2))
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.errors[0].index").value(1))
+        .andExpect(jsonPath("$.errors[0].errors.name").value("Product name is required"));
+  }
+
   @Test
   void update_whenValid_shouldReturn200AndBody() throws Exception {
     Long id = 1L;
@@ -159,7 +291,7 @@ class ProductControllerTest {
         .category(CategoryResponse.builder().id(1L).name("ropa").build())
         .build();
 
-    when(productService.update(eq(id), any(ProductUpdateRequest.class))).thenReturn(response);
+    when(productService.update(eq(id), any(ProductUpdateRequest.class), isNull())).thenReturn(response);
 
     mockMvc.perform(put("/products/{id}", id)
             .contentType(MediaType.APPLICATION_JSON)
@@ -183,7 +315,7 @@ class ProductControllerTest {
     request.setStock(1);
     request.setCategoryId(1L);
 
-    when(productService.update(eq(id), any(ProductUpdateRequest.class)))
+    when(productService.update(eq(id), any(ProductUpdateRequest.class), isNull()))
         .thenThrow(new ResourceNotFoundException("Product not found with id: " + id));
 
     mockMvc.perform(put("/products/{id}", id)
@@ -216,6 +348,58 @@ class ProductControllerTest {
   }
 
 
+  @Test
+  void adjustStock_whenValid_shouldReturnNewStock() throws Exception {
+    StockAdjustRequest request = new StockAdjustRequest();
+    request.setDelta(-3);
+    request.setReason("order 42");
+
+    when(productService.adjustStock(1L, -3, "order 42"))
+        .thenReturn(StockResponse.builder().productId(1L).stock(7).build());
+
+    mockMvc.perform(post("/products/{id}/stock/adjust", 1L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.productId").value(1))
+        .andExpect(jsonPath("$.stock").value(7));
+  }
+
+  @Test
+  void adjustStock_whenInsufficientStock_shouldReturn409() throws Exception {
+    StockAdjustRequest request = new StockAdjustRequest();
+    request.setDelta(-100);
+
+    when(productService.adjustStock(1L, -100, null))
+        .thenThrow(new ConflictException("Insufficient stock for product with id: 1"));
+
+    mockMvc.perform(post("/products/{id}/stock/adjust", 1L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isConflict())
+        .andExpect(content().string("Insufficient stock for product with id: 1"));
+  }
+
+  @Test
+  void adjustStock_whenDeltaMissing_shouldReturn400() throws Exception {
+    mockMvc.perform(post("/products/{id}/stock/adjust", 1L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.delta").exists());
+  }
+
+  @Test
+  void getAvailability_shouldReturnStockMinusHolds() throws Exception {
+    when(reservationService.getAvailability(1L))
+        .thenReturn(AvailabilityResponse.builder().productId(1L).stock(10).reserved(4).available(6).build());
+
+    mockMvc.perform(get("/products/{id}/availability", 1L))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.reserved").value(4))
+        .andExpect(jsonPath("$.available").value(6));
+  }
+
   @Test
   void delete_whenExists_shouldReturn204() throws Exception {
     Long id = 1L;
@@ -239,4 +423,24 @@ class ProductControllerTest {
   }
 
 
+
+  private ProductResponse product(Long version, int stock) {
+    return ProductResponse.builder()
+        .id(1L)
+        .name("remera")
+        .price(1000)
+        .stock(stock)
+        .version(version)
+        .category(CategoryResponse.builder().id(1L).name("ropa").version(1L).build())
+        .build();
+  }
+
+  private ProductUpdateRequest updateRequest() {
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName("remera");
+    request.setPrice(1000);
+    request.setStock(20);
+    request.setCategoryId(1L);
+    return request;
+  }
 }
@@ -0,0 +1,164 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import com.brenda.inventory.services.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductEventStreamIntegrationTest {
+  private static final Pattern EVENT_NAME = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryStatsRepository categoryStatsRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+    categoryStatsRepository.deleteAll();
+  }
+
+  @Test
+  void categoryStream_shouldCarryCommittedChangesOfThatCategoryOnly() throws Exception {
+    Long ropa = category("ropa");
+    Long calzado = category("calzado");
+    Long remera = create("remera", 1000, 10, ropa);
+    Long zapatilla = create("zapatilla", 5000, 10, calzado);
+
+    MockHttpServletResponse stream = subscribe("/products/events?categoryIds=" + ropa);
+
+    productService.adjustStock(zapatilla, -1, "order");
+    productService.adjustStock(remera, -6, "order");
+    productService.adjustStock(remera, 10, "restock");
+    productService.update(remera, update("remera", 1200, 14, ropa), null);
+    productService.delete(remera);
+
+    String body = awaitEvents(stream, 6);
+    assertThat(eventNames(body)).containsExactly(
+        "STOCK_CHANGED", "LOW_STOCK", "STOCK_CHANGED", "LOW_STOCK_CLEARED", "PRICE_CHANGED", "DELETED");
+    assertThat(body)
+        .contains("\"stock\":4,\"previousStock\":10")
+        .contains("\"price\":1200,\"previousPrice\":1000")
+        .doesNotContain("\"productId\":" + zapatilla + ",");
+  }
+
+  @Test
+  void categoryChange_shouldReachSubscribersOfBothCategories() throws Exception {
+    Long ropa = category("ropa");
+    Long calzado = category("calzado");
+    Long remera = create("remera", 1000, 10, ropa);
+    Long buzo = create("buzo", 3000, 10, ropa);
+
+    MockHttpServletResponse previous = subscribe("/products/events?categoryIds=" + ropa);
+    MockHttpServletResponse next = subscribe("/products/events?categoryIds=" + calzado);
+
+    productService.update(remera, update("remera", 1200, 10, calzado), null);
+    productService.adjustStock(buzo, -1, "order");
+
+    String nextBody = awaitEvents(next, 2);
+    assertThat(eventNames(nextBody)).containsExactly("MOVED", "PRICE_CHANGED");
+    String previousBody = awaitEvents(previous, 2);
+    assertThat(eventNames(previousBody)).containsExactly("MOVED", "STOCK_CHANGED");
+    assertThat(previousBody).contains("\"categoryId\":" + calzado + ",\"previousCategoryId\":" + ropa);
+  }
+
+  @Test
+  void productStream_shouldFilterByProductId() throws Exception {
+    Long ropa = category("ropa");
+    Long remera = create("remera", 1000, 10, ropa);
+    Long buzo = create("buzo", 3000, 10, ropa);
+
+    MockHttpServletResponse stream = subscribe("/products/events?productIds=" + buzo);
+
+    productService.adjustStock(remera, -1, "order");
+    productService.adjustStock(buzo, -2, "order");
+
+    String body = awaitEvents(stream, 1);
+    assertThat(eventNames(body)).containsExactly("STOCK_CHANGED");
+    assertThat(body).contains("\"productId\":" + buzo + ",");
+  }
+
+  private MockHttpServletResponse subscribe(String uri) throws Exception {
+    MockHttpServletResponse response = mockMvc.perform(get(uri))
+        .andExpect(request().asyncStarted())
+        .andReturn()
+        .getResponse();
+    assertThat(response.getContentAsString()).contains(":subscribed");
+    return response;
+  }
+
+  // Events are written by the dispatcher threads after the writes return. Each stream gets them in publication
+  // order, so once the last expected one is there, anything leaking through the filter would be there too
+  private String awaitEvents(MockHttpServletResponse stream, int count) {
+    return await().atMost(Duration.ofSeconds(5))
+        .until(stream::getContentAsString, body -> eventNames(body).size() >= count);
+  }
+
+  private static List<String> eventNames(String body) {
+    Matcher matcher = EVENT_NAME.matcher(body);
+    return matcher.results().map(result -> result.group(1)).toList();
+  }
+
+  private Long category(String name) {
+    Category category = new Category();
+    category.setName(name);
+    return categoryRepository.save(category).getId();
+  }
+
+  private Long create(String name, int price, int stock, Long categoryId) {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName(name);
+    request.setPrice(price);
+    request.setStock(stock);
+    request.setCategoryId(categoryId);
+    return productService.create(request).getId();
+  }
+
+  private ProductUpdateRequest update(String name, int price, int stock, Long categoryId) {
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName(name);
+    request.setPrice(price);
+    request.setStock(stock);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+}
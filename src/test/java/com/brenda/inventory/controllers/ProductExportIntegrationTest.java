@@ -0,0 +1,108 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.FileFormat;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.ProductExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductExportIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductExportService productExportService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @BeforeEach
+  void setUp() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    productRepository.save(product("remera", "algodon", ropa));
+    productRepository.save(product("buzo", "con capucha, \"oversize\"", ropa));
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void export_asNdjson_shouldWriteOneJsonObjectPerLine() throws Exception {
+    String body = mockMvc.perform(get("/products/export").param("format", "ndjson"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+        .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+    String[] lines = body.split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).contains("\"name\":\"remera\"").contains("\"name\":\"ropa\"");
+    assertThat(lines[1]).contains("\"name\":\"buzo\"");
+  }
+
+  @Test
+  void export_asCsv_shouldWriteHeaderAndQuoteSpecialCharacters() throws Exception {
+    String body = mockMvc.perform(get("/products/export").param("format", "csv"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv;charset=UTF-8"))
+        .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+    String[] lines = body.split("\n");
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).isEqualTo("id,name,description,price,stock,categoryId,categoryName");
+    assertThat(lines[1]).contains(",remera,algodon,1000,10,");
+    assertThat(lines[2]).contains(",buzo,\"con capucha, \"\"oversize\"\"\",1000,10,");
+  }
+
+  @Test
+  void export_asNdjson_shouldFlushOnlyAfterTheFirstRowAndAtTheEnd() throws Exception {
+    AtomicInteger flushes = new AtomicInteger();
+    ByteArrayOutputStream out = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        flushes.incrementAndGet();
+      }
+    };
+
+    assertThat(productExportService.export(FileFormat.NDJSON, out)).isEqualTo(2);
+    assertThat(flushes).hasValue(2);
+  }
+
+  private Product product(String name, String description, Category category) {
+    Product product = new Product();
+    product.setName(name);
+    product.setDescription(description);
+    product.setPrice(1000);
+    product.setStock(10);
+    product.setCategory(category);
+    return product;
+  }
+}
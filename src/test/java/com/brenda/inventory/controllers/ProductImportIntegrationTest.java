@@ -0,0 +1,191 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ReservationCreateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import com.brenda.inventory.services.ProductCache;
+import com.brenda.inventory.services.ReservationService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductImportIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private ProductCache productCache;
+
+  @Autowired
+  private ReservationService reservationService;
+
+  private Category ropa;
+
+  @BeforeEach
+  void setUp() {
+    ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+  }
+
+  @AfterEach
+  void tearDown() {
+    productCache.invalidateAll();
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void importCsv_shouldCreateValidRowsAndReportInvalidLines() throws Exception {
+    String csv = """
+        name,description,price,stock,categoryId
+        remera,"algodon, blanca",1000,10,%1$d
+        ,sin nombre,1000,10,%1$d
+        buzo,,abc,5,%1$d
+        campera,"multi
+        linea",5000,3,%1$d
+        """.formatted(ropa.getId());
+
+    mockMvc.perform(post("/imports").param("format", "csv").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("COMPLETED"))
+        .andExpect(jsonPath("$.linesRead").value(4))
+        .andExpect(jsonPath("$.created").value(2))
+        .andExpect(jsonPath("$.failed").value(2))
+        .andExpect(jsonPath("$.errors[0].line").value(3))
+        .andExpect(jsonPath("$.errors[0].errors.name").exists())
+        .andExpect(jsonPath("$.errors[1].line").value(4))
+        .andExpect(jsonPath("$.errors[1].errors.price").value("Must be a whole number: abc"));
+
+    List<Product> products = productRepository.findAll();
+    assertThat(products).extracting(Product::getName).containsExactlyInAnyOrder("remera", "campera");
+    assertThat(products).extracting(Product::getDescription).contains("algodon, blanca", "multi\nlinea");
+  }
+
+  @Test
+  void importCsv_whenQuoteNeverCloses_shouldFailTheJobInsteadOfBufferingTheRest() throws Exception {
+    StringBuilder csv = new StringBuilder("name,description,price,stock,categoryId\n")
+        .append("remera,\"sin cerrar,1000,10,").append(ropa.getId()).append('\n');
+    String row = "buzo,abrigo,2000,5," + ropa.getId() + "\n";
+    while (csv.length() < 70_000) {
+      csv.append(row);
+    }
+
+    mockMvc.perform(post("/imports").param("format", "csv").contentType("text/csv").content(csv.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("FAILED"))
+        .andExpect(jsonPath("$.message").value(
+            "Read failed: Record starting at line 2 exceeds 65536 characters (unterminated quote?)"));
+
+    assertThat(productRepository.findAll()).isEmpty();
+  }
+
+  @Test
+  void importNdjson_withIds_shouldUpdateExistingProductsAndStock() throws Exception {
+    Product remera = new Product();
+    remera.setName("remera");
+    remera.setPrice(1000);
+    remera.setStock(10);
+    remera.setCategory(ropa);
+    remera = productRepository.save(remera);
+
+    String ndjson = """
+        {"id":%1$d,"name":"remera lisa","price":1200,"stock":25,"categoryId":%2$d}
+        {"id":999999,"name":"fantasma","price":1,"stock":1,"categoryId":%2$d}
+        {"name":"buzo","price":3000,"stock":4,"categoryId":999999}
+        not json
+        """.formatted(remera.getId(), ropa.getId());
+
+    String body = mockMvc.perform(post("/imports").content(ndjson))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("COMPLETED"))
+        .andExpect(jsonPath("$.updated").value(1))
+        .andExpect(jsonPath("$.created").value(0))
+        .andExpect(jsonPath("$.failed").value(3))
+        .andReturn().getResponse().getContentAsString();
+
+    Product updated = productRepository.findById(remera.getId()).orElseThrow();
+    assertThat(updated.getName()).isEqualTo("remera lisa");
+    assertThat(updated.getPrice()).isEqualTo(1200);
+    assertThat(productRepository.findStockById(remera.getId())).contains(25);
+
+    Integer id = JsonPath.read(body, "$.id");
+    mockMvc.perform(get("/imports/{id}", id))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(1));
+  }
+
+  @Test
+  void importNdjson_whenLedgerRejectsStock_shouldLeaveTheWholeRowUnchanged() throws Exception {
+    Product remera = new Product();
+    remera.setName("remera");
+    remera.setPrice(1000);
+    remera.setStock(10);
+    remera.setCategory(ropa);
+    remera = productRepository.save(remera);
+    ReservationCreateRequest hold = new ReservationCreateRequest();
+    hold.setProductId(remera.getId());
+    hold.setQuantity(8);
+    Long holdId = reservationService.create(hold).getId();
+
+    try {
+      String ndjson = """
+          {"id":%1$d,"name":"remera lisa","price":1200,"stock":5,"categoryId":%2$d}
+          """.formatted(remera.getId(), ropa.getId());
+
+      mockMvc.perform(post("/imports").content(ndjson))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.updated").value(0))
+          .andExpect(jsonPath("$.failed").value(1))
+          .andExpect(jsonPath("$.errors[0].errors.stock").value("Insufficient available stock for product with id: " + remera.getId()));
+
+      Product unchanged = productRepository.findById(remera.getId()).orElseThrow();
+      assertThat(unchanged.getName()).isEqualTo("remera");
+      assertThat(unchanged.getPrice()).isEqualTo(1000);
+      assertThat(productRepository.findStockById(remera.getId())).contains(10);
+    } finally {
+      reservationService.release(holdId);
+    }
+  }
+
+  @Test
+  void importFile_whenFormatUnsupported_shouldReturn400() throws Exception {
+    mockMvc.perform(post("/imports").param("format", "xml").content("<products/>"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Unsupported file format: xml"));
+  }
+
+  @Test
+  void getById_whenUnknown_shouldReturn404() throws Exception {
+    mockMvc.perform(get("/imports/{id}", 999999L))
+        .andExpect(status().isNotFound());
+  }
+}
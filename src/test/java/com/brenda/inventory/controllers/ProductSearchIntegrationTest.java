@@ -0,0 +1,139 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.CategoryCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductSearchIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryCache categoryCache;
+
+  private Category ropa;
+
+  @BeforeEach
+  void setUp() {
+    ropa = category("ropa");
+    Category hogar = category("hogar");
+    save("remera", 500, 2, ropa);
+    save("remera lisa", 900, 8, ropa);
+    save("buzo", 1500, 1, ropa);
+    save("remera de cama", 900, 3, hogar);
+    categoryCache.invalidateAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void filters_shouldNarrowTheListing() throws Exception {
+    mockMvc.perform(get("/products")
+            .param("namePrefix", "remera")
+            .param("minPrice", "600")
+            .param("categoryId", String.valueOf(ropa.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].name", contains("remera lisa")));
+
+    mockMvc.perform(get("/products").param("maxStock", "2").param("sort", "name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].name", contains("buzo", "remera")));
+
+    mockMvc.perform(get("/products").param("category", "hogar").param("maxPrice", "1000"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].name", contains("remera de cama")));
+  }
+
+  @Test
+  void sort_shouldPageThroughEveryProductOnceInOrder() throws Exception {
+    List<String> names = new ArrayList<>();
+    String after = null;
+    do {
+      MockHttpServletRequestBuilder request = get("/products").param("sort", "-price,name").param("limit", "1");
+      if (after != null) {
+        request.param("after", after);
+      }
+      JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getContentAsString());
+      page.get("items").forEach(item -> names.add(item.get("name").asText()));
+      after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+    } while (after != null);
+
+    assertThat(names).containsExactly("buzo", "remera de cama", "remera lisa", "remera");
+  }
+
+  @Test
+  void search_withFields_shouldNarrowTheItems() throws Exception {
+    mockMvc.perform(get("/products").param("namePrefix", "buzo").param("fields", "price"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].price").value(1500))
+        .andExpect(jsonPath("$.items[0].name").doesNotExist());
+  }
+
+  @Test
+  void invalidSortOrCursor_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/products").param("sort", "cost"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string(startsWith("Cannot sort by: cost")));
+
+    JsonNode page = objectMapper.readTree(mockMvc.perform(get("/products").param("sort", "name").param("limit", "1"))
+        .andReturn().getResponse().getContentAsString());
+    mockMvc.perform(get("/products").param("sort", "-price").param("after", page.get("nextCursor").asText()))
+        .andExpect(status().isBadRequest());
+  }
+
+  private Category category(String name) {
+    Category category = new Category();
+    category.setName(name);
+    return categoryRepository.save(category);
+  }
+
+  private void save(String name, int price, int stock, Category category) {
+    Product product = new Product();
+    product.setName(name);
+    product.setPrice(price);
+    product.setStock(stock);
+    product.setCategory(category);
+    productRepository.save(product);
+  }
+}
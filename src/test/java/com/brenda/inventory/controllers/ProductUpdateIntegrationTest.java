@@ -0,0 +1,108 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import com.brenda.inventory.services.CategoryCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PUT through the real service and repositories: the controller tests mock the service
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductUpdateIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private CategoryCache categoryCache;
+
+  private Category ropa;
+  private Category hogar;
+  private Long productId;
+
+  @BeforeEach
+  void setUp() {
+    ropa = category("ropa");
+    hogar = category("hogar");
+
+    Product product = new Product();
+    product.setName("remera");
+    product.setPrice(1000);
+    product.setStock(5);
+    product.setCategory(ropa);
+    productId = productRepository.save(product).getId();
+    categoryCache.invalidateAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void update_shouldApplyEveryFieldAndMoveTheCategory() throws Exception {
+    mockMvc.perform(put("/products/{id}", productId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request("remera lisa", 1200, 8, hogar.getId()))))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andExpect(jsonPath("$.name").value("remera lisa"))
+        .andExpect(jsonPath("$.price").value(1200))
+        .andExpect(jsonPath("$.stock").value(8))
+        .andExpect(jsonPath("$.category.id").value(hogar.getId()))
+        .andExpect(jsonPath("$.category.name").value("hogar"));
+
+    mockMvc.perform(get("/products/{id}", productId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("remera lisa"))
+        .andExpect(jsonPath("$.stock").value(8))
+        .andExpect(jsonPath("$.category.name").value("hogar"));
+  }
+
+  private Category category(String name) {
+    Category category = new Category();
+    category.setName(name);
+    return categoryRepository.save(category);
+  }
+
+  private static ProductUpdateRequest request(String name, int price, int stock, Long categoryId) {
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName(name);
+    request.setPrice(price);
+    request.setStock(stock);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+}
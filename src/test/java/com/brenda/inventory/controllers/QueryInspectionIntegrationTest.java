@@ -0,0 +1,112 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.config.QueryInspector;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs in "test mode": any request over one statement fails instead of only being flagged
+@SpringBootTest(properties = {
+    "inventory.queries.statement-budget=1",
+    "inventory.queries.fail-on-budget=true",
+    "inventory.queries.n-plus-one-threshold=3"
+})
+@AutoConfigureMockMvc
+class QueryInspectionIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private QueryInspector queryInspector;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  private Category category;
+
+  private final List<Long> productIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    category = new Category();
+    category.setName("consultas-" + System.nanoTime());
+    category = categoryRepository.save(category);
+    productIds.clear();
+    for (int i = 0; i < 3; i++) {
+      Product product = new Product();
+      product.setName("consulta " + i);
+      product.setPrice(10);
+      product.setStock(1);
+      product.setCategory(category);
+      productIds.add(productRepository.save(product).getId());
+    }
+    mockMvc.perform(delete("/admin/queries")).andExpect(status().isNoContent());
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void requestWithinBudget_shouldShowUpAsQueryShapesOnTheAdminEndpoint() throws Exception {
+    mockMvc.perform(get("/products/{id}", productIds.get(0))).andExpect(status().isOk());
+
+    mockMvc.perform(get("/admin/queries"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.shapes[*].sql", hasItem(startsWith("select"))))
+        .andExpect(jsonPath("$.shapes[0].executions").isNumber())
+        .andExpect(jsonPath("$.flaggedRequests").isEmpty())
+        .andExpect(jsonPath("$.hibernate.enabled").value(true));
+  }
+
+  @Test
+  void requestOverBudget_shouldFail() {
+    // Category name lookup, then the product page
+    assertThatThrownBy(() -> mockMvc.perform(get("/products").param("category", category.getName())))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("GET /products executed 2 statements, over the budget of 1");
+    assertThat(queryInspector.flaggedRequests().get(0).getReasons()).contains("statement_budget");
+  }
+
+  @Test
+  void sameShapeRepeatedInOneRequest_shouldBeFlaggedAsNPlusOne() {
+    queryInspector.beginRequest();
+    // One lookup per product, the way a lazy association would load
+    productIds.forEach(id -> productRepository.findStockById(id));
+    assertThatThrownBy(() -> queryInspector.endRequest("GET /n-plus-one"))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(queryInspector.flaggedRequests()).first().satisfies(flagged -> {
+      assertThat(flagged.getRequest()).isEqualTo("GET /n-plus-one");
+      assertThat(flagged.getReasons()).containsExactly("n_plus_one", "statement_budget");
+      assertThat(flagged.getStatements()).isEqualTo(3);
+      assertThat(flagged.getRepeatedShapes()).hasSize(1).containsValue(3);
+    });
+  }
+}
@@ -0,0 +1,165 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.ProductResponse;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.Cursors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pages of 2, so the three products stream over two queries and the two categories end on an empty page
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"inventory.reactive.port=0", "inventory.reactive.stream-page-size=2"})
+class ReactiveReadIntegrationTest {
+
+  @Autowired
+  private ReactiveReadServer reactiveReadServer;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  private WebTestClient client;
+  private Category ropa;
+  private List<Long> productIds;
+
+  @BeforeEach
+  void setUp() {
+    client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveReadServer.port()).build();
+
+    ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Category hogar = new Category();
+    hogar.setName("hogar");
+    hogar = categoryRepository.save(hogar);
+
+    productIds = productRepository.saveAll(List.of(
+        product("remera", ropa),
+        product("buzo", ropa),
+        product("lampara", hogar)
+    )).stream().map(Product::getId).toList();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void getProducts_shouldStreamNdjsonInIdOrder() {
+    Flux<ProductResponse> products = client.get().uri("/products")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .returnResult(ProductResponse.class)
+        .getResponseBody();
+
+    StepVerifier.create(products.map(ProductResponse::getName))
+        .expectNext("remera", "buzo", "lampara")
+        .verifyComplete();
+  }
+
+  @Test
+  void getProducts_withCategoryAndCursor_shouldFilterAndResume() {
+    Flux<ProductResponse> products = client.get()
+        .uri(uri -> uri.path("/products")
+            .queryParam("category", "ropa")
+            .queryParam("after", Cursors.encode(productIds.get(0)))
+            .build())
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(ProductResponse.class)
+        .getResponseBody();
+
+    StepVerifier.create(products)
+        .assertNext(product -> {
+          assertThat(product.getName()).isEqualTo("buzo");
+          assertThat(product.getStock()).isEqualTo(10);
+          assertThat(product.getCategory().getName()).isEqualTo("ropa");
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void getProducts_whenClientStopsEarly_shouldCancelTheStream() {
+    Flux<ProductResponse> products = client.get().uri("/products")
+        .exchange()
+        .returnResult(ProductResponse.class)
+        .getResponseBody();
+
+    StepVerifier.create(products, 1)
+        .expectNextCount(1)
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  void getProductById_shouldReturnItOr404() {
+    client.get().uri("/products/{id}", productIds.get(2))
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.name").isEqualTo("lampara")
+        .jsonPath("$.category.name").isEqualTo("hogar");
+
+    client.get().uri("/products/{id}", 999999)
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody(String.class).isEqualTo("Product not found with id: 999999");
+  }
+
+  @Test
+  void getCategories_shouldStreamAllAndGetOneById() {
+    Flux<CategoryResponse> categories = client.get().uri("/categories")
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(CategoryResponse.class)
+        .getResponseBody();
+
+    StepVerifier.create(categories.map(CategoryResponse::getName))
+        .expectNext("ropa", "hogar")
+        .verifyComplete();
+
+    client.get().uri("/categories/{id}", ropa.getId())
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.name").isEqualTo("ropa");
+  }
+
+  @Test
+  void getProducts_withInvalidCursor_shouldReturn400() {
+    client.get().uri("/products?after=not-a-cursor")
+        .exchange()
+        .expectStatus().isBadRequest();
+  }
+
+  private Product product(String name, Category category) {
+    Product product = new Product();
+    product.setName(name);
+    product.setPrice(1000);
+    product.setStock(10);
+    product.setCategory(category);
+    return product;
+  }
+}
@@ -0,0 +1,84 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.dto.ReservationCreateRequest;
+import com.brenda.inventory.dto.ReservationResponse;
+import com.brenda.inventory.entity.ReservationStatus;
+import com.brenda.inventory.exceptions.ConflictException;
+import com.brenda.inventory.exceptions.GlobalExceptionHandler;
+import com.brenda.inventory.services.ReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReservationController.class)
+@Import(GlobalExceptionHandler.class)
+class ReservationControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @MockBean
+  private ReservationService reservationService;
+
+  @Test
+  void create_whenValid_shouldReturn201() throws Exception {
+    ReservationCreateRequest request = new ReservationCreateRequest();
+    request.setProductId(1L);
+    request.setQuantity(2);
+
+    when(reservationService.create(any(ReservationCreateRequest.class))).thenReturn(ReservationResponse.builder()
+        .id(5L)
+        .productId(1L)
+        .quantity(2)
+        .status(ReservationStatus.ACTIVE)
+        .expiresAt(Instant.parse("2026-01-01T00:05:00Z"))
+        .build());
+
+    mockMvc.perform(post("/reservations")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(5))
+        .andExpect(jsonPath("$.status").value("ACTIVE"));
+  }
+
+  @Test
+  void create_whenInvalidBody_shouldReturn400WithFieldErrors() throws Exception {
+    ReservationCreateRequest invalid = new ReservationCreateRequest();
+    invalid.setQuantity(0);
+    invalid.setTtlSeconds(99999);
+
+    mockMvc.perform(post("/reservations")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(invalid)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.productId").exists())
+        .andExpect(jsonPath("$.quantity").exists())
+        .andExpect(jsonPath("$.ttlSeconds").exists());
+  }
+
+  @Test
+  void confirm_whenNoLongerActive_shouldReturn409() throws Exception {
+    when(reservationService.confirm(5L))
+        .thenThrow(new ConflictException("Reservation is no longer active with id: 5"));
+
+    mockMvc.perform(post("/reservations/{id}/confirm", 5L))
+        .andExpect(status().isConflict())
+        .andExpect(content().string("Reservation is no longer active with id: 5"));
+  }
+}
@@ -0,0 +1,185 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.config.QueryInspector;
+import com.brenda.inventory.dto.QueryShapeStatsResponse;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.CategoryCache;
+import com.brenda.inventory.services.ProductCache;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseFieldsIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private QueryInspector queryInspector;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryCache categoryCache;
+
+  @Autowired
+  private ProductCache productCache;
+
+  private Long productId;
+
+  @BeforeEach
+  void setUp() {
+    Category category = new Category();
+    category.setName("campos");
+    category = categoryRepository.save(category);
+
+    Product product = new Product();
+    product.setName("campera");
+    product.setDescription("impermeable");
+    product.setPrice(5000);
+    product.setStock(3);
+    product.setCategory(category);
+    productId = productRepository.save(product).getId();
+
+    categoryCache.invalidateAll();
+    productCache.invalidateAll();
+    queryInspector.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void getAll_withFields_shouldSelectOnlyThoseColumns() throws Exception {
+    mockMvc.perform(get("/products").param("fields", "name,price"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(productId))
+        .andExpect(jsonPath("$.items[0].name").value("campera"))
+        .andExpect(jsonPath("$.items[0].price").value(5000))
+        .andExpect(jsonPath("$.items[0].description").doesNotExist())
+        .andExpect(jsonPath("$.items[0].stock").doesNotExist())
+        .andExpect(jsonPath("$.items[0].category").doesNotExist());
+
+    String sql = onlyStatement();
+    assertThat(sql).doesNotContain("join", "stock_movement", "description");
+  }
+
+  @Test
+  void getAll_withCategoryId_shouldNotJoinCategory() throws Exception {
+    mockMvc.perform(get("/products").param("fields", "stock,category.id"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].stock").value(3))
+        .andExpect(jsonPath("$.items[0].category.id").isNumber())
+        .andExpect(jsonPath("$.items[0].category.name").doesNotExist());
+
+    assertThat(onlyStatement()).contains("stock_movement").doesNotContain("join");
+  }
+
+  @Test
+  void search_withFields_shouldSelectOnlyThoseColumnsAndTheSortKeys() throws Exception {
+    Product other = new Product();
+    other.setName("buzo");
+    other.setPrice(4000);
+    other.setStock(1);
+    other.setCategory(productRepository.findById(productId).orElseThrow().getCategory());
+    Long otherId = productRepository.save(other).getId();
+    queryInspector.reset();
+
+    String firstPage = mockMvc.perform(get("/products").param("fields", "price").param("minPrice", "1000")
+            .param("sort", "name").param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(otherId))
+        .andExpect(jsonPath("$.items[0].price").value(4000))
+        .andExpect(jsonPath("$.items[0].name").doesNotExist())
+        .andExpect(jsonPath("$.nextCursor").isString())
+        .andReturn().getResponse().getContentAsString();
+
+    assertThat(onlyStatement()).contains("name").doesNotContain("join", "stock_movement", "description");
+
+    String cursor = JsonPath.read(firstPage, "$.nextCursor");
+    mockMvc.perform(get("/products").param("fields", "price").param("minPrice", "1000")
+            .param("sort", "name").param("limit", "1").param("after", cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(productId))
+        .andExpect(jsonPath("$.items[0].price").value(5000));
+  }
+
+  @Test
+  void getAll_withCategoryName_shouldJoinCategoryAndFilterByIt() throws Exception {
+    mockMvc.perform(get("/products").param("category", "campos").param("fields", "category.name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(productId))
+        .andExpect(jsonPath("$.items[0].category.name").value("campos"))
+        .andExpect(jsonPath("$.items[0].name").doesNotExist());
+  }
+
+  @Test
+  void getById_withFields_shouldReturnOnlyThoseFields() throws Exception {
+    mockMvc.perform(get("/products/{id}", productId).param("fields", "name, category"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("ETag"))
+        .andExpect(jsonPath("$.id").value(productId))
+        .andExpect(jsonPath("$.name").value("campera"))
+        .andExpect(jsonPath("$.category.name").value("campos"))
+        .andExpect(jsonPath("$.category.version").exists())
+        .andExpect(jsonPath("$.price").doesNotExist());
+  }
+
+  @Test
+  void getById_withFields_shouldUseCachedProduct() throws Exception {
+    mockMvc.perform(get("/products/{id}", productId)).andExpect(status().isOk());
+    queryInspector.reset();
+
+    mockMvc.perform(get("/products/{id}", productId).param("fields", "stock"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.stock").value(3));
+
+    assertThat(queryInspector.shapes()).isEmpty();
+  }
+
+  @Test
+  void unknownField_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/products").param("fields", "name,cost"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string(startsWith("Unknown field: cost")));
+  }
+
+  @Test
+  void getById_withFields_missingProduct_shouldReturnNotFound() throws Exception {
+    mockMvc.perform(get("/products/{id}", productId + 1000).param("fields", "name"))
+        .andExpect(status().isNotFound());
+  }
+
+  private String onlyStatement() {
+    List<QueryShapeStatsResponse> shapes = queryInspector.shapes();
+    assertThat(shapes).hasSize(1);
+    return shapes.get(0).getSql().toLowerCase();
+  }
+}
@@ -0,0 +1,138 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.CategoryCache;
+import com.brenda.inventory.services.ProductCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards against N+1 regressions: each read endpoint must cost a fixed number of SQL statements
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class StatementCountIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CategoryCache categoryCache;
+
+  @Autowired
+  private ProductCache productCache;
+
+  private Statistics statistics;
+
+  private Long firstProductId;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    List<Category> categories = new ArrayList<>();
+    for (String name : List.of("ropa", "tecnologia", "hogar")) {
+      Category category = new Category();
+      category.setName(name);
+      categories.add(categoryRepository.save(category));
+    }
+
+    // Products spread over every category, so a per-row category fetch would show up as extra statements
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < 9; i++) {
+      Product product = new Product();
+      product.setName("producto " + i);
+      product.setDescription("descripcion " + i);
+      product.setPrice(100 * (i + 1));
+      product.setStock(i);
+      product.setCategory(categories.get(i % categories.size()));
+      products.add(product);
+    }
+    firstProductId = productRepository.saveAll(products).get(0).getId();
+
+    // Seeded through the repositories, so the service never got the chance to invalidate
+    categoryCache.invalidateAll();
+    productCache.invalidateAll();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void getAllProducts_shouldRunOneStatement() throws Exception {
+    assertStatements(get("/products"), 1);
+  }
+
+  @Test
+  void getProductsByCategory_shouldBeServedFromListingCacheOnRepeat() throws Exception {
+    assertStatements(get("/products").param("category", "ropa"), 2);
+
+    statistics.clear();
+    assertStatements(get("/products").param("category", "ropa"), 0);
+  }
+
+  @Test
+  void getProductsByUnknownCategory_shouldNotQueryProducts() throws Exception {
+    assertStatements(get("/products").param("category", "juguetes"), 1);
+
+    statistics.clear();
+    assertStatements(get("/products").param("category", "juguetes"), 0);
+  }
+
+  @Test
+  void getProductById_shouldRunOneStatementThenHitCache() throws Exception {
+    mockMvc.perform(get("/products/{id}", firstProductId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.category.name").value("ropa"));
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+    statistics.clear();
+    assertStatements(get("/products/{id}", firstProductId), 0);
+  }
+
+  @Test
+  void getAllCategories_shouldBeServedFromCacheAfterFirstCall() throws Exception {
+    assertStatements(get("/categories"), 1);
+
+    statistics.clear();
+    assertStatements(get("/categories").param("limit", "1"), 0);
+  }
+
+  private void assertStatements(MockHttpServletRequestBuilder request, long expected) throws Exception {
+    mockMvc.perform(request).andExpect(status().isOk());
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,147 @@
+package com.brenda.inventory.controllers;
+
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.services.Cursors;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "management.tracing.sampling.probability=1.0",
+    "inventory.tracing.slow-request-ms=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class TracingIntegrationTest {
+
+  @TestConfiguration
+  static class InMemoryExport {
+    @Bean
+    InMemorySpanExporter inMemorySpanExporter() {
+      return InMemorySpanExporter.create();
+    }
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private InMemorySpanExporter exporter;
+
+  @Autowired
+  private SdkTracerProvider tracerProvider;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  private Long categoryId;
+
+  private String categoryName;
+
+  private Long firstProductId;
+
+  @BeforeEach
+  void setUp() {
+    Category category = new Category();
+    // The H2 database is shared by every test context; a fresh name keeps the row count exact
+    categoryName = "trazas-" + System.nanoTime();
+    category.setName(categoryName);
+    categoryId = categoryRepository.save(category).getId();
+    for (int i = 0; i < 3; i++) {
+      Product product = new Product();
+      product.setName("traza " + i);
+      product.setPrice(10);
+      product.setStock(1);
+      product.setCategory(category);
+      Long id = productRepository.save(product).getId();
+      if (firstProductId == null) {
+        firstProductId = id;
+      }
+    }
+    flush();
+    exporter.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void getProducts_shouldSplitRequestIntoServiceRepositoryAndSerializationSpans(CapturedOutput output) throws Exception {
+    // Category listings are served as cached bytes; the id-ordered listing still goes through Jackson.
+    // Starting right before this test's products reads exactly those three
+    mockMvc.perform(get("/products").param("after", Cursors.encode(firstProductId - 1))).andExpect(status().isOk());
+    flush();
+
+    List<SpanData> spans = exporter.getFinishedSpanItems();
+    SpanData request = spans.stream().filter(span -> span.getKind() == SpanKind.SERVER).findFirst().orElseThrow();
+    assertThat(spans).allSatisfy(span -> assertThat(span.getTraceId()).isEqualTo(request.getTraceId()));
+
+    SpanData service = named(spans, "ProductService.getAll");
+    SpanData serialization = named(spans, "json.write");
+    assertThat(service.getParentSpanId()).isEqualTo(request.getSpanId());
+    assertThat(serialization.getParentSpanId()).isEqualTo(request.getSpanId());
+    assertThat(spans).anySatisfy(span -> {
+      assertThat(span.getName()).startsWith("ProductRepository.");
+      assertThat(span.getAttributes().get(AttributeKey.stringKey("inventory.phase"))).isEqualTo("repository");
+      assertThat(span.getAttributes().get(AttributeKey.longKey("db.rows"))).isEqualTo(3L);
+    });
+
+    long statements = service.getAttributes().get(AttributeKey.longKey("db.statements"));
+    assertThat(statements).isPositive();
+    assertThat(request.getAttributes().get(AttributeKey.stringKey("db.statements"))).isEqualTo(String.valueOf(statements));
+
+    // Threshold 0: every request is "slow", and logged with its breakdown
+    assertThat(output).contains("Slow request:", "ProductService.getAll", "json.write", "rows)");
+  }
+
+  @Test
+  void spansCarryTheCategoryLookupOfASingleProductRead() throws Exception {
+    mockMvc.perform(get("/categories/{id}", categoryId)).andExpect(status().isOk());
+    flush();
+
+    assertThat(exporter.getFinishedSpanItems())
+        .extracting(SpanData::getName)
+        .contains("CategoryService.getById", "json.write");
+  }
+
+  private void flush() {
+    tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+  }
+
+  private static SpanData named(List<SpanData> spans, String name) {
+    return spans.stream().filter(span -> span.getName().equals(name)).findFirst()
+        .orElseThrow(() -> new AssertionError(name + " not in " + spans.stream().map(SpanData::getName).toList()));
+  }
+}
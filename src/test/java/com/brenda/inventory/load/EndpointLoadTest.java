@@ -0,0 +1,65 @@
+package com.brenda.inventory.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load against the full application, one fresh instance and dataset per traffic mix,
+ * with per-endpoint throughput and HdrHistogram latency percentiles in target/load-reports.
+ *
+ * <p>{@code mvn -Pload-test test -Dtest=EndpointLoadTest} with, optionally:
+ * -Dload.mixes=read_heavy,write_heavy,hot_sku -Dload.clients=64 -Dload.seconds=20 -Dload.warmup-seconds=5
+ * -Dload.rate=0 (total requests/s; 0 is closed-loop) -Dload.products=10000 -Dload.categories=20
+ * -Dload.hot-skus=5 -Dload.app-args="--spring.datasource.hikari.maximum-pool-size=20".
+ */
+@Tag("load")
+class EndpointLoadTest {
+  private static final int PRODUCTS = Integer.getInteger("load.products", 10_000);
+  private static final int CATEGORIES = Integer.getInteger("load.categories", 20);
+  private static final int HOT_SKUS = Integer.getInteger("load.hot-skus", 5);
+
+  @Test
+  void runTrafficMixes() throws Exception {
+    LoadDriver driver = LoadDriver.fromSystemProperties(64);
+
+    for (TrafficMix mix : mixes()) {
+      String name = mix.name().toLowerCase(Locale.ROOT);
+
+      try (ConfigurableApplicationContext context = LoadApp.start("load-" + name)) {
+        // Large stock so stock adjustments in either direction never run out
+        LoadApp.Dataset dataset = LoadApp.seed(context, CATEGORIES, PRODUCTS, 1_000_000);
+        TrafficMix.Requests requests = new TrafficMix.Requests(LoadApp.baseUrl(context), dataset, HOT_SKUS);
+
+        Map<String, EndpointStats> stats = driver.run(mix.operations(requests));
+
+        LoadReport report = new LoadReport(name, String.format("mix=%s clients=%d seconds=%d rate=%s products=%d categories=%d hot-skus=%d",
+            name, driver.clients(), driver.duration().toSeconds(),
+            driver.ratePerSecond() > 0 ? driver.ratePerSecond() + "/s" : "closed-loop", PRODUCTS, CATEGORIES, HOT_SKUS));
+        report.add("", stats, driver.duration().toSeconds());
+        report.write();
+
+        assertThat(stats).as(name + " endpoints").isNotEmpty();
+        stats.forEach((endpoint, endpointStats) ->
+            assertThat(endpointStats.errors()).as(name + " " + endpoint + " errors: " + endpointStats.firstError()).isZero());
+      }
+    }
+  }
+
+  private static List<TrafficMix> mixes() {
+    String names = System.getProperty("load.mixes", "");
+    if (names.isBlank()) {
+      return List.of(TrafficMix.values());
+    }
+    return Arrays.stream(names.split(","))
+        .map(name -> TrafficMix.valueOf(name.trim().toUpperCase(Locale.ROOT)))
+        .toList();
+  }
+}
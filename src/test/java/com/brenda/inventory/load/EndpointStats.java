@@ -0,0 +1,59 @@
+package com.brenda.inventory.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latencies (microseconds, 3 significant digits) and failures of one endpoint.
+ */
+final class EndpointStats {
+  private final ConcurrentHistogram histogram = new ConcurrentHistogram(3);
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private final AtomicReference<String> firstError = new AtomicReference<>();
+
+  /**
+   * expectedIntervalMicros > 0 back-fills the samples a paced client would have taken while this request
+   * was stuck, so a stall isn't hidden by the client simply sending less (coordinated omission).
+   */
+  void record(long latencyMicros, long expectedIntervalMicros, LoadDriver.Outcome outcome) {
+    requests.incrementAndGet();
+    if (expectedIntervalMicros > 0) {
+      histogram.recordValueWithExpectedInterval(latencyMicros, expectedIntervalMicros);
+    } else {
+      histogram.recordValue(latencyMicros);
+    }
+    if (outcome.rejected()) {
+      rejected.incrementAndGet();
+    } else if (outcome.error() != null) {
+      errors.incrementAndGet();
+      firstError.compareAndSet(null, outcome.error());
+    }
+  }
+
+  Histogram histogram() {
+    return histogram.copy();
+  }
+
+  // Requests actually sent; the histogram count also includes back-filled samples
+  long requests() {
+    return requests.get();
+  }
+
+  // 409/412: the API refused the write because of contention, which is expected under load
+  long rejected() {
+    return rejected.get();
+  }
+
+  long errors() {
+    return errors.get();
+  }
+
+  String firstError() {
+    return firstError.get();
+  }
+}
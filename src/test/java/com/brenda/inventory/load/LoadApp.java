@@ -0,0 +1,80 @@
+package com.brenda.inventory.load;
+
+import com.brenda.inventory.InventoryApiApplication;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Starts the full application on a random port with its own in-memory database and seeds it.
+ */
+final class LoadApp {
+  private LoadApp() {
+  }
+
+  record Dataset(List<Long> categoryIds, List<String> categoryNames, List<Long> productIds) {
+  }
+
+  /**
+   * Extra application arguments come from -Dload.app-args, e.g. to try another pool size.
+   */
+  static ConfigurableApplicationContext start(String database, SpringApplicationBuilder builder, String... args) {
+    // Command-line arguments so they win over application.properties and profile files
+    String[] defaults = {
+        "--server.port=0",
+        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+        "--spring.jpa.show-sql=false",
+        "--inventory.reactive.port=-1",
+        "--logging.level.root=WARN"
+    };
+    String extra = System.getProperty("load.app-args", "").trim();
+
+    return builder.run(Stream.of(Arrays.stream(defaults), Arrays.stream(args), extra.isEmpty() ? Stream.<String>empty() : Arrays.stream(extra.split("\\s+")))
+        .flatMap(s -> s)
+        .toArray(String[]::new));
+  }
+
+  static ConfigurableApplicationContext start(String database, String... args) {
+    return start(database, new SpringApplicationBuilder(InventoryApiApplication.class), args);
+  }
+
+  static String baseUrl(ConfigurableApplicationContext context) {
+    return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+  }
+
+  static Dataset seed(ConfigurableApplicationContext context, int categoryCount, int productCount, int stock) {
+    List<Category> categories = new ArrayList<>();
+    for (int i = 0; i < categoryCount; i++) {
+      Category category = new Category();
+      category.setName("category-" + i);
+      categories.add(category);
+    }
+    categories = context.getBean(CategoryRepository.class).saveAll(categories);
+
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < productCount; i++) {
+      Product product = new Product();
+      product.setName("product-" + i);
+      product.setDescription("description of product " + i);
+      product.setPrice(1000 + i);
+      product.setStock(stock);
+      product.setCategory(categories.get(i % categories.size()));
+      products.add(product);
+    }
+    List<Long> productIds = context.getBean(ProductRepository.class).saveAll(products).stream().map(Product::getId).toList();
+
+    return new Dataset(
+        categories.stream().map(Category::getId).toList(),
+        categories.stream().map(Category::getName).toList(),
+        productIds);
+  }
+}
@@ -0,0 +1,132 @@
+package com.brenda.inventory.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Drives a weighted mix of operations from a fixed number of client threads and records each
+ * endpoint's latencies once the warmup is over. Clients run closed-loop (next request as soon as
+ * the last one returns) unless a total rate is given, in which case each paces itself to its share.
+ */
+final class LoadDriver {
+  record Operation(String endpoint, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+  }
+
+  // error is null on a 2xx; rejected marks a 409/412 (stock conflict, lost optimistic-locking race)
+  record Outcome(boolean rejected, String error) {
+  }
+
+  private final int clients;
+  private final Duration warmup;
+  private final Duration duration;
+  private final double ratePerSecond;
+  private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+  LoadDriver(int clients, Duration warmup, Duration duration, double ratePerSecond) {
+    this.clients = clients;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.ratePerSecond = ratePerSecond;
+  }
+
+  static LoadDriver fromSystemProperties(int defaultClients) {
+    return new LoadDriver(
+        Integer.getInteger("load.clients", defaultClients),
+        Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5)),
+        Duration.ofSeconds(Long.getLong("load.seconds", 20)),
+        Double.parseDouble(System.getProperty("load.rate", "0")));
+  }
+
+  Duration duration() {
+    return duration;
+  }
+
+  int clients() {
+    return clients;
+  }
+
+  double ratePerSecond() {
+    return ratePerSecond;
+  }
+
+  Map<String, EndpointStats> run(List<Operation> operations) throws InterruptedException {
+    int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    long intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * clients / ratePerSecond) : 0;
+
+    Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    long measureFrom = System.nanoTime() + warmup.toNanos();
+    long deadline = measureFrom + duration.toNanos();
+
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+    for (int i = 0; i < clients; i++) {
+      pool.execute(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long next = System.nanoTime();
+
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+          if (intervalNanos > 0) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += intervalNanos;
+          }
+
+          Operation operation = pick(operations, totalWeight, random);
+          HttpRequest request = operation.request().apply(random);
+
+          long start = System.nanoTime();
+          Outcome outcome = send(request);
+          long latency = System.nanoTime() - start;
+
+          if (start >= measureFrom) {
+            stats.computeIfAbsent(operation.endpoint(), endpoint -> new EndpointStats())
+                .record(TimeUnit.NANOSECONDS.toMicros(latency), TimeUnit.NANOSECONDS.toMicros(intervalNanos), outcome);
+          }
+        }
+      });
+    }
+
+    pool.shutdown();
+    if (!pool.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS)) {
+      pool.shutdownNow();
+    }
+    return stats;
+  }
+
+  private Outcome send(HttpRequest request) {
+    try {
+      HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      int status = response.statusCode();
+      if (status / 100 == 2) {
+        return new Outcome(false, null);
+      }
+      return new Outcome(status == 409 || status == 412, status + " " + response.body());
+    } catch (IOException exception) {
+      return new Outcome(false, exception.toString());
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return new Outcome(false, "interrupted");
+    }
+  }
+
+  private static Operation pick(List<Operation> operations, int totalWeight, ThreadLocalRandom random) {
+    int ticket = random.nextInt(totalWeight);
+    for (Operation operation : operations) {
+      ticket -= operation.weight();
+      if (ticket < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("Weights changed while picking");
+  }
+}
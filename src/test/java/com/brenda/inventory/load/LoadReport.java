@@ -0,0 +1,78 @@
+package com.brenda.inventory.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint throughput and latency percentiles as a text table, plus each endpoint's full
+ * HdrHistogram percentile distribution (.hgrm, milliseconds) for plotting, under target/load-reports.
+ */
+final class LoadReport {
+  private static final Path DIRECTORY = Path.of("target", "load-reports");
+
+  private final String name;
+  private final List<String> lines = new ArrayList<>();
+
+  LoadReport(String name, String header) {
+    this.name = name;
+    lines.add(header);
+    lines.add(String.format("%-34s %9s %10s %9s %9s %9s %9s %9s %9s %7s",
+        "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "rejected", "errors"));
+  }
+
+  void add(String label, Map<String, EndpointStats> stats, long seconds) throws IOException {
+    Files.createDirectories(DIRECTORY);
+    Histogram total = new Histogram(3);
+    long totalRequests = 0;
+    long totalRejected = 0;
+    long totalErrors = 0;
+
+    for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+      Histogram histogram = entry.getValue().histogram();
+      total.add(histogram);
+      totalRequests += entry.getValue().requests();
+      totalRejected += entry.getValue().rejected();
+      totalErrors += entry.getValue().errors();
+      lines.add(row(label + entry.getKey(), histogram, entry.getValue().requests(), entry.getValue().rejected(),
+          entry.getValue().errors(), seconds));
+      if (entry.getValue().firstError() != null) {
+        lines.add("    first error: " + entry.getValue().firstError());
+      }
+
+      String file = (name + "-" + label + entry.getKey()).replaceAll("[^A-Za-z0-9]+", "-").replaceAll("-$", "") + ".hgrm";
+      try (PrintStream out = new PrintStream(Files.newOutputStream(DIRECTORY.resolve(file)))) {
+        histogram.outputPercentileDistribution(out, 1000.0);
+      }
+    }
+    lines.add(row(label + "all", total, totalRequests, totalRejected, totalErrors, seconds));
+  }
+
+  void note(String line) {
+    lines.add(line);
+  }
+
+  Path write() throws IOException {
+    Files.createDirectories(DIRECTORY);
+    Path file = DIRECTORY.resolve(name + ".txt");
+    Files.write(file, lines);
+    lines.forEach(System.out::println);
+    return file;
+  }
+
+  private static String row(String endpoint, Histogram histogram, long requests, long rejected, long errors, long seconds) {
+    // Recorded in microseconds; shown in milliseconds
+    return String.format("%-34s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9d %7d",
+        endpoint, requests, requests / (double) seconds,
+        histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+        histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+        histogram.getMaxValue() / 1000.0, rejected, errors);
+  }
+}
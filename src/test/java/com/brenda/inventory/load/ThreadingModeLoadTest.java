@@ -0,0 +1,114 @@
+package com.brenda.inventory.load;
+
+import com.brenda.inventory.InventoryApiApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same traffic against the app in the default (platform thread) mode and in the
+ * virtual-threads mode and reports throughput and latency percentiles for each. Every JDBC
+ * statement is delayed to stand in for a slow database, and half the requests are cached
+ * product reads that need no connection at all: with platform threads those queue behind
+ * requests parked on the pool, with virtual threads they don't.
+ *
+ * <p>Run with {@code mvn -Pload-test test} on a Java 21+ JDK; tune with -Dload.clients,
+ * -Dload.seconds and -Dload.query-latency-ms. The report is written to target/load-reports.
+ */
+@Tag("load")
+class ThreadingModeLoadTest {
+  private static final long QUERY_LATENCY_MS = Long.getLong("load.query-latency-ms", 20);
+  private static final int HOT_PRODUCTS = 20;
+
+  @Test
+  void compareThreadingModes() throws Exception {
+    LoadDriver driver = LoadDriver.fromSystemProperties(400);
+    LoadReport report = new LoadReport("threading-modes", String.format("clients=%d seconds=%d query-latency-ms=%d",
+        driver.clients(), driver.duration().toSeconds(), QUERY_LATENCY_MS));
+
+    run(report, driver, "platform", false);
+    if (Runtime.version().feature() >= 21) {
+      run(report, driver, "virtual", true);
+    } else {
+      report.note("virtual: skipped, needs a Java 21+ runtime");
+    }
+    report.write();
+  }
+
+  private void run(LoadReport report, LoadDriver driver, String mode, boolean virtual) throws Exception {
+    SpringApplicationBuilder builder = new SpringApplicationBuilder(InventoryApiApplication.class, SlowDatabase.class);
+    if (virtual) {
+      builder.profiles("virtual-threads");
+    }
+
+    // The same pool in both modes leaves the request threading as the only difference
+    try (ConfigurableApplicationContext context = LoadApp.start("load-" + mode, builder,
+        "--spring.datasource.hikari.maximum-pool-size=20",
+        "--spring.datasource.hikari.connection-timeout=30000")) {
+      LoadApp.Dataset dataset = LoadApp.seed(context, 10, 2000, 100);
+      String baseUrl = LoadApp.baseUrl(context);
+
+      Map<String, EndpointStats> stats = driver.run(List.of(
+          new LoadDriver.Operation("GET /products/{id} (hot, cached)", 1, random ->
+              get(baseUrl + "/products/" + dataset.productIds().get(random.nextInt(HOT_PRODUCTS)))),
+          new LoadDriver.Operation("GET /products?category (database)", 1, random ->
+              get(baseUrl + "/products?limit=20&category=" + dataset.categoryNames().get(random.nextInt(10))))));
+
+      report.add(mode + " ", stats, driver.duration().toSeconds());
+      stats.forEach((endpoint, endpointStats) ->
+          assertThat(endpointStats.errors()).as(mode + " " + endpoint + " errors: " + endpointStats.firstError()).isZero());
+    }
+  }
+
+  private static HttpRequest get(String url) {
+    return HttpRequest.newBuilder(URI.create(url)).build();
+  }
+
+  /**
+   * Wraps the pool's DataSource so every statement holds its connection for the configured latency first.
+   */
+  static class SlowDatabase implements BeanPostProcessor {
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource dataSource)) {
+        return bean;
+      }
+      return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+        Object result = invoke(method, dataSource, args);
+        return result instanceof Connection connection ? slow(connection) : result;
+      });
+    }
+
+    private static Connection slow(Connection connection) {
+      return (Connection) Proxy.newProxyInstance(SlowDatabase.class.getClassLoader(), new Class<?>[]{Connection.class},
+          (proxy, method, args) -> {
+            if (method.getName().startsWith("prepare")) {
+              Thread.sleep(QUERY_LATENCY_MS);
+            }
+            return invoke(method, connection, args);
+          });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException exception) {
+        throw exception.getCause();
+      }
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.brenda.inventory.load;
+
+import com.brenda.inventory.services.Cursors;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Named traffic mixes for EndpointLoadTest. Weights are relative; endpoints are reported by route template.
+ */
+enum TrafficMix {
+  // Browsing: mostly single products and listings, a trickle of edits
+  READ_HEAVY {
+    @Override
+    List<LoadDriver.Operation> operations(Requests requests) {
+      return List.of(
+          new LoadDriver.Operation("GET /products/{id}", 40, requests::getProduct),
+          new LoadDriver.Operation("GET /products", 20, requests::getProductPage),
+          new LoadDriver.Operation("GET /products?category", 15, requests::getProductsByCategory),
+          new LoadDriver.Operation("GET /categories", 10, requests::getCategories),
+          new LoadDriver.Operation("GET /categories/{id}", 10, requests::getCategory),
+          new LoadDriver.Operation("PUT /products/{id}", 5, requests::updateProduct));
+    }
+  },
+
+  // Catalog ingestion and maintenance
+  WRITE_HEAVY {
+    @Override
+    List<LoadDriver.Operation> operations(Requests requests) {
+      return List.of(
+          new LoadDriver.Operation("POST /products", 35, requests::createProduct),
+          new LoadDriver.Operation("PUT /products/{id}", 30, requests::updateProduct),
+          new LoadDriver.Operation("POST /products/{id}/stock/adjust", 15, requests::adjustStock),
+          new LoadDriver.Operation("POST /categories", 5, requests::createCategory),
+          new LoadDriver.Operation("GET /products/{id}", 15, requests::getProduct));
+    }
+  },
+
+  // A flash sale: everyone buys and watches the same few SKUs
+  HOT_SKU {
+    @Override
+    List<LoadDriver.Operation> operations(Requests requests) {
+      return List.of(
+          new LoadDriver.Operation("POST /products/{hot}/stock/adjust", 60, requests::adjustHotStock),
+          new LoadDriver.Operation("GET /products/{hot}", 30, requests::getHotProduct),
+          new LoadDriver.Operation("GET /products/{hot}/availability", 10, requests::getHotAvailability));
+    }
+  };
+
+  abstract List<LoadDriver.Operation> operations(Requests requests);
+
+  /**
+   * Request builders over the seeded dataset; the first hotSkus products are the hot ones.
+   */
+  static final class Requests {
+    private final String baseUrl;
+    private final LoadApp.Dataset dataset;
+    private final int hotSkus;
+
+    Requests(String baseUrl, LoadApp.Dataset dataset, int hotSkus) {
+      this.baseUrl = baseUrl;
+      this.dataset = dataset;
+      this.hotSkus = hotSkus;
+    }
+
+    HttpRequest getProduct(ThreadLocalRandom random) {
+      return get("/products/" + anyProduct(random));
+    }
+
+    HttpRequest getProductPage(ThreadLocalRandom random) {
+      // Anywhere in the catalog: keyset pages cost the same however deep they are
+      return get("/products?limit=50&after=" + Cursors.encode(anyProduct(random)));
+    }
+
+    HttpRequest getProductsByCategory(ThreadLocalRandom random) {
+      return get("/products?limit=50&category=" + dataset.categoryNames().get(random.nextInt(dataset.categoryNames().size())));
+    }
+
+    HttpRequest getCategories(ThreadLocalRandom random) {
+      return get("/categories");
+    }
+
+    HttpRequest getCategory(ThreadLocalRandom random) {
+      return get("/categories/" + anyCategory(random));
+    }
+
+    HttpRequest createProduct(ThreadLocalRandom random) {
+      return send("POST", "/products", productJson(random, "load product"));
+    }
+
+    HttpRequest updateProduct(ThreadLocalRandom random) {
+      return send("PUT", "/products/" + anyProduct(random), productJson(random, "updated product"));
+    }
+
+    HttpRequest adjustStock(ThreadLocalRandom random) {
+      return send("POST", "/products/" + anyProduct(random) + "/stock/adjust", adjustJson(random));
+    }
+
+    HttpRequest createCategory(ThreadLocalRandom random) {
+      return send("POST", "/categories", "{\"name\":\"load category " + random.nextInt(1_000_000) + "\"}");
+    }
+
+    HttpRequest adjustHotStock(ThreadLocalRandom random) {
+      return send("POST", "/products/" + hotProduct(random) + "/stock/adjust", adjustJson(random));
+    }
+
+    HttpRequest getHotProduct(ThreadLocalRandom random) {
+      return get("/products/" + hotProduct(random));
+    }
+
+    HttpRequest getHotAvailability(ThreadLocalRandom random) {
+      return get("/products/" + hotProduct(random) + "/availability");
+    }
+
+    private long anyProduct(ThreadLocalRandom random) {
+      return dataset.productIds().get(random.nextInt(dataset.productIds().size()));
+    }
+
+    private long hotProduct(ThreadLocalRandom random) {
+      return dataset.productIds().get(random.nextInt(hotSkus));
+    }
+
+    private long anyCategory(ThreadLocalRandom random) {
+      return dataset.categoryIds().get(random.nextInt(dataset.categoryIds().size()));
+    }
+
+    private String productJson(ThreadLocalRandom random, String name) {
+      return "{\"name\":\"" + name + "\",\"price\":" + random.nextInt(1, 10_000)
+          + ",\"stock\":" + random.nextInt(1_000, 10_000) + ",\"categoryId\":" + anyCategory(random) + "}";
+    }
+
+    // Up or down by one: seeded stock is large enough that sales never hit zero
+    private String adjustJson(ThreadLocalRandom random) {
+      return "{\"delta\":" + (random.nextBoolean() ? 1 : -1) + ",\"reason\":\"load\"}";
+    }
+
+    private HttpRequest get(String path) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + path))
+          .header("Content-Type", "application/json")
+          .method(method, HttpRequest.BodyPublishers.ofString(json))
+          .build();
+    }
+  }
+}
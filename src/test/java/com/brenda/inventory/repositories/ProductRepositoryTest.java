@@ -1,11 +1,17 @@
 package com.brenda.inventory.repositories;
 
+import com.brenda.inventory.dto.ProductResponse;
 import com.brenda.inventory.entity.Category;
 import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.entity.StockMovement;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,6 +25,12 @@ class ProductRepositoryTest {
   @Autowired
   private CategoryRepository categoryRepository;
 
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
   @Test
   void findByCategory_Name_shouldReturnProductsOfThatCategory() {
     // Arrange
@@ -54,18 +66,169 @@ class ProductRepositoryTest {
     productRepository.saveAll(List.of(p1, p2, p3));
 
     // Act
-    List<Product> result = productRepository.findByCategory_Name("ropa");
+    List<ProductResponse> result = productRepository.findByCategory_Name("ropa");
 
     // Assert
     assertThat(result).hasSize(2);
     assertThat(result)
-        .extracting(Product::getName)
+        .extracting(ProductResponse::getName)
         .containsExactlyInAnyOrder("remera", "pantalon");
+    assertThat(result)
+        .extracting(response -> response.getCategory().getName())
+        .containsOnly("ropa");
   }
 
   @Test
   void findByCategory_Name_whenNoMatches_shouldReturnEmptyList() {
-    List<Product> result = productRepository.findByCategory_Name("hogar");
+    List<ProductResponse> result = productRepository.findByCategory_Name("hogar");
     assertThat(result).isEmpty();
   }
+
+  @Test
+  void findPageAfter_shouldSeekPastCursorInIdOrder() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Category tecnologia = new Category();
+    tecnologia.setName("tecnologia");
+    tecnologia = categoryRepository.save(tecnologia);
+
+    Product p1 = productRepository.save(product("remera", ropa));
+    Product p2 = productRepository.save(product("mouse", tecnologia));
+    Product p3 = productRepository.save(product("pantalon", ropa));
+    Product p4 = productRepository.save(product("buzo", ropa));
+
+    List<ProductResponse> firstPage = productRepository.findPageAfter(0L, Limit.of(2));
+    assertThat(firstPage).extracting(ProductResponse::getId).containsExactly(p1.getId(), p2.getId());
+
+    List<ProductResponse> secondPage = productRepository.findPageAfter(p2.getId(), Limit.of(2));
+    assertThat(secondPage).extracting(ProductResponse::getId).containsExactly(p3.getId(), p4.getId());
+
+    List<ProductResponse> ropaPage = productRepository.findPageByCategoryIdsAfter(List.of(ropa.getId()), p1.getId(), Limit.of(10));
+    assertThat(ropaPage).extracting(ProductResponse::getName).containsExactly("pantalon", "buzo");
+  }
+
+  @Test
+  void foldMovements_shouldMoveLedgerTailIntoSnapshotWithoutChangingCurrentStock() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Product remera = productRepository.save(product("remera", ropa));
+    Product buzo = productRepository.save(product("buzo", ropa));
+
+    stockMovementRepository.save(movement(remera.getId(), -4));
+    stockMovementRepository.save(movement(remera.getId(), 2));
+    stockMovementRepository.save(movement(buzo.getId(), -10));
+    productRepository.flush();
+
+    assertThat(productRepository.findStockById(remera.getId())).contains(8);
+    assertThat(productRepository.findStockById(buzo.getId())).contains(0);
+
+    Long upToId = stockMovementRepository.findLastUncompactedId().orElseThrow();
+    assertThat(productRepository.foldMovements(upToId)).isEqualTo(2);
+    assertThat(stockMovementRepository.markCompacted(upToId)).isEqualTo(3);
+
+    assertThat(productRepository.findStockById(remera.getId())).contains(8);
+    assertThat(productRepository.findStockById(buzo.getId())).contains(0);
+    assertThat(stockMovementRepository.findLastUncompactedId()).isEmpty();
+    assertThat(stockMovementRepository.count()).isEqualTo(3);
+  }
+
+  @Test
+  void search_shouldCombineFiltersOnCurrentStockAndResumeAfterSortValues() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Product remera = productRepository.save(product("remera", ropa, 500));
+    Product remeraLisa = productRepository.save(product("remera lisa", ropa, 900));
+    productRepository.save(product("remera estampada", ropa, 700));
+    productRepository.save(product("buzo", ropa, 800));
+    productRepository.save(product("remera_x", ropa, 2000));
+    // Snapshot says 10, the ledger tail takes it to 2
+    stockMovementRepository.save(movement(remeraLisa.getId(), -8));
+
+    Specification<Product> cheapRemeras = Specification.allOf(
+        ProductSpecifications.nameStartsWith("remera"),
+        ProductSpecifications.priceAtMost(1000),
+        ProductSpecifications.inCategories(List.of(ropa.getId())));
+    ProductSort byPriceDesc = ProductSort.parse("-price");
+
+    List<ProductResponse> firstPage = productRepository.search(cheapRemeras, byPriceDesc, null, 2);
+    assertThat(firstPage).extracting(ProductResponse::getName).containsExactly("remera lisa", "remera estampada");
+    assertThat(firstPage.get(0).getStock()).isEqualTo(2);
+
+    List<Object> after = byPriceDesc.parseValues(byPriceDesc.values(firstPage.get(1)));
+    assertThat(productRepository.search(cheapRemeras, byPriceDesc, after, 2))
+        .extracting(ProductResponse::getId).containsExactly(remera.getId());
+
+    assertThat(productRepository.search(ProductSpecifications.stockAtMost(5, productRepository.findStockTailRange()), ProductSort.BY_ID, null, 10))
+        .extracting(ProductResponse::getId).containsExactly(remeraLisa.getId());
+    assertThat(productRepository.search(ProductSpecifications.nameStartsWith("remera_"), ProductSort.BY_ID, null, 10))
+        .extracting(ProductResponse::getName).containsExactly("remera_x");
+  }
+
+  @Test
+  void findStockTailRange_shouldSpanTheUncompactedTailsAndZero() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Product remera = productRepository.save(product("remera", ropa));
+    Product buzo = productRepository.save(product("buzo", ropa));
+    productRepository.flush();
+    assertThat(productRepository.findStockTailRange()).extracting("lowest", "highest").containsExactly(0L, 0L);
+
+    stockMovementRepository.save(movement(remera.getId(), 3));
+    stockMovementRepository.save(movement(remera.getId(), 4));
+    stockMovementRepository.save(movement(buzo.getId(), 2));
+    productRepository.flush();
+    assertThat(productRepository.findStockTailRange()).extracting("lowest", "highest").containsExactly(0L, 7L);
+
+    stockMovementRepository.save(movement(buzo.getId(), -6));
+    productRepository.flush();
+    assertThat(productRepository.findStockTailRange()).extracting("lowest", "highest").containsExactly(-4L, 7L);
+  }
+
+  @Test
+  void stockFilter_shouldRangeScanTheSnapshotIndexWithinTheTailBound() {
+    assertThat(explain("select id from product where stock <= 7 and id > 0")).contains("IDX_PRODUCT_STOCK");
+    assertThat(explain("select product_id from stock_movement where compacted = false")).contains("IDX_STOCK_MOVEMENT_UNCOMPACTED");
+  }
+
+  @Test
+  void priceAndCategoryNameFilters_shouldRangeScanTheirIndexes() {
+    assertThat(explain("select id from product where price between 100 and 200")).contains("IDX_PRODUCT_PRICE");
+    assertThat(explain("select id from product where name like 'rem%'")).contains("IDX_PRODUCT_NAME");
+    assertThat(explain("select id from product where category_id in (1, 2) and id > 0")).contains("IDX_PRODUCT_CATEGORY");
+    assertThat(explain("select id from category where name = 'ropa'")).contains("IDX_CATEGORY_NAME");
+  }
+
+  private String explain(String sql) {
+    return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult()).toUpperCase();
+  }
+
+  private StockMovement movement(Long productId, int delta) {
+    StockMovement movement = new StockMovement();
+    movement.setProductId(productId);
+    movement.setDelta(delta);
+    movement.setCreatedAt(Instant.now());
+    return movement;
+  }
+
+  private Product product(String name, Category category) {
+    return product(name, category, 1000);
+  }
+
+  private Product product(String name, Category category, int price) {
+    Product product = new Product();
+    product.setName(name);
+    product.setDescription(name);
+    product.setPrice(price);
+    product.setStock(10);
+    product.setCategory(category);
+    return product;
+  }
 }
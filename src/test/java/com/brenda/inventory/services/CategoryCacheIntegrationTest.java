@@ -0,0 +1,100 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategoryCreateRequest;
+import com.brenda.inventory.dto.CategoryResponse;
+import com.brenda.inventory.dto.CategoryUpdateRequest;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CategoryCacheIntegrationTest {
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private CategoryCache categoryCache;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @BeforeEach
+  void setUp() {
+    categoryCache.invalidateAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    categoryRepository.deleteAll();
+    categoryCache.invalidateAll();
+  }
+
+  @Test
+  void getById_shouldLoadOnceAndThenHitCache() {
+    CategoryResponse created = categoryService.create(request("ropa"));
+    long hitsBefore = categoryCache.stats().getHits();
+    long missesBefore = categoryCache.stats().getMisses();
+
+    categoryService.getById(created.getId());
+    categoryService.getById(created.getId());
+    categoryService.getById(created.getId());
+
+    assertThat(categoryCache.stats().getMisses() - missesBefore).isEqualTo(1);
+    assertThat(categoryCache.stats().getHits() - hitsBefore).isEqualTo(2);
+  }
+
+  @Test
+  void update_shouldInvalidateIdNameAndList() {
+    CategoryResponse created = categoryService.create(request("ropa"));
+    assertThat(categoryCache.getByName("ropa")).hasSize(1);
+    assertThat(categoryService.getAll(10, null).getItems()).extracting(CategoryResponse::getName).containsExactly("ropa");
+
+    CategoryUpdateRequest update = new CategoryUpdateRequest();
+    update.setName("indumentaria");
+    categoryService.update(created.getId(), update, null);
+
+    assertThat(categoryService.getById(created.getId()).getName()).isEqualTo("indumentaria");
+    assertThat(categoryCache.getByName("ropa")).isEmpty();
+    assertThat(categoryCache.getByName("indumentaria")).hasSize(1);
+    assertThat(categoryService.getAll(10, null).getItems()).extracting(CategoryResponse::getName).containsExactly("indumentaria");
+  }
+
+  @Test
+  void delete_shouldInvalidate() {
+    CategoryResponse created = categoryService.create(request("ropa"));
+    categoryService.getById(created.getId());
+
+    categoryService.delete(created.getId());
+
+    assertThatThrownBy(() -> categoryService.getById(created.getId()))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  void getAll_shouldPageFromCachedListWithCursor() {
+    categoryService.create(request("ropa"));
+    categoryService.create(request("tecnologia"));
+    categoryService.create(request("hogar"));
+
+    var first = categoryService.getAll(2, null);
+    assertThat(first.getItems()).extracting(CategoryResponse::getName).containsExactly("ropa", "tecnologia");
+
+    var second = categoryService.getAll(2, first.getNextCursor());
+    assertThat(second.getItems()).extracting(CategoryResponse::getName).containsExactly("hogar");
+    assertThat(second.getNextCursor()).isNull();
+  }
+
+  private CategoryCreateRequest request(String name) {
+    CategoryCreateRequest request = new CategoryCreateRequest();
+    request.setName(name);
+    return request;
+  }
+}
@@ -0,0 +1,183 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategoryCreateRequest;
+import com.brenda.inventory.dto.CategorySummaryResponse;
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CategoryStatsIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private CategoryStatsService categoryStatsService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryStatsRepository categoryStatsRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+    categoryStatsRepository.deleteAll();
+  }
+
+  @Test
+  void productWrites_shouldKeepTotalsInStep() {
+    Long ropa = category("ropa");
+    Long calzado = category("calzado");
+    assertSummary(ropa, 0, 0, 0, 0);
+
+    Long remera = create("remera", 1000, 10, ropa);
+    create("media", 200, 3, ropa);
+    assertSummary(ropa, 2, 13, 10_600, 1);
+
+    productService.adjustStock(remera, -6, "order");
+    assertSummary(ropa, 2, 7, 4_600, 2);
+
+    // Re-priced and moved: the whole contribution leaves ropa and lands in calzado at the new price
+    productService.update(remera, update("remera", 1500, 4, calzado), null);
+    assertSummary(ropa, 1, 3, 600, 1);
+    assertSummary(calzado, 1, 4, 6_000, 1);
+
+    productService.delete(remera);
+    assertSummary(calzado, 0, 0, 0, 0);
+  }
+
+  @Test
+  void concurrentStockChanges_shouldAllBeCounted() throws Exception {
+    Long ropa = category("ropa");
+    List<Long> ids = List.of(create("remera", 100, 50, ropa), create("buzo", 300, 50, ropa));
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      Long id = ids.get(i % 2);
+      results.add(executor.submit(() -> productService.adjustStock(id, -1, "order")));
+    }
+    executor.shutdown();
+    for (Future<?> result : results) {
+      result.get();
+    }
+
+    assertSummary(ropa, 2, 60, 30 * 100 + 30 * 300, 0);
+  }
+
+  @Test
+  void rebuild_shouldMatchIncrementalTotals() {
+    Long ropa = category("ropa");
+    create("remera", 1000, 10, ropa);
+    Long media = create("media", 200, 3, ropa);
+    productService.adjustStock(media, 7, "restock");
+    stockLedger.compactNow();
+
+    CategorySummaryResponse incremental = categoryStatsService.getByCategory(ropa);
+    categoryStatsService.rebuild();
+    CategorySummaryResponse rebuilt = categoryStatsService.getByCategory(ropa);
+
+    assertThat(rebuilt).usingRecursiveComparison().isEqualTo(incremental);
+  }
+
+  @Test
+  void summaryEndpoints_shouldServeTotalsAndRebuild() throws Exception {
+    Long ropa = category("ropa");
+    create("remera", 1000, 10, ropa);
+    // Stale totals, as if a write had bypassed the services
+    categoryStatsRepository.increment(ropa, 5, 0, 0, 0);
+
+    mockMvc.perform(get("/categories/{id}/summary", ropa))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.categoryName").value("ropa"))
+        .andExpect(jsonPath("$.skuCount").value(6));
+
+    mockMvc.perform(post("/admin/category-summary/rebuild"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].skuCount").value(1));
+
+    mockMvc.perform(get("/categories/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].categoryId").value(ropa))
+        .andExpect(jsonPath("$[0].unitsInStock").value(10))
+        .andExpect(jsonPath("$[0].stockValue").value(10_000))
+        .andExpect(jsonPath("$[0].lowStockCount").value(0));
+
+    mockMvc.perform(get("/categories/{id}/summary", ropa + 1000))
+        .andExpect(status().isNotFound());
+  }
+
+  private void assertSummary(Long categoryId, long skus, long units, long value, long lowStock) {
+    CategorySummaryResponse summary = categoryStatsService.getByCategory(categoryId);
+    assertThat(summary.getSkuCount()).isEqualTo(skus);
+    assertThat(summary.getUnitsInStock()).isEqualTo(units);
+    assertThat(summary.getStockValue()).isEqualTo(value);
+    assertThat(summary.getLowStockCount()).isEqualTo(lowStock);
+  }
+
+  private Long category(String name) {
+    CategoryCreateRequest request = new CategoryCreateRequest();
+    request.setName(name);
+    return categoryService.create(request).getId();
+  }
+
+  private Long create(String name, int price, int stock, Long categoryId) {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName(name);
+    request.setPrice(price);
+    request.setStock(stock);
+    request.setCategoryId(categoryId);
+    return productService.create(request).getId();
+  }
+
+  private ProductUpdateRequest update(String name, int price, int stock, Long categoryId) {
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName(name);
+    request.setPrice(price);
+    request.setStock(stock);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+}
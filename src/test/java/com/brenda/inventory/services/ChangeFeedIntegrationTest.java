@@ -0,0 +1,156 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategoryCreateRequest;
+import com.brenda.inventory.dto.CategoryUpdateRequest;
+import com.brenda.inventory.dto.ChangeFeedResponse;
+import com.brenda.inventory.dto.ChangeResponse;
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeFeedIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryStatsRepository categoryStatsRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+    categoryStatsRepository.deleteAll();
+  }
+
+  @Test
+  void feed_shouldListCatalogWritesInOrderAfterTheCursor() throws Exception {
+    String cursor = changeFeedService.currentCursor();
+
+    Long ropa = categoryService.create(categoryRequest("ropa")).getId();
+    Long remera = productService.create(productRequest("remera", ropa)).getId();
+    productService.adjustStock(remera, -2, "order");
+    productService.update(remera, updateRequest("remera lisa", ropa), null);
+    categoryService.update(ropa, categoryUpdate("indumentaria"), null);
+    productService.delete(remera);
+
+    // Two per page, following nextCursor like a client would
+    List<String> changes = new ArrayList<>();
+    ChangeFeedResponse page;
+    do {
+      page = fetch("/changes?limit=2&since=" + cursor);
+      page.getItems().forEach(change -> changes.add(describe(change)));
+      cursor = page.getNextCursor();
+    } while (page.isHasMore());
+
+    assertThat(changes).containsExactly(
+        "CATEGORY " + ropa + " CREATED",
+        "PRODUCT " + remera + " CREATED",
+        "PRODUCT " + remera + " UPDATED",
+        "PRODUCT " + remera + " UPDATED",
+        "CATEGORY " + ropa + " UPDATED",
+        "PRODUCT " + remera + " DELETED");
+
+    // Caught up: nothing new, and the cursor stays where it was
+    ChangeFeedResponse caughtUp = fetch("/changes?since=" + cursor);
+    assertThat(caughtUp.getItems()).isEmpty();
+    assertThat(caughtUp.getNextCursor()).isEqualTo(cursor);
+  }
+
+  @Test
+  void prunedCursor_shouldBeGone() throws Exception {
+    String cursor = changeFeedService.currentCursor();
+    categoryService.create(categoryRequest("ropa"));
+    categoryService.create(categoryRequest("calzado"));
+
+    changeFeedService.prune(Instant.now().plusSeconds(1));
+
+    mockMvc.perform(get("/changes").param("since", cursor))
+        .andExpect(status().isGone());
+    assertThat(fetch("/changes?since=" + changeFeedService.currentCursor()).getItems()).isEmpty();
+  }
+
+  private ChangeFeedResponse fetch(String uri) throws Exception {
+    String body = mockMvc.perform(get(uri))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readValue(body, ChangeFeedResponse.class);
+  }
+
+  private static String describe(ChangeResponse change) {
+    return change.getEntityType() + " " + change.getEntityId() + " " + change.getOperation();
+  }
+
+  private static CategoryCreateRequest categoryRequest(String name) {
+    CategoryCreateRequest request = new CategoryCreateRequest();
+    request.setName(name);
+    return request;
+  }
+
+  private static CategoryUpdateRequest categoryUpdate(String name) {
+    CategoryUpdateRequest request = new CategoryUpdateRequest();
+    request.setName(name);
+    return request;
+  }
+
+  private static ProductCreateRequest productRequest(String name, Long categoryId) {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName(name);
+    request.setPrice(1000);
+    request.setStock(10);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+
+  // Same stock as left by the adjustment, so the update itself is the only change it logs
+  private static ProductUpdateRequest updateRequest(String name, Long categoryId) {
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName(name);
+    request.setPrice(1200);
+    request.setStock(8);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+}
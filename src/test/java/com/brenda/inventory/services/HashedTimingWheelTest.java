@@ -0,0 +1,51 @@
+package com.brenda.inventory.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+  @Test
+  void shouldFireDueTimeoutsInDeadlineOrderAndSkipCancelledOnes() throws Exception {
+    List<String> fired = new CopyOnWriteArrayList<>();
+
+    // 8 buckets of 10ms: the 150ms deadline needs more than one revolution
+    try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, fired::add, "test-wheel")) {
+      Instant now = Instant.now();
+      wheel.schedule("late", now.plusMillis(150));
+      wheel.schedule("early", now.plusMillis(20));
+      wheel.schedule("cancelled", now.plusMillis(40)).cancel();
+      wheel.schedule("overdue", now.minusMillis(1000));
+
+      Thread.sleep(400);
+    }
+
+    assertThat(fired).containsExactly("overdue", "early", "late");
+  }
+
+  @Test
+  void schedule_shouldRegisterTheTimeoutBeforeItCanFire() throws Exception {
+    List<String> events = new CopyOnWriteArrayList<>();
+
+    try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, item -> events.add("fired"), "test-wheel")) {
+      // Overdue, and registration outlasts several ticks
+      wheel.schedule("overdue", Instant.now().minusMillis(1000), timeout -> {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        events.add("registered");
+      });
+
+      Thread.sleep(100);
+    }
+
+    assertThat(events).containsExactly("registered", "fired");
+  }
+}
@@ -0,0 +1,151 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.exceptions.PreconditionFailedException;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductCacheIntegrationTest {
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductCache productCache;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Category ropa;
+  private Long productId;
+
+  @BeforeEach
+  void setUp() {
+    ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Product remera = new Product();
+    remera.setName("remera");
+    remera.setPrice(1000);
+    remera.setStock(10);
+    remera.setCategory(ropa);
+    productId = productRepository.save(remera).getId();
+
+    productCache.invalidateAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void concurrentMisses_shouldCollapseIntoOneLoad() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        return productService.getById(productId).getName();
+      }));
+    }
+    start.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get()).isEqualTo("remera");
+    }
+    executor.shutdown();
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void stockChange_shouldInvalidateCachedResponse() {
+    assertThat(productService.getById(productId).getStock()).isEqualTo(10);
+
+    productService.adjustStock(productId, -3, "order");
+
+    assertThat(productService.getById(productId).getStock()).isEqualTo(7);
+  }
+
+  @Test
+  void update_shouldInvalidateCachedResponse() {
+    assertThat(productService.getById(productId).getName()).isEqualTo("remera");
+
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName("remera lisa");
+    request.setPrice(1200);
+    request.setStock(10);
+    request.setCategoryId(ropa.getId());
+    productService.update(productId, request, null);
+
+    assertThat(productService.getById(productId).getName()).isEqualTo("remera lisa");
+    assertThat(productService.getById(productId).getPrice()).isEqualTo(1200);
+  }
+
+  @Test
+  void update_shouldBumpVersionAndRejectStaleExpectedVersion() {
+    Long version = productService.getById(productId).getVersion();
+
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName("remera lisa");
+    request.setPrice(1200);
+    request.setStock(10);
+    request.setCategoryId(ropa.getId());
+
+    assertThat(productService.update(productId, request, version).getVersion()).isEqualTo(version + 1);
+    assertThat(productService.getById(productId).getVersion()).isEqualTo(version + 1);
+
+    assertThatThrownBy(() -> productService.update(productId, request, version))
+        .isInstanceOf(PreconditionFailedException.class);
+  }
+
+  @Test
+  void delete_shouldInvalidateCachedResponse() {
+    productService.getById(productId);
+
+    productService.delete(productId);
+
+    assertThatThrownBy(() -> productService.getById(productId))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+}
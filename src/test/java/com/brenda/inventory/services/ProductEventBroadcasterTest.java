@@ -0,0 +1,150 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Slow clients, simulated by an emitter whose writes block until released
+class ProductEventBroadcasterTest {
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private ProductEventBroadcaster broadcaster;
+
+  @AfterEach
+  void tearDown() {
+    broadcaster.stop();
+  }
+
+  @Test
+  void dropOldest_shouldDiscardTheOldestEventsAndAnnounceHowMany() throws Exception {
+    broadcaster = broadcaster(2, "drop-oldest", 60_000);
+    BlockingEmitter slow = subscribe();
+
+    broadcaster.deleted(1L, 10L);
+    slow.awaitBlocked();
+    for (long productId = 2; productId <= 5; productId++) {
+      broadcaster.deleted(productId, 10L);
+    }
+    slow.release();
+
+    assertThat(slow.next()).contains("event:DELETED", "productId=1");
+    assertThat(slow.next()).contains("event:dropped", "dropped=2");
+    assertThat(slow.next()).contains("productId=4");
+    assertThat(slow.next()).contains("productId=5");
+    assertThat(meterRegistry.get("inventory.events.dropped").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void disconnect_shouldCloseTheStreamThatOverflowsAndKeepServingTheOthers() throws Exception {
+    broadcaster = broadcaster(1, "disconnect", 60_000);
+    BlockingEmitter slow = subscribe();
+    BlockingEmitter fast = subscribe();
+    fast.release();
+
+    // One at a time, so only the stream that doesn't read falls a whole buffer behind
+    broadcaster.deleted(1L, 10L);
+    slow.awaitBlocked();
+    assertThat(fast.next()).contains("productId=1");
+    broadcaster.deleted(2L, 10L);
+    assertThat(fast.next()).contains("productId=2");
+    broadcaster.deleted(3L, 10L);
+    assertThat(fast.next()).contains("productId=3");
+
+    assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(meterRegistry.get("inventory.events.disconnected").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("inventory.events.subscribers").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void stuckWrite_shouldCloseThatStreamAfterTheSendTimeout() throws Exception {
+    broadcaster = broadcaster(256, "drop-oldest", 100);
+    BlockingEmitter stuck = subscribe();
+    BlockingEmitter other = subscribe();
+    other.release();
+
+    broadcaster.deleted(1L, 10L);
+    stuck.awaitBlocked();
+
+    assertThat(stuck.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    broadcaster.deleted(2L, 10L);
+    assertThat(other.next()).contains("productId=1");
+    assertThat(other.next()).contains("productId=2");
+    assertThat(meterRegistry.get("inventory.events.subscribers").gauge().value()).isEqualTo(1);
+  }
+
+  private ProductEventBroadcaster broadcaster(int bufferSize, String overflowPolicy, long sendTimeoutMillis) {
+    StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+    return new ProductEventBroadcaster(beans.getBeanProvider(MeterRegistry.class), bufferSize, overflowPolicy,
+        sendTimeoutMillis, 3600, 60_000, 5);
+  }
+
+  private BlockingEmitter subscribe() {
+    BlockingEmitter emitter = new BlockingEmitter();
+    broadcaster.subscribe(emitter, Set.of(), Set.of());
+    return emitter;
+  }
+
+  /** Records each event as text; event writes wait for {@link #release} (the subscribe comment doesn't). */
+  private static final class BlockingEmitter extends SseEmitter {
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      StringBuilder text = new StringBuilder();
+      for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+        Object data = part.getData();
+        text.append(data instanceof ProductEvent event ? "productId=" + event.getProductId() : data);
+      }
+      if (!text.toString().contains("event:")) {
+        return;
+      }
+      blocked.countDown();
+      try {
+        if (!released.await(10, TimeUnit.SECONDS)) {
+          throw new IOException("Write timed out");
+        }
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IOException(exception);
+      }
+      sent.add(text.toString());
+    }
+
+    @Override
+    public void complete() {
+      completed.countDown();
+      super.complete();
+    }
+
+    void awaitBlocked() throws InterruptedException {
+      assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    void release() {
+      released.countDown();
+    }
+
+    String next() throws InterruptedException {
+      String event = sent.poll(5, TimeUnit.SECONDS);
+      assertThat(event).isNotNull();
+      return event;
+    }
+  }
+}
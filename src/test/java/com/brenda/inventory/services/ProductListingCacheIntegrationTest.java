@@ -0,0 +1,160 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategoryCreateRequest;
+import com.brenda.inventory.dto.CategoryUpdateRequest;
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "inventory.cache.listings.gzip-min-bytes=0")
+class ProductListingCacheIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductListingCache productListingCache;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryStatsRepository categoryStatsRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+    categoryStatsRepository.deleteAll();
+  }
+
+  @Test
+  void categoryListing_shouldBeServedFromCacheUntilAWriteInThatCategory() throws Exception {
+    Long ropa = category("ropa-listado");
+    Long calzado = category("calzado-listado");
+    Long remera = product("remera", 10, ropa);
+    Long zapatilla = product("zapatilla", 10, calzado);
+
+    long hitsBefore = productListingCache.stats().getHits();
+    listing("ropa-listado").andExpect(jsonPath("$.items[0].stock").value(10));
+    listing("ropa-listado").andExpect(jsonPath("$.items[0].stock").value(10));
+    assertThat(productListingCache.stats().getHits()).isEqualTo(hitsBefore + 1);
+
+    // Another category's write leaves the entry alone, one in this category replaces it
+    productService.adjustStock(zapatilla, -1, "order");
+    listing("ropa-listado");
+    assertThat(productListingCache.stats().getHits()).isEqualTo(hitsBefore + 2);
+
+    productService.adjustStock(remera, -3, "order");
+    listing("ropa-listado").andExpect(jsonPath("$.items[0].stock").value(7));
+  }
+
+  @Test
+  void categoryWrites_shouldRefreshListingsCachedUnderTheName() throws Exception {
+    listing("accesorios-listado").andExpect(jsonPath("$.items.length()").value(0));
+
+    Long accesorios = category("accesorios-listado");
+    product("gorra", 5, accesorios);
+    listing("accesorios-listado").andExpect(jsonPath("$.items.length()").value(1));
+
+    CategoryUpdateRequest rename = new CategoryUpdateRequest();
+    rename.setName("complementos-listado");
+    categoryService.update(accesorios, rename, null);
+    listing("accesorios-listado").andExpect(jsonPath("$.items.length()").value(0));
+    listing("complementos-listado").andExpect(jsonPath("$.items[0].category.name").value("complementos-listado"));
+  }
+
+  @Test
+  void gzipClients_shouldGetThePrecompressedCopy() throws Exception {
+    Long ropa = category("ropa-gzip");
+    product("remera", 10, ropa);
+
+    String plain = listing("ropa-gzip").andReturn().getResponse().getContentAsString();
+
+    MvcResult gzipped = mockMvc.perform(get("/products").param("category", "ropa-gzip")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andReturn();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain);
+    }
+  }
+
+  @Test
+  void gzipRefusedWithQZero_shouldGetThePlainCopy() throws Exception {
+    Long ropa = category("ropa-identity");
+    product("remera", 10, ropa);
+
+    for (String acceptEncoding : List.of("gzip;q=0, identity", "*;q=0.5, gzip; q=0", "br", "*;q=0")) {
+      mockMvc.perform(get("/products").param("category", "ropa-identity")
+              .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+          .andExpect(status().isOk())
+          .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+          .andExpect(jsonPath("$.items[0].name").value("remera"));
+    }
+    mockMvc.perform(get("/products").param("category", "ropa-identity")
+            .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1, *;q=0.1"))
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+  }
+
+  private ResultActions listing(String category) throws Exception {
+    return mockMvc.perform(get("/products").param("category", category))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  private Long category(String name) {
+    CategoryCreateRequest request = new CategoryCreateRequest();
+    request.setName(name);
+    return categoryService.create(request).getId();
+  }
+
+  private Long product(String name, int stock, Long categoryId) {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName(name);
+    request.setPrice(1000);
+    request.setStock(stock);
+    request.setCategoryId(categoryId);
+    return productService.create(request).getId();
+  }
+}
@@ -0,0 +1,104 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductText;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+  @Test
+  void tokenize_shouldFoldCaseAndAccents() {
+    assertThat(ProductSearchIndex.tokenize("Campera IMPERMEABLE, talle único (XL)"))
+        .containsExactly("campera", "impermeable", "talle", "unico", "xl");
+  }
+
+  @Test
+  void search_shouldMatchEveryWordByPrefixAndRankNameMatchesFirst() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(1L, 0L, "Mouse inalámbrico", "con receptor USB");
+    index.index(2L, 0L, "Teclado", "inalambrico, compatible con mouse");
+    index.index(3L, 0L, "Mousepad", "antideslizante");
+    index.index(4L, 0L, "Monitor", "24 pulgadas");
+
+    assertThat(index.search("mouse", 10).productIds()).startsWith(1L).containsExactlyInAnyOrder(1L, 2L, 3L);
+    assertThat(index.search("INALAMB mous", 10).productIds()).containsExactly(1L, 2L);
+    // Rarer terms first, ties to the lower id
+    assertThat(index.search("mo", 2)).isEqualTo(new ProductSearchIndex.Hits(List.of(3L, 4L), 4));
+    assertThat(index.search("mouse parlante", 10).total()).isZero();
+    assertThat(index.search("¿?", 10).total()).isZero();
+  }
+
+  @Test
+  void writes_shouldReplaceOrRemoveTextAndIgnoreOlderVersions() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(1L, 0L, "remera", null);
+    index.index(1L, 2L, "buzo", null);
+    // Arrives late, after version 2 was indexed
+    index.index(1L, 1L, "campera", null);
+
+    assertThat(index.search("remera", 10).total()).isZero();
+    assertThat(index.search("campera", 10).total()).isZero();
+    assertThat(index.search("buzo", 10).productIds()).containsExactly(1L);
+
+    index.remove(1L, 2L);
+    assertThat(index.search("buzo", 10).total()).isZero();
+    assertThat(index.stats().getDocuments()).isZero();
+  }
+
+  @Test
+  void lateWrite_afterRemove_shouldNotBringTheProductBack() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(1L, 3L, "remera", null);
+    index.remove(1L, 3L);
+    // An update committed before the delete whose index call arrives after it
+    index.index(1L, 2L, "remera lisa", null);
+    index.index(1L, 3L, "remera", null);
+
+    assertThat(index.search("remera", 10).total()).isZero();
+    assertThat(index.stats().getDocuments()).isZero();
+
+    index.rebuild(Stream.of(new ProductText(2L, 0L, "buzo", null)));
+    index.index(1L, 3L, "remera", null);
+    assertThat(index.search("remera", 10).total()).isZero();
+  }
+
+  @Test
+  void manyUpdates_shouldCompactDeadDocumentsAwayWithoutLosingAny() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    for (long version = 0; version < 20; version++) {
+      for (long id = 1; id <= 500; id++) {
+        index.index(id, version, "producto " + id, "version " + version);
+      }
+    }
+
+    assertThat(index.search("producto", 1000).total()).isEqualTo(500);
+    assertThat(index.search("version 19", 1000).total()).isEqualTo(500);
+    assertThat(index.search("version 0", 1000).total()).isZero();
+    assertThat(index.stats().getPostings()).isLessThan(500L * 4 * 3);
+  }
+
+  @Test
+  void rebuild_shouldKeepWritesMadeWhileReading() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(1L, 0L, "viejo", null);
+
+    Stream<ProductText> products = LongStream.rangeClosed(1, 3)
+        .mapToObj(id -> {
+          if (id == 2) {
+            // A write committed while the rebuild is reading
+            index.index(9L, 0L, "nuevo", null);
+          }
+          return new ProductText(id, 0L, "producto " + id, null);
+        });
+    index.rebuild(products);
+
+    assertThat(index.search("producto", 10).productIds()).containsExactly(1L, 2L, 3L);
+    assertThat(index.search("nuevo", 10).productIds()).containsExactly(9L);
+    assertThat(index.search("viejo", 10).total()).isZero();
+  }
+}
@@ -0,0 +1,146 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.CategoryCreateRequest;
+import com.brenda.inventory.dto.ProductCreateRequest;
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductSearchServiceIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductSearchService productSearchService;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryStatsRepository categoryStatsRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  private Long categoryId;
+
+  @BeforeEach
+  void setUp() {
+    categoryId = categoryService.create(categoryRequest("ropa")).getId();
+    // Other tests write products around the services; start from what is in the database
+    productSearchService.rebuild();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+    categoryStatsRepository.deleteAll();
+  }
+
+  @Test
+  void search_shouldFollowProductWrites() throws Exception {
+    Long campera = productService.create(productRequest("Campera impermeable", "Con capucha")).getId();
+    Long buzo = productService.create(productRequest("Buzo", "Algodón, ideal bajo la campera")).getId();
+
+    mockMvc.perform(get("/products/search").param("q", "CAMP"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(2))
+        .andExpect(jsonPath("$.items[*].id", contains(campera.intValue(), buzo.intValue())))
+        .andExpect(jsonPath("$.items[0].category.name").value("ropa"));
+
+    productService.update(campera, updateRequest("Campera rompevientos"), null);
+    mockMvc.perform(get("/products/search").param("q", "impermeable"))
+        .andExpect(jsonPath("$.total").value(0));
+    mockMvc.perform(get("/products/search").param("q", "rompevientos campera"))
+        .andExpect(jsonPath("$.items[*].id", contains(campera.intValue())));
+
+    productService.delete(buzo);
+    mockMvc.perform(get("/products/search").param("q", "algodon"))
+        .andExpect(jsonPath("$.total").value(0));
+  }
+
+  @Test
+  void rebuild_shouldIndexProductsWrittenAroundTheService() throws Exception {
+    Category category = categoryRepository.findById(categoryId).orElseThrow();
+    Product product = new Product();
+    product.setName("Pantalón cargo");
+    product.setPrice(100);
+    product.setStock(1);
+    product.setCategory(category);
+    Long id = productRepository.save(product).getId();
+
+    assertThat(productSearchService.search("cargo", 10).getTotal()).isZero();
+
+    mockMvc.perform(post("/admin/search-index/rebuild"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.documents").value(1));
+    assertThat(productSearchService.search("pantalon", 10).getItems())
+        .extracting(item -> item.getId())
+        .containsExactly(id);
+  }
+
+  @Test
+  void blankQuery_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/products/search").param("q", " -- "))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/products/search"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static CategoryCreateRequest categoryRequest(String name) {
+    CategoryCreateRequest request = new CategoryCreateRequest();
+    request.setName(name);
+    return request;
+  }
+
+  private ProductCreateRequest productRequest(String name, String description) {
+    ProductCreateRequest request = new ProductCreateRequest();
+    request.setName(name);
+    request.setDescription(description);
+    request.setPrice(1000);
+    request.setStock(10);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+
+  private ProductUpdateRequest updateRequest(String name) {
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName(name);
+    request.setPrice(1000);
+    request.setStock(10);
+    request.setCategoryId(categoryId);
+    return request;
+  }
+}
@@ -0,0 +1,163 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.dto.ReservationCreateRequest;
+import com.brenda.inventory.dto.ReservationResponse;
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.entity.ReservationStatus;
+import com.brenda.inventory.entity.StockMovement;
+import com.brenda.inventory.exceptions.ConflictException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import com.brenda.inventory.repositories.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "inventory.reservations.wheel-tick-ms=20")
+class ReservationServiceIntegrationTest {
+
+  @Autowired
+  private ReservationService reservationService;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private StockReservationRepository reservationRepository;
+
+  private Long productId;
+  private Long categoryId;
+
+  @BeforeEach
+  void setUp() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+    categoryId = ropa.getId();
+
+    Product remera = new Product();
+    remera.setName("remera");
+    remera.setPrice(1000);
+    remera.setStock(10);
+    remera.setCategory(ropa);
+    productId = productRepository.save(remera).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    reservationRepository.deleteAll();
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void holds_shouldReduceAvailabilityAndRejectOverbooking() {
+    reservationService.create(request(6, null));
+    assertThat(reservationService.getAvailability(productId).getAvailable()).isEqualTo(4);
+
+    assertThatThrownBy(() -> reservationService.create(request(5, null)))
+        .isInstanceOf(ConflictException.class);
+  }
+
+  @Test
+  void confirm_shouldTakeStockAndRelease_shouldReturnHold() {
+    ReservationResponse confirmed = reservationService.create(request(3, null));
+    ReservationResponse released = reservationService.create(request(2, null));
+
+    assertThat(reservationService.confirm(confirmed.getId()).getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+    assertThat(reservationService.release(released.getId()).getStatus()).isEqualTo(ReservationStatus.RELEASED);
+
+    assertThat(reservationService.getAvailability(productId).getStock()).isEqualTo(7);
+    assertThat(reservationService.getAvailability(productId).getReserved()).isZero();
+
+    assertThatThrownBy(() -> reservationService.confirm(released.getId()))
+        .isInstanceOf(ConflictException.class);
+  }
+
+  @Test
+  void confirm_whenTheMovementIsRejected_shouldLeaveTheHoldActive() {
+    ReservationResponse hold = reservationService.create(request(6, null));
+
+    // Stock lowered behind the ledger's back, below the units held
+    StockMovement shrinkage = new StockMovement();
+    shrinkage.setProductId(productId);
+    shrinkage.setDelta(-6);
+    shrinkage.setReason("shrinkage");
+    shrinkage.setCreatedAt(Instant.now());
+    stockMovementRepository.save(shrinkage);
+
+    assertThatThrownBy(() -> reservationService.confirm(hold.getId()))
+        .isInstanceOf(ConflictException.class);
+
+    assertThat(reservationService.getById(hold.getId()).getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+    assertThat(reservationService.getAvailability(productId).getStock()).isEqualTo(4);
+    assertThat(reservationService.getAvailability(productId).getReserved()).isEqualTo(6);
+    assertThat(reservationService.release(hold.getId()).getStatus()).isEqualTo(ReservationStatus.RELEASED);
+    assertThat(reservationService.getAvailability(productId).getReserved()).isZero();
+  }
+
+  @Test
+  void stockWrites_shouldNotTakeUnitsHeldByReservations() {
+    ReservationResponse hold = reservationService.create(request(6, null));
+
+    assertThatThrownBy(() -> productService.adjustStock(productId, -5, "order"))
+        .isInstanceOf(ConflictException.class);
+    assertThat(productService.adjustStock(productId, -4, "order").getStock()).isEqualTo(6);
+
+    // Rejected as a whole: the new name doesn't stick either
+    ProductUpdateRequest update = new ProductUpdateRequest();
+    update.setName("remera lisa");
+    update.setPrice(1000);
+    update.setStock(5);
+    update.setCategoryId(categoryId);
+    assertThatThrownBy(() -> productService.update(productId, update, null))
+        .isInstanceOf(ConflictException.class);
+    assertThat(productService.getById(productId).getName()).isEqualTo("remera");
+
+    assertThat(reservationService.confirm(hold.getId()).getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+    assertThat(reservationService.getAvailability(productId).getStock()).isZero();
+    assertThat(reservationService.getAvailability(productId).getReserved()).isZero();
+  }
+
+  @Test
+  void expiredHolds_shouldBeReclaimedByTheWheel() throws Exception {
+    ReservationResponse hold = reservationService.create(request(8, 1));
+    assertThat(reservationService.getAvailability(productId).getAvailable()).isEqualTo(2);
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (reservationService.getAvailability(productId).getReserved() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+
+    assertThat(reservationService.getAvailability(productId).getAvailable()).isEqualTo(10);
+    assertThat(reservationService.getById(hold.getId()).getStatus()).isEqualTo(ReservationStatus.EXPIRED);
+  }
+
+  private ReservationCreateRequest request(int quantity, Integer ttlSeconds) {
+    ReservationCreateRequest request = new ReservationCreateRequest();
+    request.setProductId(productId);
+    request.setQuantity(quantity);
+    request.setTtlSeconds(ttlSeconds);
+    return request;
+  }
+}
@@ -0,0 +1,133 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.entity.Category;
+import com.brenda.inventory.dto.ProductUpdateRequest;
+import com.brenda.inventory.entity.Product;
+import com.brenda.inventory.entity.StockMovement;
+import com.brenda.inventory.exceptions.ConflictException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StockLedgerIntegrationTest {
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @AfterEach
+  void tearDown() {
+    stockMovementRepository.deleteAll();
+    productRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void adjustStock_underContention_shouldNeverLoseUpdatesOrOversell() throws Exception {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Long id = productRepository.save(product("remera", 20, ropa)).getId();
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      results.add(executor.submit(() -> {
+        try {
+          productService.adjustStock(id, -1, "order");
+          return true;
+        } catch (ConflictException exception) {
+          return false;
+        }
+      }));
+    }
+    executor.shutdown();
+
+    int succeeded = 0;
+    for (Future<Boolean> result : results) {
+      if (result.get()) {
+        succeeded++;
+      }
+    }
+
+    assertThat(succeeded).isEqualTo(20);
+    assertThat(productRepository.findStockById(id)).contains(0);
+  }
+
+  @Test
+  void compaction_shouldFoldLedgerIntoSnapshotAndKeepHistory() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Long id = productRepository.save(product("remera", 10, ropa)).getId();
+
+    productService.adjustStock(id, -3, "order 1");
+    productService.adjustStock(id, 5, "restock");
+    assertThat(productService.getById(id).getStock()).isEqualTo(12);
+    assertThat(productRepository.findById(id).orElseThrow().getStock()).isEqualTo(10);
+
+    assertThat(stockLedger.compactNow()).isEqualTo(2);
+
+    assertThat(productRepository.findById(id).orElseThrow().getStock()).isEqualTo(12);
+    assertThat(productService.getById(id).getStock()).isEqualTo(12);
+    assertThat(stockMovementRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  void update_shouldRecordStockChangeInLedger() {
+    Category ropa = new Category();
+    ropa.setName("ropa");
+    ropa = categoryRepository.save(ropa);
+
+    Long id = productRepository.save(product("remera", 10, ropa)).getId();
+    productService.adjustStock(id, -4, "order 1");
+
+    ProductUpdateRequest request = new ProductUpdateRequest();
+    request.setName("remera");
+    request.setPrice(1000);
+    request.setStock(15);
+    request.setCategoryId(ropa.getId());
+
+    assertThat(productService.update(id, request, null).getStock()).isEqualTo(15);
+    assertThat(productService.getById(id).getStock()).isEqualTo(15);
+    assertThat(stockMovementRepository.findAll())
+        .filteredOn(movement -> movement.getProductId().equals(id))
+        .extracting(StockMovement::getDelta)
+        .containsExactlyInAnyOrder(-4, 9);
+  }
+
+  private Product product(String name, int stock, Category category) {
+    Product product = new Product();
+    product.setName(name);
+    product.setPrice(1000);
+    product.setStock(stock);
+    product.setCategory(category);
+    return product;
+  }
+}
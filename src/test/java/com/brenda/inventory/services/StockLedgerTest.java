@@ -0,0 +1,96 @@
+package com.brenda.inventory.services;
+
+import com.brenda.inventory.dto.ProductStockState;
+import com.brenda.inventory.exceptions.ResourceNotFoundException;
+import com.brenda.inventory.repositories.CategoryRepository;
+import com.brenda.inventory.repositories.CategoryStatsRepository;
+import com.brenda.inventory.repositories.ProductRepository;
+import com.brenda.inventory.repositories.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The writer's failure paths, against mocked repositories: no caller may be left waiting on its result
+class StockLedgerTest {
+  private final ProductRepository productRepository = mock(ProductRepository.class);
+  private final ProductEventBroadcaster productEvents = mock(ProductEventBroadcaster.class);
+  private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+  private StockLedger stockLedger;
+
+  @BeforeEach
+  void setUp() {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    CategoryStatsService categoryStats = new CategoryStatsService(mock(CategoryStatsRepository.class),
+        mock(CategoryRepository.class), productRepository, transactionManager, 5);
+
+    stockLedger = new StockLedger(productRepository, mock(StockMovementRepository.class), mock(ProductCache.class),
+        mock(ProductListingCache.class), new ReservedStock(), categoryStats, productEvents, mock(ChangeFeedService.class),
+        transactionManager, 500, 100, TimeUnit.HOURS.toMillis(1));
+    stockLedger.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    stockLedger.stop();
+  }
+
+  @Test
+  void failedCommit_shouldFailEveryMovementInTheGroup() {
+    when(productRepository.findAllByIdForUpdate(any())).thenThrow(new QueryTimeoutException("lock timeout"));
+
+    CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> stockLedger.append(1L, -1, "order"));
+    CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> stockLedger.set(2L, 5, "update"));
+
+    assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(QueryTimeoutException.class);
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(QueryTimeoutException.class);
+  }
+
+  @Test
+  void failingHookAfterCommit_shouldStillAnswerTheCaller() throws Exception {
+    when(productRepository.findStockStatesByIds(any())).thenReturn(List.of(new ProductStockState(1L, 10L, 100, 4)));
+    doThrow(new IllegalStateException("listener failed")).when(productEvents).stockChanged(anyLong(), anyLong(), anyInt(), anyInt());
+
+    assertThat(CompletableFuture.supplyAsync(() -> stockLedger.append(1L, 2, "restock")).get(5, TimeUnit.SECONDS))
+        .isEqualTo(6);
+  }
+
+  @Test
+  void rejectedSet_shouldRollBackTheWritesMadeWithIt() {
+    AtomicBoolean ran = new AtomicBoolean();
+
+    assertThatThrownBy(() -> CompletableFuture.supplyAsync(() -> stockLedger.set(1L, 5, "update", () -> ran.set(true)))
+        .get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(ResourceNotFoundException.class);
+    assertThat(ran).isTrue();
+    verify(transactionManager).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
+  @Test
+  void afterStop_shouldRejectNewMovements() throws InterruptedException {
+    stockLedger.stop();
+
+    assertThatThrownBy(() -> stockLedger.append(1L, 1, "restock"))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Stock ledger stopped");
+  }
+}